@@ -0,0 +1,65 @@
+import java.util.List;
+
+/**
+ * HotPathHarness runs the registration system's hot paths headlessly against the data files in the working
+ * directory and prints how long each took: loading the data, logging every account in, the registration
+ * checks for every student and course, and the all-courses report. It needs no JavaFX, so it can be run under
+ * a profiler, and it shows how much of startup is spent outside the windows.
+ */
+public final class HotPathHarness {
+
+    private HotPathHarness() {
+    }
+
+    /**
+     * Runs each hot path once and prints its time.
+     * @param args The password to log every account in with; defaults to "123", the password of the sample data.
+     * @throws Exception If a login fails with an error.
+     */
+    public static void main(String[] args) throws Exception {
+        String password = args.length > 0 ? args[0] : "123";
+
+        long start = System.nanoTime();
+        AppDataContext dataContext = AppDataContext.load(DataThread.DIRECT);
+        report("load", start, dataContext.getCourses().size() + " courses, "
+                + dataContext.getAccounts().size() + " accounts");
+
+        start = System.nanoTime();
+        int loggedIn = 0;
+        for (Account account : dataContext.getAccounts()) {
+            if (dataContext.getSessions().loginAsync(account.getUsername(), password).get() != null) {
+                loggedIn++;
+            }
+        }
+        report("login", start, loggedIn + " of " + dataContext.getAccounts().size() + " logged in");
+
+        RegistrationService registration = dataContext.getRegistration();
+        List<Course> courses = dataContext.getCourses().toList();
+        start = System.nanoTime();
+        int allowed = 0;
+        int checks = 0;
+        for (Account account : dataContext.getAccounts()) {
+            if (account.getType() != Account.Type.STUDENT) {
+                continue;
+            }
+            registration.getAvailableCourses(account.getUsername());
+            for (Course course : courses) {
+                checks++;
+                if (registration.checkRegistration(account.getUsername(), course.getCode()) == null) {
+                    allowed++;
+                }
+            }
+        }
+        report("registration checks", start, allowed + " of " + checks + " allowed");
+
+        start = System.nanoTime();
+        String report = CourseReports.viewAllCourses(dataContext.getCatalogStore().snapshot());
+        report("view all courses", start, report.length() + " characters");
+
+        dataContext.close();
+    }
+
+    private static void report(String path, long startNanos, String detail) {
+        System.out.printf("%-20s %10.2f ms  %s%n", path, (System.nanoTime() - startNanos) / 1e6, detail);
+    }
+}
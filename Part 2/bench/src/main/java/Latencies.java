@@ -0,0 +1,40 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latencies collects a fixed number of latencies from any thread and reports percentiles, for the load test
+ * and the traffic replayer.
+ */
+final class Latencies {
+
+    private final long[] values;
+    private final AtomicInteger count = new AtomicInteger();
+
+    Latencies(int capacity) {
+        this.values = new long[capacity];
+    }
+
+    void record(long nanos) {
+        values[count.getAndIncrement()] = nanos;
+    }
+
+    int count() {
+        return count.get();
+    }
+
+    String summary() {
+        long[] sorted = Arrays.copyOf(values, count.get());
+        Arrays.sort(sorted);
+        return String.format("p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms (%d samples)",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                percentile(sorted, 1.0), sorted.length);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,250 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * RegistrationRush is a load test of the first minutes of a trimester, when every student logs in and registers
+ * their cart at once. It generates a {@link SyntheticCohort} with a cart per student, writes the catalog to a
+ * scratch folder, and releases students at a fixed arrival rate to a pool of client threads. Each student logs
+ * in and registers their whole cart, as the registration window does, against one of several application
+ * instances; every instance has its own data thread and all of them commit to the same courses file.
+ * Latencies are measured from when a student was due to arrive, so time spent waiting for a free client counts.
+ * At the end the courses file is checked for registrations that were reported as saved but are missing.
+ * Options, all optional: --students 30000 --courses 300 --enrollments 0 --instances 1 --concurrency 64
+ * --rate 50 (arrivals per second) --iterations (PBKDF2 cost, default as configured) --seed 27
+ */
+public final class RegistrationRush {
+
+    private static final String PASSWORD = "password";
+    private static final long RETRY_DELAY_MILLIS = 50;
+
+    private final int students;
+    private final int instances;
+    private final int concurrency;
+    private final double rate;
+    private final long seed;
+    private final SyntheticCohort cohort;
+    private final String coursesFile;
+
+    private final Latencies loginLatencies;
+    private final Latencies cartLatencies;
+    private final LongAdder registered = new LongAdder();
+    private final LongAdder loginRetries = new LongAdder();
+    private final LongAdder failedLogins = new LongAdder();
+    private final Map<String, LongAdder> refusals = new HashMap<>();
+    private final ConcurrentLinkedQueue<String[]> saved = new ConcurrentLinkedQueue<>();
+
+    private final List<ExecutorDataThread> dataThreads = new ArrayList<>();
+    private final List<AppDataContext> contexts = new ArrayList<>();
+    private final List<RegistrationService> registrations = new ArrayList<>();
+
+    private RegistrationRush(Map<String, String> options, Path directory) throws IOException {
+        students = Integer.parseInt(options.get("students"));
+        instances = Integer.parseInt(options.get("instances"));
+        concurrency = Integer.parseInt(options.get("concurrency"));
+        rate = Double.parseDouble(options.get("rate"));
+        seed = Long.parseLong(options.get("seed"));
+        cohort = new SyntheticCohort(seed, Integer.parseInt(options.get("courses")), students,
+                Integer.parseInt(options.get("enrollments")));
+        coursesFile = directory.resolve(DataFiles.COURSES_FILE).toString();
+        loginLatencies = new Latencies(students);
+        cartLatencies = new Latencies(students);
+        for (String reason : new String[] { "credit limit", "already registered", "prerequisites" }) {
+            refusals.put(reason, new LongAdder());
+        }
+
+        DataFiles.saveCourses(coursesFile, cohort.courses());
+        // One hash at the current cost for everyone, so no login queues a rehash of the real accounts file
+        List<Account> accounts = cohort.accounts(PasswordHasher.getInstance().hash(PASSWORD));
+        for (int i = 0; i < instances; i++) {
+            ExecutorDataThread dataThread = new ExecutorDataThread("rush-data-" + (i + 1));
+            AppDataContext context = AppDataContext.of(dataThread, DataFiles.loadCourses(coursesFile), accounts);
+            dataThreads.add(dataThread);
+            contexts.add(context);
+            registrations.add(new RegistrationService(context.getCourses(), coursesFile));
+        }
+    }
+
+    /**
+     * Runs the load test and prints the report.
+     * @param args Options as described on the class.
+     * @throws Exception If the scratch files cannot be written or a client fails.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put("students", "30000");
+        options.put("courses", "300");
+        options.put("enrollments", "0");
+        options.put("instances", "1");
+        options.put("concurrency", "64");
+        options.put("rate", "50");
+        options.put("seed", "27");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--") || !options.containsKey(args[i].substring(2))
+                    && !"--iterations".equals(args[i])) {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (options.containsKey("iterations")) {
+            // Must be set before the hasher is first used
+            System.setProperty("credentials.iterations", options.get("iterations"));
+        }
+
+        Path directory = Files.createTempDirectory("registration-rush");
+        // Audit into the scratch folder, so the run pays for auditing without filling the real audit log
+        System.setProperty(AuditLog.DIRECTORY_PROPERTY, directory.resolve("audit").toString());
+        try {
+            new RegistrationRush(options, directory).run();
+        } finally {
+            AuditLog.getInstance().close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        List<Integer> arrivals = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            arrivals.add(i);
+        }
+        Collections.shuffle(arrivals, new Random(seed));
+
+        AtomicInteger clientCount = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency, runnable ->
+                new Thread(runnable, "rush-client-" + clientCount.incrementAndGet()));
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        for (int i = 0; i < arrivals.size(); i++) {
+            long due = start + i * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int student = arrivals.get(i);
+            clients.execute(() -> arrive(student, due));
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.DAYS);
+        long elapsed = System.nanoTime() - start;
+
+        long[] lostInMemory = new long[instances];
+        for (int i = 0; i < instances; i++) {
+            CourseCatalog catalog = contexts.get(i).getCourses();
+            lostInMemory[i] = CompletableFuture.supplyAsync(() -> countMissing(catalog), dataThreads.get(i)::execute)
+                    .join();
+            contexts.get(i).close();
+            dataThreads.get(i).close();
+        }
+        long lostInFile = countMissing(new CourseCatalog(DataFiles.loadCourses(coursesFile)));
+        report(elapsed, lostInFile, lostInMemory);
+    }
+
+    /**
+     * Logs a student in and registers their cart, as one client would.
+     */
+    private void arrive(int student, long due) {
+        int instance = student % instances;
+        String username = SyntheticCohort.studentName(student);
+        AppDataContext context = contexts.get(instance);
+        ExecutorDataThread dataThread = dataThreads.get(instance);
+
+        Session session = null;
+        while (session == null) {
+            try {
+                session = CompletableFuture.supplyAsync(
+                        () -> context.getSessions().loginAsync(username, PASSWORD), dataThread::execute)
+                        .thenCompose(login -> login)
+                        .join();
+                if (session == null) {
+                    failedLogins.increment();
+                    return;
+                }
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof RejectedExecutionException)) {
+                    throw e;
+                }
+                // The hashing pool is full; the student tries again shortly
+                loginRetries.increment();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MILLIS));
+            }
+        }
+        loginLatencies.record(System.nanoTime() - due);
+
+        List<String> cart = cohort.cart(student);
+        RegistrationService registration = registrations.get(instance);
+        Map<String, String> results = CompletableFuture.supplyAsync(
+                () -> registration.checkout(this, username, cart), dataThread::execute).join();
+        for (Map.Entry<String, String> result : results.entrySet()) {
+            if (result.getValue() == null) {
+                registered.increment();
+                saved.add(new String[] { result.getKey(), username });
+            } else {
+                refusals.get(classify(result.getValue())).increment();
+            }
+        }
+        cartLatencies.record(System.nanoTime() - due);
+        context.getSessions().logout(session.getToken());
+    }
+
+    private static String classify(String refusal) {
+        if (refusal.contains("more than")) {
+            return "credit limit";
+        }
+        return refusal.contains("already registered") ? "already registered" : "prerequisites";
+    }
+
+    /**
+     * Counts the registrations reported as saved that a catalog does not contain.
+     */
+    private long countMissing(CourseCatalog catalog) {
+        long missing = 0;
+        for (String[] registration : saved) {
+            Course course = catalog.get(registration[0]);
+            if (course == null || !course.hasStudent(registration[1])) {
+                missing++;
+            }
+        }
+        return missing;
+    }
+
+    private void report(long elapsedNanos, long lostInFile, long[] lostInMemory) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Registration rush: %d students, %d courses, %d instance(s), %d clients, %.1f arrivals/s,"
+                + " PBKDF2 %d iterations%n", students, cohort.courses().size(), instances, concurrency, rate,
+                PasswordHasher.getInstance().getIterations());
+        System.out.printf("Elapsed %.1f s: %.1f students/s, %.1f registrations/s%n", seconds,
+                cartLatencies.count() / seconds, registered.sum() / seconds);
+        System.out.println("Login latency       " + loginLatencies.summary());
+        System.out.println("Arrival to cart saved " + cartLatencies.summary());
+        System.out.printf("Registrations saved %d; refused: %d credit limit, %d already registered,"
+                + " %d prerequisites%n", registered.sum(), refusals.get("credit limit").sum(),
+                refusals.get("already registered").sum(), refusals.get("prerequisites").sum());
+        System.out.printf("Logins retried after a full hashing queue %d; failed logins %d%n", loginRetries.sum(),
+                failedLogins.sum());
+        System.out.printf("Lost updates: %d missing from the courses file, %s missing in memory per instance%n",
+                lostInFile, Arrays.toString(lostInMemory));
+    }
+}
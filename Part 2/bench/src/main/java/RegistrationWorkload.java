@@ -0,0 +1,118 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RegistrationWorkload runs the registration hot paths for the JMH benchmarks in the bench package, against
+ * a {@link SyntheticCohort} held in memory and written to a scratch directory. Every account shares one
+ * password hash made at the current cost, so logins never queue a rehash that would write to the real
+ * accounts file.
+ */
+public final class RegistrationWorkload implements bench.Workload {
+
+    private static final long SEED = 27;
+    private static final String PASSWORD = "password";
+    // Logins rotate over this many students, so after warm-up every login hits the verified-login cache
+    private static final int LOGIN_USERS = 64;
+
+    private String coursesFile;
+    private String accountsFile;
+    private List<Course> courseList;
+    private List<String> courseCodes;
+    private int studentCount;
+    private AppDataContext dataContext;
+    private RegistrationService registration;
+    private int nextStudent;
+    private int nextCourse;
+    private int nextLogin;
+
+    /**
+     * Creates the workload; {@link #setUp} must be called before anything else.
+     */
+    public RegistrationWorkload() {
+    }
+
+    @Override
+    public void setUp(Path directory, int courses, int accounts, int enrollmentsPerCourse) throws IOException {
+        SyntheticCohort cohort = new SyntheticCohort(SEED, courses, accounts, enrollmentsPerCourse);
+        List<Account> accountList = cohort.accounts(PasswordHasher.getInstance().hash(PASSWORD));
+        courseList = cohort.courses();
+        courseCodes = new ArrayList<>();
+        for (Course course : courseList) {
+            courseCodes.add(course.getCode());
+        }
+        studentCount = accounts;
+
+        coursesFile = directory.resolve(DataFiles.COURSES_FILE).toString();
+        accountsFile = directory.resolve(DataFiles.DATABASE_FILE).toString();
+        DataFiles.saveCourses(coursesFile, courseList);
+        DataFiles.appendAccounts(accountsFile, accountList);
+
+        dataContext = AppDataContext.of(DataThread.DIRECT, courseList, accountList);
+        registration = new RegistrationService(dataContext.getCourses(), coursesFile);
+    }
+
+    @Override
+    public Object loadCourses() throws IOException {
+        return DataFiles.loadCourses(coursesFile);
+    }
+
+    @Override
+    public Object loadAccounts() throws IOException {
+        return DataFiles.loadAccounts(accountsFile);
+    }
+
+    @Override
+    public Object login() {
+        String username = SyntheticCohort.studentName(nextLogin++ % Math.min(LOGIN_USERS, studentCount));
+        Session session = dataContext.getSessions().loginAsync(username, PASSWORD).join();
+        dataContext.getSessions().logout(session.getToken());
+        return session;
+    }
+
+    @Override
+    public Object loginUnknownUser() {
+        return dataContext.getSessions().loginAsync("nobody" + nextLogin++, PASSWORD).join();
+    }
+
+    @Override
+    public boolean meetsPrerequisites() {
+        return registration.meetsPrerequisites(nextStudent(), nextCourse());
+    }
+
+    @Override
+    public int creditsRegistered() {
+        return registration.getCreditsRegistered(nextStudent());
+    }
+
+    @Override
+    public Object availableCourses() {
+        return registration.getAvailableCourses(nextStudent());
+    }
+
+    @Override
+    public void saveCourses() throws IOException {
+        DataFiles.saveCourses(coursesFile, courseList);
+    }
+
+    @Override
+    public String viewAllCourses() {
+        return CourseReports.viewAllCourses(dataContext.getCatalogStore().snapshot());
+    }
+
+    @Override
+    public void tearDown() {
+        dataContext.close();
+    }
+
+    private String nextStudent() {
+        nextStudent = (nextStudent + 1) % studentCount;
+        return SyntheticCohort.studentName(nextStudent);
+    }
+
+    private String nextCourse() {
+        nextCourse = (nextCourse + 1) % courseCodes.size();
+        return courseCodes.get(nextCourse);
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * SyntheticCohort generates a course catalog and student body of any size for benchmarks and load tests. The
+ * same seed and sizes always give the same data. Courses come in chains of three levels like CS113, CS214 and
+ * CS316: a level-2 course requires the level-1 course of its chain, and a level-3 course requires the level-2
+ * course and at least 6 completed credits. Each course starts with the given number of enrolled students.
+ * Every student also has a registration cart, generated from the seed and the student's position.
+ */
+public final class SyntheticCohort {
+
+    private static final int COURSES_PER_LECTURER = 5;
+
+    private final long seed;
+    private final int courseCount;
+    private final int studentCount;
+    private final List<Course> courses;
+
+    /**
+     * Generates a cohort.
+     * @param seed The random seed.
+     * @param courseCount The number of courses.
+     * @param studentCount The number of students; a lecturer account is added for every five courses.
+     * @param enrollmentsPerCourse The number of students already enrolled in each course, at most studentCount.
+     */
+    public SyntheticCohort(long seed, int courseCount, int studentCount, int enrollmentsPerCourse) {
+        this.seed = seed;
+        this.courseCount = courseCount;
+        this.studentCount = studentCount;
+        Random random = new Random(seed);
+        courses = new ArrayList<>(courseCount);
+        for (int i = 0; i < courseCount; i++) {
+            int level = i % 3 + 1;
+            String prerequisites;
+            if (level == 1) {
+                prerequisites = "Nil";
+            } else if (level == 2) {
+                prerequisites = courseCode(i - 1);
+            } else {
+                prerequisites = courseCode(i - 1) + ";completed at least 6 credits";
+            }
+
+            Set<String> enrolled = new LinkedHashSet<>();
+            int enrollments = Math.min(enrollmentsPerCourse, studentCount);
+            while (enrolled.size() < enrollments) {
+                enrolled.add(studentName(random.nextInt(studentCount)));
+            }
+            String students = enrolled.isEmpty() ? "-" : String.join(";", enrolled);
+            int credits = 3 + random.nextInt(2);
+            courses.add(Course.fromRow(new String[] { credits + " Credits", courseCode(i), prerequisites, students,
+                    lecturerName(i / COURSES_PER_LECTURER) }));
+        }
+    }
+
+    /**
+     * @param index The position of the course, from 0.
+     * @return The course code, e.g. CS100, CS200 and CS300 for the first chain.
+     */
+    public static String courseCode(int index) {
+        return String.format("CS%d%02d", index % 3 + 1, index / 3);
+    }
+
+    /**
+     * @param index The position of the student, from 0.
+     * @return The student's username.
+     */
+    public static String studentName(int index) {
+        return String.format("student%05d", index);
+    }
+
+    private static String lecturerName(int index) {
+        return String.format("lecturer%04d", index);
+    }
+
+    /**
+     * @return The courses, in the order they were generated.
+     */
+    public List<Course> courses() {
+        return courses;
+    }
+
+    /**
+     * Generates the courses a student puts in their cart, in the order they register them. A cart starts with
+     * one prerequisite chain taken from its first level up to a random depth, so registering in order meets
+     * the prerequisites, and is filled up with first-level courses of other chains to between 9 and 12 credits.
+     * @param student The position of the student, from 0.
+     * @return The course codes.
+     */
+    public List<String> cart(int student) {
+        Random random = new Random(seed * 1_000_003 + student);
+        int chains = (courseCount + 2) / 3;
+        List<String> cart = new ArrayList<>();
+        int credits = 0;
+
+        int chain = random.nextInt(chains);
+        int depth = 1 + random.nextInt(3);
+        for (int level = 0; level < depth && chain * 3 + level < courseCount; level++) {
+            cart.add(courseCode(chain * 3 + level));
+            credits += courses.get(chain * 3 + level).getCredits();
+        }
+
+        int target = 9 + random.nextInt(4);
+        for (int attempt = 0; attempt < 10 && chains > 1; attempt++) {
+            int index = random.nextInt(chains) * 3;
+            int courseCredits = courses.get(index).getCredits();
+            if (credits + courseCredits > target) {
+                break;
+            }
+            if (!cart.contains(courseCode(index))) {
+                cart.add(courseCode(index));
+                credits += courseCredits;
+            }
+        }
+        return cart;
+    }
+
+    /**
+     * Creates the accounts of every student and lecturer.
+     * @param storedPassword The value of the password column shared by every account, plain text or a hash.
+     * @return The accounts, students first.
+     */
+    public List<Account> accounts(String storedPassword) {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            accounts.add(new Account(Account.Type.STUDENT, studentName(i), 20, Integer.toString(1_000_000 + i),
+                    storedPassword));
+        }
+        int lecturers = (courseCount + COURSES_PER_LECTURER - 1) / COURSES_PER_LECTURER;
+        for (int i = 0; i < lecturers; i++) {
+            accounts.add(new Account(Account.Type.LECTURER, lecturerName(i), 45, Integer.toString(2_000_000 + i),
+                    storedPassword));
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,254 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * TrafficReplayer re-executes a capture written by {@link TrafficRecorder} against a fresh copy of a snapshot
+ * of the data files, either at the recorded pace or as fast as possible, and reports the latency of each kind
+ * of request and every request whose outcome differs from the capture. Replaying the same capture on two
+ * versions of the engine compares them on the shape of real traffic.
+ * The snapshot is copied to a scratch folder first, so the data files are never changed. Passwords are not
+ * captured, so every account is given the same replay password and recorded failed logins are replayed with
+ * a wrong one. Requests of one user are replayed in order on one client thread; requests of different users
+ * run concurrently, as they did when they were captured. Admin commands other than /view are not replayed,
+ * because they touch the backups folder.
+ * Options: --capture (required) --data . (folder holding courses.csv, database.csv and, if any, schedule.csv)
+ * --speed recorded|max --clients 16 --password replay --iterations (PBKDF2 cost, default as configured)
+ */
+public final class TrafficReplayer {
+
+    private static final long RETRY_DELAY_MILLIS = 50;
+
+    private final TrafficLog capture;
+    private final boolean recordedSpeed;
+    private final String password;
+    private final ExecutorDataThread dataThread = new ExecutorDataThread("replay-data");
+    private final AppDataContext context;
+    private final RegistrationService registration;
+    private final ExecutorService[] clients;
+
+    private final Map<TrafficLog.Type, Latencies> latencies = new EnumMap<>(TrafficLog.Type.class);
+    private final Map<TrafficLog.Type, LongAdder> divergences = new EnumMap<>(TrafficLog.Type.class);
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder loginRetries = new LongAdder();
+
+    private TrafficReplayer(Map<String, String> options, TrafficLog capture, Path directory) throws IOException {
+        this.capture = capture;
+        recordedSpeed = !"max".equals(options.get("speed"));
+        password = options.get("password");
+
+        Map<TrafficLog.Type, Integer> counts = new EnumMap<>(TrafficLog.Type.class);
+        for (TrafficLog.Event event : capture.getEvents()) {
+            counts.merge(event.getType(), 1, Integer::sum);
+        }
+        for (TrafficLog.Type type : TrafficLog.Type.values()) {
+            latencies.put(type, new Latencies(counts.getOrDefault(type, 0)));
+            divergences.put(type, new LongAdder());
+        }
+
+        Path data = Paths.get(options.get("data"));
+        for (String file : new String[] { DataFiles.COURSES_FILE, DataFiles.DATABASE_FILE }) {
+            Files.copy(data.resolve(file), directory.resolve(file));
+        }
+        String coursesFile = directory.resolve(DataFiles.COURSES_FILE).toString();
+        // One hash at the current cost for everyone, so no login queues a rehash
+        String stored = PasswordHasher.getInstance().hash(password);
+        List<Account> accounts = new ArrayList<>();
+        for (Account account : DataFiles.loadAccounts(directory.resolve(DataFiles.DATABASE_FILE).toString())) {
+            accounts.add(account.withPassword(stored));
+        }
+        context = AppDataContext.of(dataThread, DataFiles.loadCourses(coursesFile), accounts);
+        // The snapshot's windows, so checkouts are refused as they were when the traffic was captured
+        registration = new RegistrationService(context.getCourses(), coursesFile,
+                DataFiles.loadSchedule(data.resolve(DataFiles.SCHEDULE_FILE).toString()), context::findAccount);
+
+        clients = new ExecutorService[Integer.parseInt(options.get("clients"))];
+        for (int i = 0; i < clients.length; i++) {
+            String name = "replay-client-" + (i + 1);
+            clients[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+        }
+    }
+
+    /**
+     * Replays a capture and prints the report.
+     * @param args Options as described on the class.
+     * @throws Exception If the capture or the snapshot cannot be read, or a request fails.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put("capture", null);
+        options.put("data", ".");
+        options.put("speed", "recorded");
+        options.put("clients", "16");
+        options.put("password", "replay");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--") || !options.containsKey(args[i].substring(2))
+                    && !"--iterations".equals(args[i])) {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (options.get("capture") == null) {
+            throw new IllegalArgumentException("--capture is required");
+        }
+        if (options.containsKey("iterations")) {
+            // Must be set before the hasher is first used
+            System.setProperty("credentials.iterations", options.get("iterations"));
+        }
+
+        TrafficLog capture = TrafficLog.read(Paths.get(options.get("capture")));
+        Path directory = Files.createTempDirectory("traffic-replay");
+        // Audit into the scratch folder, so the replay pays for auditing without filling the real audit log
+        System.setProperty(AuditLog.DIRECTORY_PROPERTY, directory.resolve("audit").toString());
+        try {
+            new TrafficReplayer(options, capture, directory).run();
+        } finally {
+            AuditLog.getInstance().close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        long start = System.nanoTime();
+        for (TrafficLog.Event event : capture.getEvents()) {
+            long due;
+            if (recordedSpeed) {
+                due = start + TimeUnit.MICROSECONDS.toNanos(event.getOffsetMicros());
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                due = System.nanoTime();
+            }
+            clients[Math.floorMod(event.getUser().hashCode(), clients.length)].execute(() -> replay(event, due));
+        }
+        for (ExecutorService client : clients) {
+            client.shutdown();
+        }
+        for (ExecutorService client : clients) {
+            client.awaitTermination(1, TimeUnit.DAYS);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        context.close();
+        dataThread.close();
+        report(elapsed);
+    }
+
+    /**
+     * Re-executes one request as the window that made it would.
+     */
+    private void replay(TrafficLog.Event event, long due) {
+        String user = event.getUser();
+        switch (event.getType()) {
+            case LOGIN:
+                boolean succeeded = event.getOutcomes().get(0);
+                Session session = login(user, succeeded);
+                if ((session != null) != succeeded) {
+                    divergences.get(TrafficLog.Type.LOGIN).increment();
+                }
+                if (session != null) {
+                    context.getSessions().logout(session.getToken());
+                }
+                break;
+            case CART_ADD:
+                // The cart dialog lists the available courses and totals the credits of the chosen ones
+                onDataThread(() -> {
+                    registration.getAvailableCourses(user);
+                    return registration.getCredits(event.getCourses().get(0));
+                });
+                break;
+            case CHECKOUT:
+                Map<String, String> results = onDataThread(
+                        () -> registration.checkout(this, user, event.getCourses()));
+                int index = 0;
+                for (String refusal : results.values()) {
+                    if ((refusal == null) != event.getOutcomes().get(index++)) {
+                        divergences.get(TrafficLog.Type.CHECKOUT).increment();
+                    }
+                }
+                break;
+            case DROP:
+                onDataThread(() -> registration.drop(this, user, event.getCourses().get(0)));
+                break;
+            default:
+                String command = event.getCommand();
+                if ("/view all".equalsIgnoreCase(command)) {
+                    CourseReports.viewAllCourses(context.getCatalogStore().snapshot());
+                } else if (command.startsWith("/view ")) {
+                    CourseReports.viewCourse(context.getCatalogStore().snapshot(),
+                            command.substring("/view ".length()).trim());
+                } else {
+                    skipped.increment();
+                    return;
+                }
+                break;
+        }
+        latencies.get(event.getType()).record(System.nanoTime() - due);
+    }
+
+    private Session login(String user, boolean succeeded) {
+        String entered = password;
+        if (!succeeded) {
+            entered += "-wrong";
+        }
+        String attempt = entered;
+        while (true) {
+            try {
+                return CompletableFuture.supplyAsync(() -> context.getSessions().loginAsync(user, attempt),
+                        dataThread::execute).thenCompose(login -> login).join();
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof RejectedExecutionException)) {
+                    throw e;
+                }
+                // The hashing pool is full; try again shortly
+                loginRetries.increment();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MILLIS));
+            }
+        }
+    }
+
+    private <T> T onDataThread(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, dataThread::execute).join();
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Traffic replay: %d events over %.1f s captured, %s speed, %d clients,"
+                + " PBKDF2 %d iterations%n", capture.getEvents().size(), capture.getDurationMicros() / 1e6,
+                recordedSpeed ? "recorded" : "maximum", clients.length,
+                PasswordHasher.getInstance().getIterations());
+        System.out.printf("Elapsed %.1f s: %.1f events/s%n", seconds, capture.getEvents().size() / seconds);
+        for (TrafficLog.Type type : TrafficLog.Type.values()) {
+            Latencies typeLatencies = latencies.get(type);
+            if (typeLatencies.count() > 0) {
+                System.out.printf("%-14s %s, %d with a different outcome%n", type, typeLatencies.summary(),
+                        divergences.get(type).sum());
+            }
+        }
+        System.out.printf("Admin commands not replayed %d; logins retried after a full hashing queue %d%n",
+                skipped.sum(), loginRetries.sum());
+    }
+}
@@ -0,0 +1,111 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * RegistrationBenchmarks measures the registration hot paths for catalogs of different sizes. Run it with
+ * {@code java -jar bench/target/benchmarks.jar -prof gc} to see the allocation rate of each path as well.
+ * Password hashing is turned down to 1000 iterations in the forked JVM so that setting up thousands of
+ * accounts stays quick; the login benchmarks measure the lookup and verified-login cache, not PBKDF2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dcredentials.iterations=1000")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RegistrationBenchmarks {
+
+    @Param({ "100", "1000" })
+    public int courses;
+
+    @Param({ "1000", "10000" })
+    public int accounts;
+
+    @Param({ "10", "100" })
+    public int enrollmentsPerCourse;
+
+    private Path directory;
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("registration-bench");
+        workload = Workload.load();
+        workload.setUp(directory, courses, accounts, enrollmentsPerCourse);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workload.tearDown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object loadCsv() throws IOException {
+        return workload.loadCourses();
+    }
+
+    @Benchmark
+    public Object loadAccounts() throws IOException {
+        return workload.loadAccounts();
+    }
+
+    @Benchmark
+    public Object authenticate() {
+        return workload.login();
+    }
+
+    @Benchmark
+    public Object authenticateUnknownUser() {
+        return workload.loginUnknownUser();
+    }
+
+    @Benchmark
+    public boolean meetsPrerequisites() {
+        return workload.meetsPrerequisites();
+    }
+
+    @Benchmark
+    public int getCreditsRegistered() {
+        return workload.creditsRegistered();
+    }
+
+    @Benchmark
+    public Object getAvailableCourses() {
+        return workload.availableCourses();
+    }
+
+    @Benchmark
+    public void saveCsv() throws IOException {
+        workload.saveCourses();
+    }
+
+    @Benchmark
+    public String viewAllCourses() {
+        return workload.viewAllCourses();
+    }
+}
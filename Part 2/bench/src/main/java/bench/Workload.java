@@ -0,0 +1,87 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ServiceLoader;
+
+/**
+ * Workload exposes the registration hot paths to the JMH benchmarks. JMH cannot generate code for benchmarks
+ * in the default package, where the application classes live, and a named package cannot refer to those
+ * classes; so the benchmarks live in this package and reach the application through this interface, which a
+ * default-package class implements. Each call works on the next student or course in turn.
+ */
+public interface Workload {
+
+    /**
+     * Generates the data and writes the data files for one set of parameters.
+     * @param directory An empty directory for the data files.
+     * @param courses The number of courses.
+     * @param accounts The number of student accounts.
+     * @param enrollmentsPerCourse The number of students enrolled in each course.
+     * @throws IOException If the data files cannot be written.
+     */
+    void setUp(Path directory, int courses, int accounts, int enrollmentsPerCourse) throws IOException;
+
+    /**
+     * @return The courses read from the courses file.
+     * @throws IOException If the file cannot be read.
+     */
+    Object loadCourses() throws IOException;
+
+    /**
+     * @return The accounts read from the accounts file.
+     * @throws IOException If the file cannot be read.
+     */
+    Object loadAccounts() throws IOException;
+
+    /**
+     * Logs the next student in with the right password and out again.
+     * @return The session.
+     */
+    Object login();
+
+    /**
+     * Tries to log in a username that has no account.
+     * @return The result, always null.
+     */
+    Object loginUnknownUser();
+
+    /**
+     * @return Whether the next student meets the prerequisites of the next course.
+     */
+    boolean meetsPrerequisites();
+
+    /**
+     * @return The credits the next student is registered for.
+     */
+    int creditsRegistered();
+
+    /**
+     * @return The courses the next student can still register for.
+     */
+    Object availableCourses();
+
+    /**
+     * Writes the whole catalog to the courses file.
+     * @throws IOException If the file cannot be written.
+     */
+    void saveCourses() throws IOException;
+
+    /**
+     * @return The admin portal's report on every course.
+     */
+    String viewAllCourses();
+
+    /**
+     * Releases the background threads started by {@link #setUp}.
+     */
+    void tearDown();
+
+    /**
+     * @return The workload implementation on the class path.
+     */
+    static Workload load() {
+        return ServiceLoader.load(Workload.class).findFirst()
+                .orElseThrow(() -> new IllegalStateException("No Workload implementation on the class path"));
+    }
+}
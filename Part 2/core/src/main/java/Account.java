@@ -0,0 +1,134 @@
+/**
+ * Account is an immutable row of database.csv: the user type, username, age, ID and password of a student,
+ * lecturer or admin. The type and age are parsed once when the row is read instead of on every comparison.
+ */
+public final class Account {
+
+    /**
+     * Enum representing the user types stored in database.csv.
+     */
+    public enum Type {
+        STUDENT("Student"),
+        LECTURER("Lecturer"),
+        ADMIN("Admin");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return The type as written in database.csv, e.g. "Student".
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Parses a user type column, ignoring case.
+         * @param label The column value.
+         * @return The matching type.
+         * @throws IllegalArgumentException If the label is not a known type.
+         */
+        public static Type fromLabel(String label) {
+            return valueOf(label.trim().toUpperCase());
+        }
+    }
+
+    private final Type type;
+    private final String username;
+    private final int age;
+    private final String id;
+    private final String password;
+
+    /**
+     * Creates an account.
+     * @param type The user type.
+     * @param username The login name, also used as the display name.
+     * @param age The user's age.
+     * @param id The student or staff ID.
+     * @param password The stored password, normally a {@link PasswordHasher} hash.
+     */
+    public Account(Type type, String username, int age, String id, String password) {
+        this.type = type;
+        this.username = NamePool.intern(username);
+        this.age = age;
+        this.id = id;
+        this.password = password;
+    }
+
+    /**
+     * Parses a row of database.csv.
+     * @param row The CSV columns: type, username, age, ID and password.
+     * @return The parsed account.
+     * @throws IllegalArgumentException If the row is too short or the type or age is malformed.
+     */
+    public static Account fromRow(String[] row) {
+        if (row.length < 5) {
+            throw new IllegalArgumentException("Expected 5 columns but found " + row.length);
+        }
+        try {
+            return new Account(Type.fromLabel(row[0]), row[1], Integer.parseInt(row[2].trim()), row[3], row[4]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed age: " + row[2], e);
+        }
+    }
+
+    /**
+     * Formats this account as a row of database.csv.
+     * @return The CSV columns.
+     */
+    public String[] toRow() {
+        return new String[] { type.getLabel(), username, Integer.toString(age), id, password };
+    }
+
+    /**
+     * @return The user type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The login name.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return The user's age.
+     */
+    public int getAge() {
+        return age;
+    }
+
+    /**
+     * @return The student or staff ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return The stored password: a {@link PasswordHasher} hash, or plain text for rows not yet migrated.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Returns a copy of this account with a different stored password.
+     * @param newPassword The new stored password, normally a hash.
+     * @return The updated account.
+     */
+    public Account withPassword(String newPassword) {
+        return new Account(type, username, age, id, newPassword);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", toRow());
+    }
+}
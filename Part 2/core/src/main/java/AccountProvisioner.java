@@ -0,0 +1,208 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AccountProvisioner creates student and lecturer accounts, one at a time or in bulk from a roster file.
+ * Usernames and IDs must be unique; both are checked against hash indexes built once from database.csv,
+ * so each check is O(1) no matter how many accounts exist.
+ * Roster files use the database.csv layout: type, username, age, ID and password. Admin accounts are never
+ * created here; they are added to database.csv by hand. Passwords are hashed with {@link PasswordHasher}
+ * on its bounded worker pool before they are written, a roster's rows a few at a time so logins queued on the
+ * same pool are not held up behind a whole roster. Hashing is slow, so callers should run
+ * {@link #create(Account)} and {@link #provision(Path)} off the data thread. Usernames and IDs are reserved
+ * under the provisioner's lock and the passwords hashed after it is released, so checks and creations from
+ * other threads do not wait for a roster to be hashed.
+ */
+public final class AccountProvisioner {
+
+    // Roster passwords handed to the hasher at once: enough to keep its threads busy
+    private static final int HASHES_IN_FLIGHT = Runtime.getRuntime().availableProcessors();
+
+    private final String filename;
+    private final Set<String> usernames = new HashSet<>();
+    private final Set<String> ids = new HashSet<>();
+
+    /**
+     * Creates a provisioner for an accounts file, indexing the accounts it already holds.
+     * @param filename The accounts CSV file.
+     * @param existing The accounts currently stored in that file.
+     */
+    public AccountProvisioner(String filename, Collection<Account> existing) {
+        this.filename = filename;
+        for (Account account : existing) {
+            usernames.add(account.getUsername());
+            ids.add(account.getId());
+        }
+    }
+
+    /**
+     * Checks whether an account could be created without clashing with an existing one.
+     * @param account The account to check.
+     * @return A message describing the clash, or null if the account is unique.
+     */
+    public synchronized String checkUnique(Account account) {
+        if (usernames.contains(account.getUsername())) {
+            return "username " + account.getUsername() + " is already taken";
+        }
+        if (ids.contains(account.getId())) {
+            return "ID " + account.getId() + " is already registered";
+        }
+        return null;
+    }
+
+    /**
+     * Creates a single account after checking that it is unique. A plain-text password is hashed first.
+     * @param account The account to create.
+     * @return A message describing why the account was rejected, or null if it was created.
+     * @throws IOException If the accounts file cannot be written.
+     */
+    public String create(Account account) throws IOException {
+        if (account.getType() == Account.Type.ADMIN) {
+            return "admin accounts cannot be created here";
+        }
+        synchronized (this) {
+            String clash = checkUnique(account);
+            if (clash != null) {
+                return clash;
+            }
+            remember(account);
+        }
+        try {
+            DataFiles.appendAccounts(filename, Collections.singletonList(hashPassword(account).join()));
+        } catch (IOException | RuntimeException e) {
+            release(Collections.singletonList(account));
+            throw e;
+        }
+        return null;
+    }
+
+    /**
+     * Adds an account created elsewhere, for example in another window, to the uniqueness indexes.
+     * @param account The account that now exists.
+     */
+    public synchronized void remember(Account account) {
+        usernames.add(account.getUsername());
+        ids.add(account.getId());
+    }
+
+    /**
+     * Indexes a fresh set of accounts in place of the old ones, after the accounts file was replaced wholesale.
+     * @param accounts The accounts the file now holds.
+     */
+    public synchronized void reset(Collection<Account> accounts) {
+        usernames.clear();
+        ids.clear();
+        for (Account account : accounts) {
+            remember(account);
+        }
+    }
+
+    /**
+     * Gives up the usernames and IDs of accounts that could not be written after all.
+     */
+    private synchronized void release(Collection<Account> accounts) {
+        for (Account account : accounts) {
+            usernames.remove(account.getUsername());
+            ids.remove(account.getId());
+        }
+    }
+
+    /**
+     * Validates a roster file and appends all accepted accounts in one buffered write.
+     * @param roster The roster file to read.
+     * @return The accounts created, as stored with hashed passwords, and the rows rejected.
+     * @throws IOException If the roster cannot be read or the accounts file cannot be written.
+     */
+    public ImportResult<Account> provision(Path roster) throws IOException {
+        List<Account> parsed = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        // Errors keyed by line, so parse errors and clashes are reported in file order
+        Map<Integer, String> errors = new TreeMap<>();
+        int rowsRead = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(roster)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                rowsRead++;
+
+                Account account;
+                try {
+                    String[] row = line.split(",");
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = row[i].trim();
+                    }
+                    account = Account.fromRow(row);
+                    if (account.getType() == Account.Type.ADMIN) {
+                        throw new IllegalArgumentException("admin accounts cannot be imported");
+                    }
+                } catch (IllegalArgumentException e) {
+                    errors.put(lineNumber, "Line " + lineNumber + ": " + e.getMessage());
+                    continue;
+                }
+                parsed.add(account);
+                lineNumbers.add(lineNumber);
+            }
+        }
+
+        List<Account> accepted = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < parsed.size(); i++) {
+                Account account = parsed.get(i);
+                String clash = checkUnique(account);
+                if (clash != null) {
+                    errors.put(lineNumbers.get(i), "Line " + lineNumbers.get(i) + ": " + clash);
+                    continue;
+                }
+                // Reserve now so later rows and other threads are checked against it
+                remember(account);
+                accepted.add(account);
+            }
+        }
+
+        List<Account> stored = new ArrayList<>(accepted.size());
+        try {
+            Deque<CompletableFuture<Account>> hashing = new ArrayDeque<>();
+            for (Account account : accepted) {
+                if (hashing.size() >= HASHES_IN_FLIGHT) {
+                    stored.add(hashing.removeFirst().join());
+                }
+                hashing.addLast(hashPassword(account));
+            }
+            while (!hashing.isEmpty()) {
+                stored.add(hashing.removeFirst().join());
+            }
+            if (!stored.isEmpty()) {
+                DataFiles.appendAccounts(filename, stored);
+            }
+        } catch (IOException | RuntimeException e) {
+            release(accepted);
+            throw e;
+        }
+        return new ImportResult<>(stored, new ArrayList<>(errors.values()), rowsRead);
+    }
+
+    private static CompletableFuture<Account> hashPassword(Account account) {
+        if (PasswordHasher.isHashed(account.getPassword())) {
+            return CompletableFuture.completedFuture(account);
+        }
+        return PasswordHasher.getInstance().hashAsync(account.getPassword()).thenApply(account::withPassword);
+    }
+}
@@ -0,0 +1,330 @@
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AdmissionControl meters checkouts into the registration engine so that the rush when registration opens
+ * queues in front of it instead of piling up on the data thread and the courses file.
+ * Checkouts are admitted at a rate set by a token bucket. A checkout that finds no token joins a first come,
+ * first served waiting room and can be told its place in line and roughly how long it will wait; once the
+ * room is full, new arrivals are turned away at once so they can retry later rather than time out.
+ * The rate adapts to the engine: every second the mean commit latency of the admitted checkouts is compared
+ * with a target. Above it, the rate is cut by a fraction; at or below it while people are waiting, the rate
+ * grows by a fixed step. The engine is kept just below the point where latency starts to climb.
+ * Places in line are keyed, by session token for the API, so a client that polls keeps its place. A place
+ * nobody has asked about for a while is given up, and so is an admission nobody claims.
+ * The defaults can be changed with the system properties admission.rate (checkouts per second to start at),
+ * admission.targetMillis and admission.waitingRoom.
+ */
+public final class AdmissionControl implements AutoCloseable {
+
+    private static final double MIN_RATE = 1;
+    private static final double MAX_RATE = 10_000;
+    private static final double DEFAULT_RATE = 50;
+    private static final long DEFAULT_TARGET_MILLIS = 200;
+    private static final int DEFAULT_WAITING_ROOM = 20_000;
+    private static final double INCREASE_PER_SECOND = 5;
+    private static final double DECREASE_FACTOR = 0.7;
+    private static final long ADJUST_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long ABANDON_NANOS = TimeUnit.SECONDS.toNanos(15);
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Metrics.Counter ADMITTED = Metrics.getInstance().counter("admission.admitted");
+    private static final Metrics.Counter SHED = Metrics.getInstance().counter("admission.shed");
+    private static final Metrics.Counter ABANDONED = Metrics.getInstance().counter("admission.abandoned");
+    private static final Metrics.Histogram WAITS = Metrics.getInstance().histogram("admission.wait");
+
+    private final long targetNanos;
+    private final int waitingRoom;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition arrived = lock.newCondition();
+    private final ArrayDeque<Ticket> line = new ArrayDeque<>();
+    private final Map<String, Ticket> tickets = new HashMap<>();
+    private final Thread dispatcher;
+    private double rate;
+    private double tokens;
+    private long refilledNanos = System.nanoTime();
+    private long nextAdjustNanos = refilledNanos + ADJUST_NANOS;
+    private long enqueued;
+    private long dispatched;
+    private long latencySum;
+    private long latencyCount;
+    private volatile boolean running = true;
+
+    /**
+     * Starts admitting checkouts.
+     * @param initialRate The checkouts per second to start at.
+     * @param targetLatencyMillis The mean commit latency the rate is adjusted to stay under.
+     * @param waitingRoom How many checkouts may wait before new ones are turned away.
+     */
+    public AdmissionControl(double initialRate, long targetLatencyMillis, int waitingRoom) {
+        this.rate = Math.max(MIN_RATE, Math.min(MAX_RATE, initialRate));
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.waitingRoom = waitingRoom;
+        this.tokens = Math.ceil(rate);
+        dispatcher = new Thread(this::dispatch, "admission-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        Metrics.getInstance().gauge("admission.waiting", this::getWaiting);
+        Metrics.getInstance().gauge("admission.rate", () -> Math.round(getRate()));
+    }
+
+    /**
+     * @return Admission control with the settings from the admission.* system properties.
+     */
+    public static AdmissionControl fromProperties() {
+        return new AdmissionControl(Double.parseDouble(System.getProperty("admission.rate", "" + DEFAULT_RATE)),
+                Long.getLong("admission.targetMillis", DEFAULT_TARGET_MILLIS),
+                Integer.getInteger("admission.waitingRoom", DEFAULT_WAITING_ROOM));
+    }
+
+    /**
+     * Takes a place in line, or returns the place the key already has.
+     * @param key Who is asking, e.g. a session token.
+     * @return The ticket for the place; it may already be admitted.
+     * @throws RejectedExecutionException If the waiting room is full.
+     */
+    public Ticket enter(String key) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            Ticket ticket = tickets.get(key);
+            if (ticket != null) {
+                ticket.seenNanos = now;
+                return ticket;
+            }
+            refill(now);
+            ticket = new Ticket(key, now);
+            if (line.isEmpty() && tokens >= 1) {
+                tokens--;
+                admit(ticket, now);
+            } else if (line.size() >= waitingRoom) {
+                SHED.increment();
+                throw new RejectedExecutionException("The waiting room is full");
+            } else {
+                ticket.sequence = enqueued++;
+                line.addLast(ticket);
+                arrived.signal();
+            }
+            tickets.put(key, ticket);
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a ticket to be admitted.
+     * @param ticket The ticket from {@link #enter(String)}.
+     * @param maxWaitMillis The longest to wait; the place in line is kept if the wait runs out.
+     * @return True if the ticket was admitted; the caller must then call {@link #done(Ticket, long)}.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public boolean await(Ticket ticket, long maxWaitMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            ticket.waiters++;
+            try {
+                while (!ticket.admitted && !ticket.abandoned && remaining > 0) {
+                    remaining = ticket.turn.awaitNanos(remaining);
+                }
+            } finally {
+                ticket.waiters--;
+                ticket.seenNanos = System.nanoTime();
+            }
+            return ticket.admitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ends an admitted checkout and feeds its latency into the rate.
+     * @param ticket The admitted ticket.
+     * @param startNanos When the checkout started, from System.nanoTime().
+     */
+    public void done(Ticket ticket, long startNanos) {
+        long latency = System.nanoTime() - startNanos;
+        lock.lock();
+        try {
+            tickets.remove(ticket.key, ticket);
+            latencySum += latency;
+            latencyCount++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param ticket A ticket from {@link #enter(String)}.
+     * @return How many places from the front the ticket is, 1 for the next admitted, or 0 once admitted.
+     */
+    public int getPosition(Ticket ticket) {
+        lock.lock();
+        try {
+            return ticket.admitted ? 0 : (int) Math.max(1, ticket.sequence - dispatched + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param ticket A ticket from {@link #enter(String)}.
+     * @return Roughly how long until the ticket is admitted at the current rate, in milliseconds.
+     */
+    public long getEtaMillis(Ticket ticket) {
+        lock.lock();
+        try {
+            if (ticket.admitted) {
+                return 0;
+            }
+            double ahead = ticket.sequence - dispatched + 1 - tokens;
+            return Math.max(0, Math.round(ahead * 1000 / rate));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The checkouts admitted per second at present.
+     */
+    public double getRate() {
+        lock.lock();
+        try {
+            return rate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of checkouts in the waiting room.
+     */
+    public long getWaiting() {
+        lock.lock();
+        try {
+            return line.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops admitting; anyone still waiting is told they were not admitted.
+     */
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+    }
+
+    /**
+     * The dispatcher thread: admits the front of the line whenever a token is ready, and adjusts the rate.
+     */
+    private void dispatch() {
+        lock.lock();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                refill(now);
+                while (tokens >= 1 && !line.isEmpty()) {
+                    Ticket ticket = line.pollFirst();
+                    dispatched++;
+                    if (ticket.waiters == 0 && now - ticket.seenNanos > ABANDON_NANOS) {
+                        abandon(ticket);
+                        continue;
+                    }
+                    tokens--;
+                    admit(ticket, now);
+                }
+                if (now - nextAdjustNanos >= 0) {
+                    adjust(now);
+                }
+                long sleep = line.isEmpty() ? IDLE_NANOS
+                        : Math.max(1, (long) ((1 - tokens) / rate * TimeUnit.SECONDS.toNanos(1)));
+                arrived.awaitNanos(Math.min(sleep, nextAdjustNanos - now));
+            }
+        } catch (InterruptedException e) {
+            // Closing
+        } finally {
+            for (Ticket ticket : line) {
+                ticket.abandoned = true;
+                ticket.turn.signalAll();
+            }
+            line.clear();
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        // Up to one second's worth at the current rate may be admitted together after a quiet spell
+        double burst = Math.ceil(rate);
+        tokens = Math.min(burst, tokens + (now - refilledNanos) * rate / TimeUnit.SECONDS.toNanos(1));
+        refilledNanos = now;
+    }
+
+    private void admit(Ticket ticket, long now) {
+        ticket.admitted = true;
+        ticket.admittedNanos = now;
+        ticket.turn.signalAll();
+        ADMITTED.increment();
+        WAITS.record(now - ticket.enteredNanos);
+    }
+
+    private void abandon(Ticket ticket) {
+        ticket.abandoned = true;
+        tickets.remove(ticket.key, ticket);
+        ABANDONED.increment();
+    }
+
+    /**
+     * Applies additive increase, multiplicative decrease to the rate from the last second's commit latency,
+     * and gives up admissions nobody has claimed.
+     */
+    private void adjust(long now) {
+        if (latencyCount > 0 && latencySum / latencyCount > targetNanos) {
+            rate = Math.max(MIN_RATE, rate * DECREASE_FACTOR);
+        } else if (!line.isEmpty()) {
+            rate = Math.min(MAX_RATE, rate + INCREASE_PER_SECOND);
+        }
+        latencySum = 0;
+        latencyCount = 0;
+        nextAdjustNanos = now + ADJUST_NANOS;
+        for (Iterator<Ticket> iterator = tickets.values().iterator(); iterator.hasNext();) {
+            Ticket ticket = iterator.next();
+            if (ticket.admitted && ticket.waiters == 0 && now - Math.max(ticket.admittedNanos, ticket.seenNanos)
+                    > ABANDON_NANOS) {
+                iterator.remove();
+                ABANDONED.increment();
+            }
+        }
+    }
+
+    /**
+     * Ticket is one place in line. Its fields are guarded by the lock of the AdmissionControl it came from.
+     */
+    public final class Ticket {
+
+        private final String key;
+        private final long enteredNanos;
+        private final Condition turn = lock.newCondition();
+        private long sequence;
+        private long seenNanos;
+        private long admittedNanos;
+        private int waiters;
+        private boolean admitted;
+        private boolean abandoned;
+
+        Ticket(String key, long enteredNanos) {
+            this.key = key;
+            this.enteredNanos = enteredNanos;
+            this.seenNanos = enteredNanos;
+        }
+    }
+}
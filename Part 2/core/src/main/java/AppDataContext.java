@@ -0,0 +1,273 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * AppDataContext holds the one copy of the course catalog and user accounts shared by every module MainApp
+ * opens. MainApp loads both files in parallel in the background at startup and passes the context to each
+ * module, so opening a module costs no file reads. The context keeps the data current by applying every change
+ * published on the {@link DataChangeBus}; windows only refresh what they show. The data is only read and
+ * changed on one {@link DataThread}: the JavaFX application thread for the windows, or the caller's own thread
+ * for headless tools. Closing the context stops it following changes and ends its session sweeper.
+ */
+public final class AppDataContext implements AutoCloseable {
+
+    private final CourseCatalog courses;
+    private final List<Account> accounts;
+    private final CatalogStore catalogStore;
+    private final AccountProvisioner provisioner;
+    private final SessionService sessions;
+    private final RegistrationService registration;
+    private final DataThread dataThread;
+    // Read by logins on any thread, replaced on the data thread when it fills up
+    private volatile UsernameFilter usernameFilter;
+    private final Consumer<DataChangeEvent> changeListener = this::onDataChanged;
+
+    private AppDataContext(DataThread dataThread, List<Course> courses, List<Account> accounts,
+            RegistrationSchedule schedule) {
+        this.dataThread = dataThread;
+        this.courses = new CourseCatalog(courses);
+        this.accounts = new ArrayList<>(accounts);
+        this.usernameFilter = UsernameFilter.of(usernames(accounts));
+        this.catalogStore = new CatalogStore(courses);
+        this.provisioner = new AccountProvisioner(DataFiles.DATABASE_FILE, accounts);
+        this.sessions = new SessionService(this);
+        this.registration = new RegistrationService(this.courses, DataFiles.COURSES_FILE, schedule,
+                this::findAccount);
+        // Subscribed before any window, so windows see each change after it has been applied here
+        DataChangeBus.getInstance().subscribe(changeListener);
+    }
+
+    /**
+     * Starts loading the data files in parallel.
+     * @param executor The executor to read the files on.
+     * @param dataThread The thread the data will be used on.
+     * @return A future completed with the context once both files are loaded.
+     */
+    public static CompletableFuture<AppDataContext> preload(Executor executor, DataThread dataThread) {
+        CompletableFuture<List<Course>> courses = CompletableFuture.supplyAsync(
+                () -> read(() -> DataFiles.loadCourses(DataFiles.COURSES_FILE)), executor);
+        CompletableFuture<List<Account>> accounts = CompletableFuture.supplyAsync(
+                () -> read(() -> DataFiles.loadAccounts(DataFiles.DATABASE_FILE)), executor);
+        return courses.thenCombine(accounts, (loadedCourses, loadedAccounts) ->
+                new AppDataContext(dataThread, loadedCourses, loadedAccounts, readSchedule()));
+    }
+
+    /**
+     * Loads the data files on the calling thread, for modules started on their own rather than from MainApp.
+     * @param dataThread The thread the data will be used on.
+     * @return The loaded context.
+     */
+    public static AppDataContext load(DataThread dataThread) {
+        return new AppDataContext(dataThread, read(() -> DataFiles.loadCourses(DataFiles.COURSES_FILE)),
+                read(() -> DataFiles.loadAccounts(DataFiles.DATABASE_FILE)), readSchedule());
+    }
+
+    /**
+     * Creates a context from data already in memory, without reading the data files, for tools that generate
+     * their own data.
+     * @param dataThread The thread the data will be used on.
+     * @param courses The courses.
+     * @param accounts The user accounts.
+     * @return The new context.
+     */
+    public static AppDataContext of(DataThread dataThread, List<Course> courses, List<Account> accounts) {
+        return new AppDataContext(dataThread, courses, accounts, RegistrationSchedule.EMPTY);
+    }
+
+    /**
+     * @return The shared course catalog.
+     */
+    public CourseCatalog getCourses() {
+        return courses;
+    }
+
+    /**
+     * @return The shared list of user accounts.
+     */
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * @return The versioned catalog used by read-only reports.
+     */
+    public CatalogStore getCatalogStore() {
+        return catalogStore;
+    }
+
+    /**
+     * @return The provisioner that creates accounts with uniqueness checks.
+     */
+    public AccountProvisioner getProvisioner() {
+        return provisioner;
+    }
+
+    /**
+     * @return The service that logs users in and checks their sessions.
+     */
+    public SessionService getSessions() {
+        return sessions;
+    }
+
+    /**
+     * @return The registration rules applied to the shared catalog.
+     */
+    public RegistrationService getRegistration() {
+        return registration;
+    }
+
+    /**
+     * Replaces the registration windows on the data thread, e.g. after schedule.csv was edited outside the app.
+     * @param schedule The new schedule.
+     */
+    public void setSchedule(RegistrationSchedule schedule) {
+        dataThread.execute(() -> registration.setSchedule(schedule));
+    }
+
+    /**
+     * @return The thread the shared data is confined to.
+     */
+    public DataThread getDataThread() {
+        return dataThread;
+    }
+
+    /**
+     * Stops following published changes and closes the catalog store and the session service.
+     */
+    @Override
+    public void close() {
+        DataChangeBus.getInstance().unsubscribe(changeListener);
+        catalogStore.close();
+        sessions.close();
+    }
+
+    /**
+     * Looks up an account by username.
+     * @param username The username.
+     * @return The account, or null if there is none.
+     */
+    public Account findAccount(String username) {
+        for (Account account : accounts) {
+            if (account.getUsername().equals(username)) {
+                return account;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks a username against the filter of known usernames, without searching the accounts.
+     * @param username The entered username.
+     * @return False if there is certainly no such account; true if there probably is one.
+     */
+    public boolean mightHaveAccount(String username) {
+        return usernameFilter.mightContain(username);
+    }
+
+    /**
+     * Re-reads the data files and replaces everything loaded from them, for when they were replaced wholesale,
+     * as by a restore: the catalog and its snapshots, the accounts with their username filter and uniqueness
+     * indexes, and each student's registration slot. The files are read on the calling thread and the data is
+     * replaced on the data thread, after which windows are told with a RELOADED event.
+     * @param source The window or component doing the reload.
+     * @return A future completed once the data has been replaced.
+     * @throws IOException If a data file cannot be read; nothing is replaced then.
+     */
+    public CompletableFuture<Void> reload(Object source) throws IOException {
+        List<Course> loadedCourses = DataFiles.loadCourses(DataFiles.COURSES_FILE);
+        List<Account> loadedAccounts = DataFiles.loadAccounts(DataFiles.DATABASE_FILE);
+        CompletableFuture<Void> reloaded = new CompletableFuture<>();
+        dataThread.execute(() -> {
+            courses.replaceAll(loadedCourses);
+            accounts.clear();
+            accounts.addAll(loadedAccounts);
+            usernameFilter = UsernameFilter.of(usernames(accounts));
+            catalogStore.reset(loadedCourses);
+            provisioner.reset(loadedAccounts);
+            registration.setSchedule(registration.getSchedule());
+            DataChangeBus.getInstance().publish(DataChangeEvent.reloaded(source));
+            reloaded.complete(null);
+        });
+        return reloaded;
+    }
+
+    /**
+     * Replaces the stored copy of an account, for example after its password was rehashed.
+     * @param account The updated account; the account with the same username is replaced.
+     */
+    public void replaceAccount(Account account) {
+        for (int i = 0; i < accounts.size(); i++) {
+            if (accounts.get(i).getUsername().equals(account.getUsername())) {
+                accounts.set(i, account);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies a published change to the shared data on the data thread. Changes are idempotent, so the window that made a
+     * change can apply it itself before publishing.
+     * @param event The published change.
+     */
+    private void onDataChanged(DataChangeEvent event) {
+        if (!dataThread.isCurrent()) {
+            dataThread.execute(() -> onDataChanged(event));
+            return;
+        }
+        if (event.getType() == DataChangeEvent.Type.USER_CREATED) {
+            if (event.applyToAccounts(accounts)) {
+                if (usernameFilter.isFull()) {
+                    usernameFilter = UsernameFilter.of(usernames(accounts));
+                } else {
+                    usernameFilter.add(event.getAccount().getUsername());
+                }
+            }
+            provisioner.remember(event.getAccount());
+        } else {
+            courses.apply(event);
+        }
+    }
+
+    private static List<String> usernames(List<Account> accounts) {
+        List<String> usernames = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            usernames.add(account.getUsername());
+        }
+        return usernames;
+    }
+
+    /**
+     * Runs a file read, falling back to no rows if the file cannot be read.
+     */
+    private static <T> List<T> read(FileRead<T> fileRead) {
+        try {
+            return fileRead.read();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Reads the registration windows, falling back to always open if the file cannot be read.
+     */
+    private static RegistrationSchedule readSchedule() {
+        try {
+            return DataFiles.loadSchedule(DataFiles.SCHEDULE_FILE);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return RegistrationSchedule.EMPTY;
+        }
+    }
+
+    /**
+     * FileRead is a read of all rows of one of the data files.
+     */
+    private interface FileRead<T> {
+        List<T> read() throws IOException;
+    }
+}
@@ -0,0 +1,463 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * AuditLog keeps a trail of who changed what: accounts created, courses added, lecturers assigned, and every
+ * enrollment and drop. Recording a change only puts it on a lock-free {@link RingBuffer}, which takes a small
+ * fraction of a microsecond; a background appender takes records off in batches and writes them as tab-separated lines to
+ * gzip files under the audit folder. A file is closed and a new one started every 8 MB of records. Several
+ * processes may share the folder, so every file name carries a token unique to its writer and files are only
+ * ever created new. A file's name carries the time of its first record, and once the file is closed the time
+ * of its last, so a query only opens the closed files overlapping its time range and the files still open.
+ * The folder is set by the system property audit.directory, by default "audit" in the working directory;
+ * an empty value turns auditing off. A producer only waits when the appender is a whole buffer behind.
+ */
+public final class AuditLog implements AutoCloseable {
+
+    /**
+     * The system property naming the audit folder.
+     */
+    public static final String DIRECTORY_PROPERTY = "audit.directory";
+
+    private static final String DEFAULT_DIRECTORY = "audit";
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".log.gz";
+    private static final int CAPACITY = 1 << 16;
+    private static final int BATCH_SIZE = 1024;
+    private static final long ROTATE_BYTES = 8L * 1024 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final String NONE = "-";
+    private static final AuditLog INSTANCE = fromProperty();
+
+    private static final Metrics.Counter WAITED_FULL = Metrics.getInstance().counter("audit.waitedFull");
+    private static final Metrics.Counter WRITE_FAILURES = Metrics.getInstance().counter("errors.auditWrite");
+
+    private final Path directory;
+    private final long rotateBytes;
+    private final String writerId = UUID.randomUUID().toString().substring(0, 8);
+    private final RingBuffer<Entry> buffer = new RingBuffer<>(CAPACITY);
+    private final AtomicLong written = new AtomicLong();
+    private final Thread appender;
+    private volatile boolean running;
+    private BufferedWriter writer;
+    private Path file;
+    private int fileSequence;
+    private long fileBytes;
+    private long firstMillis;
+    private long lastMillis;
+
+    private AuditLog() {
+        this.directory = null;
+        this.rotateBytes = ROTATE_BYTES;
+        this.appender = null;
+    }
+
+    /**
+     * Starts an audit log writing to a folder.
+     * @param directory The folder holding the audit files; it is created if missing.
+     * @throws IOException If the folder cannot be created.
+     */
+    public AuditLog(Path directory) throws IOException {
+        this(directory, ROTATE_BYTES);
+    }
+
+    /**
+     * Starts an audit log that starts a new file after a given amount of records.
+     * @param directory The folder holding the audit files; it is created if missing.
+     * @param rotateBytes The size of records after which a file is closed.
+     * @throws IOException If the folder cannot be created.
+     */
+    AuditLog(Path directory, long rotateBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.rotateBytes = rotateBytes;
+        running = true;
+        appender = new Thread(this::append, "audit-appender");
+        appender.setDaemon(true);
+        appender.start();
+        Metrics.getInstance().gauge("audit.pending", () -> buffer.offered() - written.get());
+    }
+
+    private static AuditLog fromProperty() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY).trim();
+        if (directory.isEmpty()) {
+            return new AuditLog();
+        }
+        try {
+            AuditLog auditLog = new AuditLog(Paths.get(directory));
+            Runtime.getRuntime().addShutdownHook(new Thread(auditLog::close, "audit-close"));
+            return auditLog;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new AuditLog();
+        }
+    }
+
+    /**
+     * @return The audit log configured by the audit.directory property.
+     */
+    public static AuditLog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a change to the shared data.
+     * @param actor The username of whoever made the change.
+     * @param change The change.
+     */
+    public void record(String actor, DataChangeEvent change) {
+        record(actor, change.getType().name(), change.getCourseCode(), change.getName());
+    }
+
+    /**
+     * Records an action.
+     * @param actor The username of whoever acted.
+     * @param action What was done, e.g. ENROLLED.
+     * @param courseCode The course affected, or null.
+     * @param subject The student, lecturer or account affected, or null.
+     */
+    public void record(String actor, String action, String courseCode, String subject) {
+        if (!running) {
+            return;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), actor, action, courseCode, subject);
+        if (buffer.offer(entry)) {
+            return;
+        }
+        // The appender is a whole buffer behind; wait for it rather than lose the record
+        WAITED_FULL.increment();
+        while (!buffer.offer(entry)) {
+            LockSupport.unpark(appender);
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Waits until every record made before the call is written to the current file.
+     */
+    public void flush() {
+        if (appender == null) {
+            return;
+        }
+        long target = buffer.offered();
+        while (written.get() < target && appender.isAlive()) {
+            LockSupport.unpark(appender);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Finds records, newest last. Every record made before the call is included.
+     * @param user A username that acted or was acted on, or null for any.
+     * @param courseCode A course code in any case, or null for any.
+     * @param fromMillis The earliest time, inclusive, in milliseconds since the epoch.
+     * @param toMillis The latest time, inclusive, in milliseconds since the epoch.
+     * @return The matching records.
+     * @throws IOException If the audit files cannot be read.
+     */
+    public List<Entry> query(String user, String courseCode, long fromMillis, long toMillis) throws IOException {
+        List<Entry> matches = new ArrayList<>();
+        if (directory == null) {
+            return matches;
+        }
+        flush();
+        while (true) {
+            try {
+                for (Path file : listFiles()) {
+                    if (!overlaps(file, fromMillis, toMillis)) {
+                        continue;
+                    }
+                    for (Entry entry : read(file, user != null ? user : courseCode)) {
+                        if (entry.getTimeMillis() >= fromMillis && entry.getTimeMillis() <= toMillis
+                                && (user == null || user.equals(entry.getActor()) || user.equals(entry.getSubject()))
+                                && (courseCode == null || courseCode.equalsIgnoreCase(entry.getCourseCode()))) {
+                            matches.add(entry);
+                        }
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                // A writer closed a file and renamed it after the listing; list again
+                matches.clear();
+                continue;
+            }
+            // Files of different writers cover overlapping times
+            matches.sort(Comparator.comparingLong(Entry::getTimeMillis));
+            return matches;
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(file -> file.getFileName().toString().startsWith(FILE_PREFIX)
+                    && file.getFileName().toString().endsWith(FILE_SUFFIX)).sorted().toList();
+        }
+    }
+
+    /**
+     * Checks whether a file may hold records in a time range. A closed file is named
+     * audit-first-last-writer-sequence.log.gz; a file still being written, or left open by a crash, has no last
+     * time yet and may hold records of any time after its first, give or take records queued out of order, so
+     * it is always read.
+     */
+    private static boolean overlaps(Path file, long fromMillis, long toMillis) {
+        String name = file.getFileName().toString();
+        String[] parts = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()).split("-");
+        if (parts.length != 4) {
+            return true;
+        }
+        try {
+            return Long.parseLong(parts[0]) <= toMillis && Long.parseLong(parts[1]) >= fromMillis;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Reads an audit file. The file being written, or one cut short by a crash, is read up to its last
+     * flushed record. Lines that do not contain the given text are skipped without being parsed.
+     */
+    private static List<Entry> read(Path file, String mustContain) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new UnfinishedGzipInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (mustContain != null && !containsIgnoreCase(line, mustContain)) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length == 5) {
+                    entries.add(new Entry(Long.parseLong(fields[0]), fields[1], fields[2], orNull(fields[3]),
+                            orNull(fields[4])));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static boolean containsIgnoreCase(String line, String text) {
+        for (int i = 0; i + text.length() <= line.length(); i++) {
+            if (line.regionMatches(true, i, text, 0, text.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String orNull(String field) {
+        return NONE.equals(field) ? null : field;
+    }
+
+    /**
+     * The appender thread: writes batches until closed, then drains what is left.
+     */
+    private void append() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || buffer.size() > 0) {
+            batch.clear();
+            int taken = buffer.drainTo(batch, BATCH_SIZE);
+            if (taken == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                write(batch);
+            } catch (IOException e) {
+                WRITE_FAILURES.increment();
+                e.printStackTrace();
+                closeFile();
+            }
+            written.addAndGet(taken);
+        }
+        closeFile();
+    }
+
+    private void write(List<Entry> batch) throws IOException {
+        if (writer == null) {
+            openFile(batch.get(0).getTimeMillis());
+        }
+        for (Entry entry : batch) {
+            firstMillis = Math.min(firstMillis, entry.getTimeMillis());
+            lastMillis = Math.max(lastMillis, entry.getTimeMillis());
+            String line = entry.getTimeMillis() + "\t" + clean(entry.getActor()) + "\t" + clean(entry.getAction())
+                    + "\t" + clean(entry.getCourseCode()) + "\t" + clean(entry.getSubject()) + "\n";
+            writer.write(line);
+            fileBytes += line.length();
+        }
+        writer.flush();
+        if (fileBytes >= rotateBytes) {
+            closeFile();
+        }
+    }
+
+    private void openFile(long startMillis) throws IOException {
+        while (true) {
+            Path next = directory.resolve(String.format("%s%013d-%s-%d%s", FILE_PREFIX, startMillis, writerId,
+                    fileSequence++, FILE_SUFFIX));
+            try {
+                // Sync flush makes each batch readable by queries without finishing the file
+                writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+                        Files.newOutputStream(next, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), true),
+                        StandardCharsets.UTF_8));
+            } catch (FileAlreadyExistsException e) {
+                continue;
+            }
+            file = next;
+            fileBytes = 0;
+            firstMillis = Long.MAX_VALUE;
+            lastMillis = Long.MIN_VALUE;
+            return;
+        }
+    }
+
+    private static String clean(String field) {
+        if (field == null || field.isEmpty()) {
+            return NONE;
+        }
+        return field.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private void closeFile() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        writer = null;
+        if (firstMillis > lastMillis) {
+            return;
+        }
+        // Name the closed file by its own first and last records, so queries can pass over it
+        String name = file.getFileName().toString();
+        String closed = String.format("%s%013d-%013d-%s", FILE_PREFIX, firstMillis, lastMillis,
+                name.substring(name.indexOf('-', FILE_PREFIX.length()) + 1));
+        try {
+            Files.move(file, file.resolveSibling(closed));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes every pending record and closes the current file. Later records are not kept.
+     */
+    @Override
+    public void close() {
+        if (appender == null || !running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(appender);
+        try {
+            appender.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * UnfinishedGzipInputStream reads a gzip file that may have no trailer yet, because it is still being
+     * written or was cut short by a crash, treating the end of the data as the end of the stream.
+     */
+    private static final class UnfinishedGzipInputStream extends GZIPInputStream {
+
+        UnfinishedGzipInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                return super.read(buffer, offset, length);
+            } catch (EOFException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Entry is one audited action.
+     */
+    public static final class Entry {
+
+        private final long timeMillis;
+        private final String actor;
+        private final String action;
+        private final String courseCode;
+        private final String subject;
+
+        Entry(long timeMillis, String actor, String action, String courseCode, String subject) {
+            this.timeMillis = timeMillis;
+            this.actor = actor;
+            this.action = action;
+            this.courseCode = courseCode;
+            this.subject = subject;
+        }
+
+        /**
+         * @return When it happened, in milliseconds since the epoch.
+         */
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        /**
+         * @return The username of whoever acted.
+         */
+        public String getActor() {
+            return actor;
+        }
+
+        /**
+         * @return What was done, e.g. ENROLLED.
+         */
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * @return The course affected, or null.
+         */
+        public String getCourseCode() {
+            return courseCode;
+        }
+
+        /**
+         * @return The student, lecturer or account affected, or null.
+         */
+        public String getSubject() {
+            return subject;
+        }
+
+        @Override
+        public String toString() {
+            return Instant.ofEpochMilli(timeMillis) + " " + actor + " " + action
+                    + (courseCode != null ? " " + courseCode : "") + (subject != null ? " " + subject : "");
+        }
+    }
+}
@@ -0,0 +1,283 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.CRC32C;
+
+/**
+ * BackupManager takes incremental snapshots of the data files and restores them. Each snapshot is a folder
+ * under backups/ holding the data files and a manifest with their sizes, CRC32C checksums and the course
+ * version stamp they correspond to. A file that has not changed since the previous snapshot is hard-linked
+ * to that snapshot's copy, and the append-only accounts file reuses the previous copy as its prefix, so only
+ * new bytes are copied; all copies use FileChannel.transferTo.
+ * Taking a snapshot holds the courses lock only long enough to open the files, so registrations continue
+ * while the copy runs. A restore can go back to a snapshot exactly, or replay the {@link CourseJournal} from
+ * the snapshot up to a later course version.
+ */
+public final class BackupManager {
+
+    private static final String BACKUP_DIRECTORY = "backups";
+    private static final String MANIFEST_FILE = "manifest.properties";
+    private static final String[] DATA_FILES = { DataFiles.COURSES_FILE, DataFiles.DATABASE_FILE };
+
+    private final Path dataDirectory;
+    private final Path backupDirectory;
+
+    /**
+     * Creates a backup manager for a data directory.
+     * @param dataDirectory The directory holding courses.csv and database.csv.
+     */
+    public BackupManager(Path dataDirectory) {
+        this.dataDirectory = dataDirectory;
+        this.backupDirectory = dataDirectory.resolve(BACKUP_DIRECTORY);
+    }
+
+    /**
+     * Takes a snapshot of the data files.
+     * @return The name of the new snapshot.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public String snapshot() throws IOException {
+        Files.createDirectories(backupDirectory);
+        String name = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        Path target = backupDirectory.resolve(name);
+        Path staging = backupDirectory.resolve(name + ".partial");
+        Files.createDirectories(staging);
+        Properties previous = latestManifest();
+
+        // The courses file is only ever replaced by rename, so the open channel keeps the version that was
+        // current under the lock; the accounts file is append-only, so its length at that moment is enough
+        FileChannel[] sources = new FileChannel[DATA_FILES.length];
+        long[] sizes = new long[DATA_FILES.length];
+        try {
+            long version = SharedCourseFile.readLocked(dataFile(DataFiles.COURSES_FILE).toString(), current -> {
+                for (int i = 0; i < DATA_FILES.length; i++) {
+                    sources[i] = FileChannel.open(dataFile(DATA_FILES[i]), StandardOpenOption.READ);
+                    sizes[i] = sources[i].size();
+                }
+                return current;
+            });
+
+            Properties manifest = new Properties();
+            manifest.setProperty("version", Long.toString(version));
+            manifest.setProperty("created", name);
+            for (int i = 0; i < DATA_FILES.length; i++) {
+                long size = completeLinesLength(sources[i], sizes[i]);
+                String checksum = checksum(sources[i], size);
+                copyIncrementally(DATA_FILES[i], sources[i], size, checksum, previous, staging);
+                manifest.setProperty(DATA_FILES[i] + ".size", Long.toString(size));
+                manifest.setProperty(DATA_FILES[i] + ".crc", checksum);
+            }
+            try (OutputStream out = Files.newOutputStream(staging.resolve(MANIFEST_FILE))) {
+                manifest.store(out, "Data file snapshot");
+            }
+        } finally {
+            for (FileChannel source : sources) {
+                if (source != null) {
+                    source.close();
+                }
+            }
+        }
+        // The snapshot only becomes visible once complete
+        Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        return name;
+    }
+
+    /**
+     * @return The names of all complete snapshots, oldest first.
+     * @throws IOException If the backup folder cannot be read.
+     */
+    public List<String> listSnapshots() throws IOException {
+        List<String> names = new ArrayList<>();
+        if (!Files.isDirectory(backupDirectory)) {
+            return names;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(backupDirectory)) {
+            for (Path entry : entries) {
+                if (Files.exists(entry.resolve(MANIFEST_FILE))) {
+                    names.add(entry.getFileName().toString());
+                }
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Reads the course version stamp a snapshot was taken at.
+     * @param name The snapshot name.
+     * @return The version stamp.
+     * @throws IOException If the manifest cannot be read.
+     */
+    public long versionOf(String name) throws IOException {
+        return Long.parseLong(readManifest(backupDirectory.resolve(name)).getProperty("version"));
+    }
+
+    /**
+     * Restores the data files from a snapshot, then replays the journal up to a course version.
+     * @param name The snapshot name.
+     * @param toVersion The course version to restore to; the snapshot's own version restores it exactly.
+     * @return The version stamp of the restored courses file.
+     * @throws IOException If the snapshot is damaged or the files cannot be written.
+     * @throws IllegalArgumentException If the version lies before the snapshot or a later restore.
+     */
+    public long restore(String name, long toVersion) throws IOException {
+        Path source = backupDirectory.resolve(name);
+        Properties manifest = readManifest(source);
+        long snapshotVersion = Long.parseLong(manifest.getProperty("version"));
+        if (toVersion < snapshotVersion) {
+            throw new IllegalArgumentException("Snapshot " + name + " was taken at version " + snapshotVersion);
+        }
+        for (String file : DATA_FILES) {
+            try (FileChannel channel = FileChannel.open(source.resolve(file), StandardOpenOption.READ)) {
+                if (!checksum(channel, channel.size()).equals(manifest.getProperty(file + ".crc"))) {
+                    throw new IOException("Snapshot " + name + " is damaged: checksum of " + file + " differs");
+                }
+            }
+        }
+
+        String coursesFile = dataFile(DataFiles.COURSES_FILE).toString();
+        List<DataChangeEvent> replay = CourseJournal.read(coursesFile, snapshotVersion, toVersion);
+        List<Course> replayed = null;
+        if (!replay.isEmpty()) {
+            CourseCatalog catalog = new CourseCatalog(DataFiles.loadCourses(
+                    source.resolve(DataFiles.COURSES_FILE).toString()));
+            for (DataChangeEvent change : replay) {
+                catalog.apply(change);
+            }
+            replayed = catalog.toList();
+        }
+
+        List<Course> restoredCourses = replayed;
+        return SharedCourseFile.replaceLocked(coursesFile, current -> {
+            if (restoredCourses != null) {
+                DataFiles.saveCourses(coursesFile, restoredCourses);
+            } else {
+                replaceFrom(source.resolve(DataFiles.COURSES_FILE), dataFile(DataFiles.COURSES_FILE));
+            }
+            replaceFrom(source.resolve(DataFiles.DATABASE_FILE), dataFile(DataFiles.DATABASE_FILE));
+            return null;
+        });
+    }
+
+    /**
+     * Writes one data file of a new snapshot, reusing the previous snapshot's copy where possible.
+     */
+    private void copyIncrementally(String file, FileChannel source, long size, String checksum,
+            Properties previous, Path staging) throws IOException {
+        Path target = staging.resolve(file);
+        if (previous != null) {
+            Path previousCopy = backupDirectory.resolve(previous.getProperty("created")).resolve(file);
+            long previousSize = Long.parseLong(previous.getProperty(file + ".size", "-1"));
+            if (previousSize == size && checksum.equals(previous.getProperty(file + ".crc"))) {
+                try {
+                    Files.createLink(target, previousCopy);
+                    return;
+                } catch (IOException | UnsupportedOperationException e) {
+                    // Hard links are not supported here; fall back to copying
+                }
+            }
+            if (previousSize > 0 && previousSize < size
+                    && previous.getProperty(file + ".crc").equals(checksum(source, previousSize))) {
+                // Only new rows were appended: reuse the previous copy and add the tail
+                try (FileChannel previousChannel = FileChannel.open(previousCopy, StandardOpenOption.READ);
+                        FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+                                StandardOpenOption.WRITE)) {
+                    transfer(previousChannel, 0, previousSize, out);
+                    transfer(source, previousSize, size - previousSize, out);
+                    out.force(true);
+                }
+                return;
+            }
+        }
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            transfer(source, 0, size, out);
+            out.force(true);
+        }
+    }
+
+    /**
+     * Copies a snapshot file over a data file with a forced temporary copy and an atomic rename.
+     */
+    private static void replaceFrom(Path snapshotFile, Path dataFile) throws IOException {
+        Path temp = dataFile.resolveSibling(dataFile.getFileName() + ".restore");
+        try (FileChannel in = FileChannel.open(snapshotFile, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            transfer(in, 0, in.size(), out);
+            out.force(true);
+        }
+        Files.move(temp, dataFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void transfer(FileChannel in, long position, long count, FileChannel out) throws IOException {
+        long done = 0;
+        while (done < count) {
+            done += in.transferTo(position + done, count - done, out);
+        }
+    }
+
+    /**
+     * Trims a length back to the end of the last complete line, so a row being appended is left out.
+     */
+    private static long completeLinesLength(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        long length = size;
+        while (length > 0) {
+            buffer.clear();
+            channel.read(buffer, length - 1);
+            if (buffer.get(0) == '\n') {
+                break;
+            }
+            length--;
+        }
+        return length;
+    }
+
+    private static String checksum(FileChannel channel, long size) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), size - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            buffer.flip();
+            crc.update(buffer);
+            position += read;
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    private Properties latestManifest() throws IOException {
+        List<String> names = listSnapshots();
+        return names.isEmpty() ? null : readManifest(backupDirectory.resolve(names.get(names.size() - 1)));
+    }
+
+    private static Properties readManifest(Path snapshot) throws IOException {
+        Properties manifest = new Properties();
+        try (InputStream in = Files.newInputStream(snapshot.resolve(MANIFEST_FILE))) {
+            manifest.load(in);
+        }
+        return manifest;
+    }
+
+    private Path dataFile(String file) {
+        return dataDirectory.resolve(file);
+    }
+}
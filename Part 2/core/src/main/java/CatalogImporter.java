@@ -0,0 +1,191 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CatalogImporter validates a course catalog file before its courses are added in bulk. The file is streamed
+ * once; every row is checked for malformed credits and for codes that already exist in the catalog or earlier
+ * in the file using a hash index. After the pass, prerequisites are checked against the known codes and a
+ * topological sort finds courses that are part of, or depend on, a prerequisite cycle.
+ * The file uses the courses.csv layout; the students and lecturer columns may be left out.
+ */
+public final class CatalogImporter {
+
+    private CatalogImporter() {
+    }
+
+    /**
+     * Reads and validates a catalog file against an existing catalog. The catalog is not modified.
+     * @param file The file to import.
+     * @param existing The catalog the courses will be added to.
+     * @return The validation result.
+     * @throws IOException If the file cannot be read.
+     */
+    public static ImportResult<Course> validate(Path file, CourseCatalog existing) throws IOException {
+        // Candidate courses keyed by code, with the line each one came from
+        Map<String, Course> candidates = new LinkedHashMap<>();
+        Map<String, Integer> lineNumbers = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        int rowsRead = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] row = line.split(",");
+                if (row.length > 1 && Course.CSV_HEADER[1].equals(row[1].trim())) {
+                    continue;
+                }
+                rowsRead++;
+
+                Course course;
+                try {
+                    course = parseRow(row);
+                } catch (IllegalArgumentException e) {
+                    errors.add("Line " + lineNumber + ": " + e.getMessage());
+                    continue;
+                }
+
+                String code = course.getCode();
+                if (existing.contains(code)) {
+                    errors.add("Line " + lineNumber + ": duplicate code " + code + " already in catalog");
+                } else if (candidates.containsKey(code)) {
+                    errors.add("Line " + lineNumber + ": duplicate code " + code + " (first seen on line "
+                            + lineNumbers.get(code) + ")");
+                } else {
+                    candidates.put(code, course);
+                    lineNumbers.put(code, lineNumber);
+                }
+            }
+        }
+
+        Map<String, String> rejected = new LinkedHashMap<>();
+        for (Course course : candidates.values()) {
+            for (String prerequisite : course.getPrerequisiteCodes()) {
+                if (!candidates.containsKey(prerequisite) && !existing.contains(prerequisite)) {
+                    rejected.put(course.getCode(), "unknown prerequisite " + prerequisite);
+                    break;
+                }
+            }
+        }
+        for (String code : findCyclic(candidates, existing)) {
+            rejected.putIfAbsent(code, "part of or depends on a prerequisite cycle");
+        }
+        rejectDependents(candidates, rejected);
+
+        List<Course> accepted = new ArrayList<>();
+        for (Course course : candidates.values()) {
+            String reason = rejected.get(course.getCode());
+            if (reason == null) {
+                accepted.add(course);
+            } else {
+                errors.add("Line " + lineNumbers.get(course.getCode()) + ": " + course.getCode() + " " + reason);
+            }
+        }
+        return new ImportResult<>(accepted, errors, rowsRead);
+    }
+
+    /**
+     * Parses an import row; the students and lecturer columns are optional.
+     */
+    private static Course parseRow(String[] row) {
+        if (row.length < 2 || row[1].trim().isEmpty()) {
+            throw new IllegalArgumentException("missing course code");
+        }
+        String code = row[1].trim().toUpperCase();
+        int credits = Course.parseCredits(row[0]);
+        String prerequisites = row.length > 2 ? row[2].trim() : "";
+        if (row.length >= 5) {
+            return Course.fromRow(new String[] { row[0], code, prerequisites, row[3].trim(), row[4].trim() });
+        }
+        return Course.create(credits, code, prerequisites);
+    }
+
+    /**
+     * Runs Kahn's algorithm over the prerequisite graph of the existing and candidate courses.
+     * @return The candidate codes that can never be scheduled because they lie on or behind a cycle.
+     */
+    private static Set<String> findCyclic(Map<String, Course> candidates, CourseCatalog existing) {
+        Map<String, List<String>> dependents = new HashMap<>();
+        Map<String, Integer> pending = new HashMap<>();
+
+        List<Course> all = new ArrayList<>(existing.courses());
+        all.addAll(candidates.values());
+        for (Course course : all) {
+            if (pending.containsKey(course.getCode())) {
+                continue; // Duplicate codes already in the catalog
+            }
+            int count = 0;
+            for (String prerequisite : course.getPrerequisiteCodes()) {
+                if (candidates.containsKey(prerequisite) || existing.contains(prerequisite)) {
+                    dependents.computeIfAbsent(prerequisite, key -> new ArrayList<>()).add(course.getCode());
+                    count++;
+                }
+            }
+            pending.put(course.getCode(), count);
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+            if (entry.getValue() == 0) {
+                ready.add(entry.getKey());
+            }
+        }
+        while (!ready.isEmpty()) {
+            String code = ready.poll();
+            for (String dependent : dependents.getOrDefault(code, Collections.emptyList())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        Set<String> cyclic = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+            if (entry.getValue() > 0 && candidates.containsKey(entry.getKey())) {
+                cyclic.add(entry.getKey());
+            }
+        }
+        return cyclic;
+    }
+
+    /**
+     * Rejects every candidate whose prerequisites include a rejected candidate, transitively.
+     */
+    private static void rejectDependents(Map<String, Course> candidates, Map<String, String> rejected) {
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (Course course : candidates.values()) {
+            for (String prerequisite : course.getPrerequisiteCodes()) {
+                if (candidates.containsKey(prerequisite)) {
+                    dependents.computeIfAbsent(prerequisite, key -> new ArrayList<>()).add(course.getCode());
+                }
+            }
+        }
+
+        Deque<String> queue = new ArrayDeque<>(rejected.keySet());
+        while (!queue.isEmpty()) {
+            String code = queue.poll();
+            for (String dependent : dependents.getOrDefault(code, Collections.emptyList())) {
+                if (!rejected.containsKey(dependent)) {
+                    rejected.put(dependent, "depends on rejected course " + code);
+                    queue.add(dependent);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * CatalogSnapshot is one immutable version of the course catalog, including the students enrolled in each
+ * course. Courses are stored in a two-level hash trie of 32 x 32 leaves keyed by course code. A change copies
+ * only the root, one branch and the leaf holding the course; every other leaf is shared with the previous
+ * version, so publishing a new version costs O(n / 1024) rather than a copy of the whole catalog.
+ * A snapshot never changes once created, so readers can hold on to it for as long as a report takes.
+ */
+public final class CatalogSnapshot {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Entry[] EMPTY_LEAF = new Entry[0];
+    private static final Comparator<Entry> CATALOG_ORDER = Comparator
+            .comparingInt((Entry entry) -> entry.course.getCredits())
+            .thenComparing(entry -> entry.course.getCode())
+            .thenComparingLong(entry -> entry.sequence);
+
+    /** The version every store starts from. */
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, new Entry[WIDTH][][], 0, 0);
+
+    private final long version;
+    private final Entry[][][] root;
+    private final int size;
+    private final long nextSequence;
+    private volatile List<Course> sortedCourses;
+
+    private CatalogSnapshot(long version, Entry[][][] root, int size, long nextSequence) {
+        this.version = version;
+        this.root = root;
+        this.size = size;
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Creates a snapshot holding the given courses.
+     * @param version The version number of the snapshot.
+     * @param courses The courses in file order.
+     * @return The new snapshot.
+     */
+    public static CatalogSnapshot of(long version, List<Course> courses) {
+        CatalogSnapshot snapshot = EMPTY;
+        for (Course course : courses) {
+            snapshot = snapshot.withAdded(course);
+        }
+        return new CatalogSnapshot(version, snapshot.root, snapshot.size, snapshot.nextSequence);
+    }
+
+    /**
+     * @return The version number; later snapshots of the same store have higher numbers.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The number of courses, counting duplicates.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up a course by code.
+     * @param courseCode The course code.
+     * @return The first course with that code, or null if there is none.
+     */
+    public Course get(String courseCode) {
+        Entry entry = find(leafOf(courseCode), courseCode);
+        return entry == null ? null : entry.course;
+    }
+
+    /**
+     * @param courseCode The course code.
+     * @return True if a course with that code exists.
+     */
+    public boolean contains(String courseCode) {
+        return get(courseCode) != null;
+    }
+
+    /**
+     * Returns all courses sorted by credits and then code. The list is built on first use and then reused
+     * by every reader of this snapshot.
+     * @return The courses as a read-only list.
+     */
+    public List<Course> courses() {
+        List<Course> result = sortedCourses;
+        if (result == null) {
+            List<Entry> entries = new ArrayList<>(size);
+            for (Entry[][] branch : root) {
+                if (branch == null) {
+                    continue;
+                }
+                for (Entry[] leaf : branch) {
+                    if (leaf != null) {
+                        Collections.addAll(entries, leaf);
+                    }
+                }
+            }
+            entries.sort(CATALOG_ORDER);
+            List<Course> courses = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                courses.add(entry.course);
+            }
+            result = Collections.unmodifiableList(courses);
+            sortedCourses = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the courses a student is enrolled in at this version.
+     * @param studentName The student's name.
+     * @return The courses, sorted by credits and then code.
+     */
+    public List<Course> coursesOf(String studentName) {
+        List<Course> result = new ArrayList<>();
+        for (Course course : courses()) {
+            if (course.hasStudent(studentName)) {
+                result.add(course);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Produces the next version with a change applied. Course events that do not change anything return
+     * this snapshot itself, so no new version is published for them.
+     * @param event The change to apply.
+     * @return The new snapshot, or this one if the change had no effect.
+     */
+    public CatalogSnapshot apply(DataChangeEvent event) {
+        switch (event.getType()) {
+            case COURSE_ADDED:
+                return contains(event.getCourseCode()) ? this : withAdded(event.getCourse()).next();
+            case LECTURER_ASSIGNED:
+            case ENROLLED:
+            case DROPPED:
+                Entry current = find(leafOf(event.getCourseCode()), event.getCourseCode());
+                if (current == null) {
+                    return this;
+                }
+                Course updated = event.applyTo(current.course);
+                if (updated == current.course) {
+                    return this;
+                }
+                return withReplaced(current, new Entry(updated, current.sequence)).next();
+            default:
+                return this;
+        }
+    }
+
+    private CatalogSnapshot next() {
+        return new CatalogSnapshot(version + 1, root, size, nextSequence);
+    }
+
+    private CatalogSnapshot withAdded(Course course) {
+        int hash = hash(course.getCode());
+        Entry[] leaf = leafAt(hash);
+        Entry[] newLeaf = new Entry[leaf.length + 1];
+        System.arraycopy(leaf, 0, newLeaf, 0, leaf.length);
+        newLeaf[leaf.length] = new Entry(course, nextSequence);
+        return new CatalogSnapshot(version, withLeaf(hash, newLeaf), size + 1, nextSequence + 1);
+    }
+
+    private CatalogSnapshot withReplaced(Entry current, Entry replacement) {
+        int hash = hash(current.course.getCode());
+        Entry[] newLeaf = leafAt(hash).clone();
+        for (int i = 0; i < newLeaf.length; i++) {
+            if (newLeaf[i] == current) {
+                newLeaf[i] = replacement;
+                break;
+            }
+        }
+        return new CatalogSnapshot(version, withLeaf(hash, newLeaf), size, nextSequence);
+    }
+
+    /**
+     * Copies the path from the root to one leaf, sharing every other branch and leaf.
+     */
+    private Entry[][][] withLeaf(int hash, Entry[] newLeaf) {
+        Entry[][][] newRoot = root.clone();
+        int branchIndex = (hash >>> BITS) & MASK;
+        Entry[][] branch = newRoot[branchIndex];
+        Entry[][] newBranch = branch == null ? new Entry[WIDTH][] : branch.clone();
+        newBranch[hash & MASK] = newLeaf;
+        newRoot[branchIndex] = newBranch;
+        return newRoot;
+    }
+
+    private Entry[] leafOf(String courseCode) {
+        return leafAt(hash(courseCode));
+    }
+
+    private Entry[] leafAt(int hash) {
+        Entry[][] branch = root[(hash >>> BITS) & MASK];
+        if (branch == null) {
+            return EMPTY_LEAF;
+        }
+        Entry[] leaf = branch[hash & MASK];
+        return leaf == null ? EMPTY_LEAF : leaf;
+    }
+
+    private static Entry find(Entry[] leaf, String courseCode) {
+        for (Entry entry : leaf) {
+            if (entry.course.getCode().equals(courseCode)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static int hash(String courseCode) {
+        int hash = courseCode.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Entry is a course together with the order it was added in, which breaks ties between duplicate codes.
+     */
+    private static final class Entry {
+
+        private final Course course;
+        private final long sequence;
+
+        Entry(Course course, long sequence) {
+            this.course = course;
+            this.sequence = sequence;
+        }
+    }
+}
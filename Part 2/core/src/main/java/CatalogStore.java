@@ -0,0 +1,73 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * CatalogStore holds the current version of the shared course catalog for read-only reports. Readers call
+ * {@link #snapshot()} and keep the returned version for as long as they need a consistent view; they never
+ * take a lock. Every course change published on the {@link DataChangeBus} produces a new version that is
+ * swapped in with a compare-and-set, so writers never wait for readers either.
+ * Closing the store stops it following changes; snapshots already taken stay usable.
+ */
+public final class CatalogStore implements AutoCloseable {
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    private final Consumer<DataChangeEvent> changeListener = this::apply;
+
+    /**
+     * Creates a store whose first version holds the given courses, and starts following published changes.
+     * The courses are immutable, so the snapshots share them with whoever loaded them.
+     * @param courses The courses in file order.
+     */
+    public CatalogStore(Collection<Course> courses) {
+        current.set(CatalogSnapshot.of(1, new ArrayList<>(courses)));
+        DataChangeBus.getInstance().subscribe(changeListener);
+    }
+
+    /**
+     * Pins the current version of the catalog.
+     * @return An immutable snapshot that later changes will not affect.
+     */
+    public CatalogSnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Publishes a new version with a change applied. Concurrent writers retry against the version that won.
+     * @param event The change to apply.
+     * @return The version that is current after the change.
+     */
+    public CatalogSnapshot apply(DataChangeEvent event) {
+        while (true) {
+            CatalogSnapshot base = current.get();
+            CatalogSnapshot next = base.apply(event);
+            if (next == base || current.compareAndSet(base, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Publishes a new version holding a fresh set of courses, after the courses file was replaced wholesale.
+     * @param courses The courses in file order.
+     */
+    public void reset(Collection<Course> courses) {
+        List<Course> copy = new ArrayList<>(courses);
+        while (true) {
+            CatalogSnapshot base = current.get();
+            if (current.compareAndSet(base, CatalogSnapshot.of(base.getVersion() + 1, copy))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops following published changes, so the store can be garbage collected.
+     */
+    @Override
+    public void close() {
+        DataChangeBus.getInstance().unsubscribe(changeListener);
+    }
+}
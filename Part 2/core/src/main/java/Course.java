@@ -0,0 +1,266 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Course is an immutable row of courses.csv with its fields already parsed: credits as an int, the prerequisite
+ * column split into course codes and a minimum number of completed credits, and the enrolled students as a list.
+ * Codes and names are taken from the {@link NamePool}, so repeated values share one instance.
+ * Changes such as enrolling a student return a new Course and leave the original untouched.
+ */
+public final class Course {
+
+    /** Header row of courses.csv. */
+    public static final String[] CSV_HEADER = { "Course Credit", "Course Code", "Pre-requisite", "Student Name",
+            "Lecturer Name" };
+    /** Lecturer column value of a course without a lecturer. */
+    public static final String NO_LECTURER = "no assigned lecturer";
+
+    private static final String NO_PREREQUISITE = "Nil";
+    private static final String NO_STUDENTS = "-";
+    private static final String CREDITS_SUFFIX = " Credits";
+    private static final String MIN_CREDITS_PREFIX = "completed at least ";
+    private static final String[] NONE = new String[0];
+
+    private final int credits;
+    private final String code;
+    private final String[] prerequisiteCodes;
+    private final int minCompletedCredits;
+    private final String[] students;
+    private final String lecturer;
+
+    private Course(int credits, String code, String[] prerequisiteCodes, int minCompletedCredits, String[] students,
+            String lecturer) {
+        this.credits = credits;
+        this.code = code;
+        this.prerequisiteCodes = prerequisiteCodes;
+        this.minCompletedCredits = minCompletedCredits;
+        this.students = students;
+        this.lecturer = lecturer;
+    }
+
+    /**
+     * Creates a course without students or lecturer.
+     * @param credits The number of credits.
+     * @param code The course code.
+     * @param prerequisites The prerequisite column, e.g. "CS133;CS214;completed at least 15 credits" or "Nil".
+     * @return The new course.
+     * @throws IllegalArgumentException If the prerequisite column cannot be parsed.
+     */
+    public static Course create(int credits, String code, String prerequisites) {
+        return parse(credits, code, prerequisites, NO_STUDENTS, NO_LECTURER);
+    }
+
+    /**
+     * Parses a row of courses.csv.
+     * @param row The CSV columns: credits, code, prerequisites, students and lecturer.
+     * @return The parsed course.
+     * @throws IllegalArgumentException If the row is too short or the credits are malformed.
+     */
+    public static Course fromRow(String[] row) {
+        if (row.length < 5) {
+            throw new IllegalArgumentException("Expected 5 columns but found " + row.length);
+        }
+        return parse(parseCredits(row[0]), row[1], row[2], row[3], row[4]);
+    }
+
+    private static Course parse(int credits, String code, String prerequisites, String studentColumn,
+            String lecturer) {
+        String[] prerequisiteCodes = NONE;
+        int minCompletedCredits = 0;
+        if (prerequisites != null && !prerequisites.isEmpty() && !NO_PREREQUISITE.equalsIgnoreCase(prerequisites)) {
+            String[] parts = prerequisites.split(";");
+            String[] codes = new String[parts.length];
+            int count = 0;
+            for (String part : parts) {
+                String trimmed = part.trim();
+                if (trimmed.startsWith(MIN_CREDITS_PREFIX)) {
+                    minCompletedCredits = parseCredits(trimmed.substring(MIN_CREDITS_PREFIX.length()));
+                } else if (!trimmed.isEmpty()) {
+                    codes[count++] = NamePool.intern(trimmed.toUpperCase());
+                }
+            }
+            prerequisiteCodes = count == 0 ? NONE : Arrays.copyOf(codes, count);
+        }
+
+        String[] students = NONE;
+        if (studentColumn != null && !studentColumn.isEmpty() && !NO_STUDENTS.equals(studentColumn)) {
+            String[] names = studentColumn.split(";");
+            int count = 0;
+            for (String name : names) {
+                if (!name.isEmpty()) {
+                    names[count++] = NamePool.intern(name);
+                }
+            }
+            students = count == 0 ? NONE : Arrays.copyOf(names, count);
+        }
+
+        return new Course(credits, NamePool.intern(code), prerequisiteCodes, minCompletedCredits, students,
+                NamePool.intern(lecturer == null || lecturer.isEmpty() ? NO_LECTURER : lecturer));
+    }
+
+    /**
+     * Parses a credit column such as "4 Credits" or "4".
+     * @param creditColumn The text to parse.
+     * @return The number of credits.
+     * @throws IllegalArgumentException If the text does not start with a non-negative number.
+     */
+    public static int parseCredits(String creditColumn) {
+        String number = creditColumn.trim().split(" ")[0];
+        try {
+            int credits = Integer.parseInt(number);
+            if (credits < 0) {
+                throw new IllegalArgumentException("Negative credits: " + creditColumn);
+            }
+            return credits;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed credits: " + creditColumn, e);
+        }
+    }
+
+    /**
+     * Formats this course as a row of courses.csv.
+     * @return The CSV columns.
+     */
+    public String[] toRow() {
+        return new String[] { credits + CREDITS_SUFFIX, code, getPrerequisiteText(),
+                students.length == 0 ? NO_STUDENTS : String.join(";", students), lecturer };
+    }
+
+    /**
+     * @return The number of credits.
+     */
+    public int getCredits() {
+        return credits;
+    }
+
+    /**
+     * @return The course code.
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return The codes of the courses that must be taken first, in file order.
+     */
+    public List<String> getPrerequisiteCodes() {
+        return Collections.unmodifiableList(Arrays.asList(prerequisiteCodes));
+    }
+
+    /**
+     * @return The number of credits a student must have completed before taking this course, 0 if none.
+     */
+    public int getMinCompletedCredits() {
+        return minCompletedCredits;
+    }
+
+    /**
+     * @return The prerequisite column as stored in courses.csv.
+     */
+    public String getPrerequisiteText() {
+        if (prerequisiteCodes.length == 0 && minCompletedCredits == 0) {
+            return NO_PREREQUISITE;
+        }
+        StringBuilder text = new StringBuilder(String.join(";", prerequisiteCodes));
+        if (minCompletedCredits > 0) {
+            if (text.length() > 0) {
+                text.append(';');
+            }
+            text.append(MIN_CREDITS_PREFIX).append(minCompletedCredits).append(" credits");
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return The enrolled students, in enrollment order.
+     */
+    public List<String> getStudents() {
+        return Collections.unmodifiableList(Arrays.asList(students));
+    }
+
+    /**
+     * @return The number of enrolled students.
+     */
+    public int getStudentCount() {
+        return students.length;
+    }
+
+    /**
+     * Checks whether a student is enrolled. Names are matched exactly, so "suren" does not match "surendran".
+     * @param studentName The student name.
+     * @return True if the student is enrolled.
+     */
+    public boolean hasStudent(String studentName) {
+        for (String student : students) {
+            if (student.equals(studentName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The assigned lecturer, or {@link #NO_LECTURER}.
+     */
+    public String getLecturer() {
+        return lecturer;
+    }
+
+    /**
+     * @return True if a lecturer is assigned.
+     */
+    public boolean hasLecturer() {
+        return !NO_LECTURER.equalsIgnoreCase(lecturer);
+    }
+
+    /**
+     * Returns a copy of this course with another lecturer.
+     * @param lecturerName The lecturer to assign.
+     * @return The updated course.
+     */
+    public Course withLecturer(String lecturerName) {
+        return new Course(credits, code, prerequisiteCodes, minCompletedCredits, students,
+                NamePool.intern(lecturerName));
+    }
+
+    /**
+     * Returns a copy of this course with a student added. Enrolling an enrolled student returns this course.
+     * @param studentName The student to enroll.
+     * @return The updated course.
+     */
+    public Course withStudent(String studentName) {
+        if (hasStudent(studentName)) {
+            return this;
+        }
+        String[] updated = Arrays.copyOf(students, students.length + 1);
+        updated[students.length] = NamePool.intern(studentName);
+        return new Course(credits, code, prerequisiteCodes, minCompletedCredits, updated, lecturer);
+    }
+
+    /**
+     * Returns a copy of this course with a student removed. Removing a student who is not enrolled returns
+     * this course.
+     * @param studentName The student to drop.
+     * @return The updated course.
+     */
+    public Course withoutStudent(String studentName) {
+        if (!hasStudent(studentName)) {
+            return this;
+        }
+        String[] updated = new String[students.length - 1];
+        int count = 0;
+        for (String student : students) {
+            if (!student.equals(studentName)) {
+                updated[count++] = student;
+            }
+        }
+        return new Course(credits, code, prerequisiteCodes, minCompletedCredits,
+                count == 0 ? NONE : updated, lecturer);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", toRow());
+    }
+}
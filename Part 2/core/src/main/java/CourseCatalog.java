@@ -0,0 +1,250 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * CourseCatalog keeps courses sorted by (credits, code) in a navigable tree, with a hash index from code to
+ * tree key. Adding a course is O(log n), looking one up by code is O(1), and replacing a course whose credits
+ * did not change updates its entry in place, so the catalog never needs a full re-sort.
+ * Duplicate codes (courses.csv may contain the same code twice) are kept in insertion order; lookups by code
+ * return the first one, as a linear search over the file would.
+ */
+public final class CourseCatalog {
+
+    private final NavigableMap<Key, Course> coursesByKey = new TreeMap<>();
+    private final Map<String, Key> keysByCode = new HashMap<>();
+    private long nextSequence;
+
+    /**
+     * Creates an empty catalog.
+     */
+    public CourseCatalog() {
+    }
+
+    /**
+     * Creates a catalog holding the given courses.
+     * @param courses The courses to add, in file order.
+     */
+    public CourseCatalog(Collection<Course> courses) {
+        for (Course course : courses) {
+            add(course);
+        }
+    }
+
+    /**
+     * Adds a course in O(log n).
+     * @param course The course to add.
+     */
+    public void add(Course course) {
+        Key key = new Key(course.getCredits(), course.getCode(), nextSequence++);
+        coursesByKey.put(key, course);
+        keysByCode.putIfAbsent(course.getCode(), key);
+    }
+
+    /**
+     * Replaces every course, as when the courses file was replaced wholesale.
+     * @param courses The new courses, in file order.
+     */
+    public void replaceAll(Collection<Course> courses) {
+        coursesByKey.clear();
+        keysByCode.clear();
+        for (Course course : courses) {
+            add(course);
+        }
+    }
+
+    /**
+     * Looks up a course by code.
+     * @param courseCode The course code.
+     * @return The first course with that code, or null if there is none.
+     */
+    public Course get(String courseCode) {
+        Key key = keysByCode.get(courseCode);
+        return key == null ? null : coursesByKey.get(key);
+    }
+
+    /**
+     * @param courseCode The course code.
+     * @return True if a course with that code exists.
+     */
+    public boolean contains(String courseCode) {
+        return keysByCode.containsKey(courseCode);
+    }
+
+    /**
+     * Replaces a course with an updated version of itself. If the credits are unchanged the entry is updated
+     * in place; otherwise it is moved to its new position.
+     * @param courseCode The code of the course to update.
+     * @param update The function producing the updated course.
+     * @return The updated course, or null if there is no such course.
+     */
+    public Course update(String courseCode, UnaryOperator<Course> update) {
+        Key key = keysByCode.get(courseCode);
+        if (key == null) {
+            return null;
+        }
+        Course current = coursesByKey.get(key);
+        Course updated = update.apply(current);
+        if (updated == current) {
+            return current;
+        }
+        if (updated.getCredits() == key.credits && updated.getCode().equals(key.code)) {
+            coursesByKey.put(key, updated);
+        } else {
+            coursesByKey.remove(key);
+            keysByCode.remove(courseCode);
+            add(updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Applies a published change to the catalog.
+     * @param event The change to apply.
+     * @return True if the catalog changed.
+     */
+    public boolean apply(DataChangeEvent event) {
+        switch (event.getType()) {
+            case COURSE_ADDED:
+                if (contains(event.getCourseCode())) {
+                    return false;
+                }
+                add(event.getCourse());
+                return true;
+            case LECTURER_ASSIGNED:
+            case ENROLLED:
+            case DROPPED:
+                Course current = get(event.getCourseCode());
+                return current != null && update(event.getCourseCode(), event::applyTo) != current;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the courses whose credits lie in a range, in catalog order. The result is a live view, so
+     * no courses are copied.
+     * @param minCredits The lowest credit count, inclusive.
+     * @param maxCredits The highest credit count, inclusive.
+     * @return The matching courses.
+     */
+    public Collection<Course> inCreditRange(int minCredits, int maxCredits) {
+        Key from = new Key(minCredits, "", Long.MIN_VALUE);
+        Key to = new Key(maxCredits, null, Long.MAX_VALUE);
+        return Collections.unmodifiableCollection(coursesByKey.subMap(from, true, to, true).values());
+    }
+
+    /**
+     * @return All courses sorted by credits and then code, as a read-only live view.
+     */
+    public Collection<Course> courses() {
+        return Collections.unmodifiableCollection(coursesByKey.values());
+    }
+
+    /**
+     * @return A copy of all courses sorted by credits and then code.
+     */
+    public List<Course> toList() {
+        return new ArrayList<>(coursesByKey.values());
+    }
+
+    /**
+     * @return The number of courses, counting duplicates.
+     */
+    public int size() {
+        return coursesByKey.size();
+    }
+
+    /**
+     * Lists the changes that bring this catalog up to another version of it: courses added, lecturers
+     * assigned, enrollments and drops. Courses the other version lacks are not listed, since no change
+     * removes a course.
+     * @param source The component the changes are reported as coming from.
+     * @param newer The courses of the other version.
+     * @return The changes, in the other version's order.
+     */
+    public List<DataChangeEvent> changesTo(Object source, Collection<Course> newer) {
+        List<DataChangeEvent> changes = new ArrayList<>();
+        Map<String, Course> seen = new HashMap<>();
+        for (Course course : newer) {
+            String code = course.getCode();
+            if (seen.putIfAbsent(code, course) != null) {
+                continue; // Only the first course with a code is looked up, here as in the catalog
+            }
+            Course oldCourse = get(code);
+            if (oldCourse == null) {
+                changes.add(DataChangeEvent.courseAdded(source, course));
+                continue;
+            }
+            if (!course.getLecturer().equals(oldCourse.getLecturer())) {
+                changes.add(DataChangeEvent.lecturerAssigned(source, code, course.getLecturer()));
+            }
+            for (String student : course.getStudents()) {
+                if (!oldCourse.hasStudent(student)) {
+                    changes.add(DataChangeEvent.enrolled(source, code, student));
+                }
+            }
+            for (String student : oldCourse.getStudents()) {
+                if (!course.hasStudent(student)) {
+                    changes.add(DataChangeEvent.dropped(source, code, student));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Compares two course codes by their position in the catalog. Both codes must be present.
+     * @param firstCode The first course code.
+     * @param secondCode The second course code.
+     * @return A negative number, zero or a positive number as the first course sorts before, with or after
+     *         the second.
+     */
+    public int compareCodes(String firstCode, String secondCode) {
+        return keysByCode.get(firstCode).compareTo(keysByCode.get(secondCode));
+    }
+
+    /**
+     * Key orders courses by credits, then code, then insertion order. A null code sorts after every code
+     * and is only used for range bounds.
+     */
+    private static final class Key implements Comparable<Key> {
+
+        private final int credits;
+        private final String code;
+        private final long sequence;
+
+        Key(int credits, String code, long sequence) {
+            this.credits = credits;
+            this.code = code;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int result = Integer.compare(credits, other.credits);
+            if (result != 0) {
+                return result;
+            }
+            if (code != other.code) {
+                if (code == null) {
+                    return 1;
+                }
+                if (other.code == null) {
+                    return -1;
+                }
+                result = code.compareTo(other.code);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
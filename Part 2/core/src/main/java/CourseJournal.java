@@ -0,0 +1,154 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * CourseJournal is the append-only log of every change committed to a courses file. Each line records the
+ * version stamp of the commit that made the change, the kind of change and its details, separated by tabs.
+ * Together with a backup snapshot it allows the catalog to be rebuilt as it was at any later version.
+ * A restore is recorded as a marker line, because changes before it no longer apply to the data after it.
+ */
+public final class CourseJournal {
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String RESTORED = "RESTORED";
+    private static final String SEPARATOR = "\t";
+
+    private CourseJournal() {
+    }
+
+    /**
+     * Appends the changes of one commit. Must be called while holding the courses file lock.
+     * @param filename The courses CSV file the changes were committed to.
+     * @param version The version stamp of the commit.
+     * @param changes The changes that took effect, in order.
+     * @throws IOException If the journal cannot be written.
+     */
+    public static void append(String filename, long version, Collection<DataChangeEvent> changes)
+            throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (DataChangeEvent change : changes) {
+            String details = change.getType() == DataChangeEvent.Type.COURSE_ADDED
+                    ? String.join(",", change.getCourse().toRow())
+                    : change.getName();
+            lines.add(version + SEPARATOR + change.getType() + SEPARATOR + change.getCourseCode() + SEPARATOR
+                    + details);
+        }
+        appendLines(filename, lines);
+    }
+
+    /**
+     * Records that the courses file was restored from a backup at a version.
+     * @param filename The courses CSV file.
+     * @param version The version stamp given to the restored file.
+     * @throws IOException If the journal cannot be written.
+     */
+    public static void markRestored(String filename, long version) throws IOException {
+        appendLines(filename, List.of(version + SEPARATOR + RESTORED));
+    }
+
+    /**
+     * Reads the changes committed after one version up to and including another.
+     * @param filename The courses CSV file.
+     * @param afterVersion Changes at this version or earlier are skipped.
+     * @param toVersion Changes after this version are skipped.
+     * @return The changes in commit order.
+     * @throws IOException If the journal cannot be read.
+     * @throws IllegalArgumentException If the file was restored within the range, so the changes cannot be
+     *         replayed onto the state at afterVersion.
+     */
+    public static List<DataChangeEvent> read(String filename, long afterVersion, long toVersion)
+            throws IOException {
+        List<DataChangeEvent> changes = new ArrayList<>();
+        Path journal = journalPath(filename);
+        if (!Files.exists(journal)) {
+            return changes;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journal, Charset.defaultCharset())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(SEPARATOR, 4);
+                long version;
+                try {
+                    version = Long.parseLong(fields[0]);
+                } catch (NumberFormatException e) {
+                    continue; // Torn line from a crash during an append
+                }
+                if (version <= afterVersion || version > toVersion) {
+                    continue;
+                }
+                if (fields.length == 2 && RESTORED.equals(fields[1])) {
+                    throw new IllegalArgumentException("Courses were restored at version " + version
+                            + "; use a backup taken after that");
+                }
+                DataChangeEvent change = parseChange(fields);
+                if (change != null) {
+                    changes.add(change);
+                }
+            }
+        }
+        return changes;
+    }
+
+    private static DataChangeEvent parseChange(String[] fields) {
+        if (fields.length < 4) {
+            return null;
+        }
+        try {
+            switch (DataChangeEvent.Type.valueOf(fields[1])) {
+                case COURSE_ADDED:
+                    return DataChangeEvent.courseAdded(CourseJournal.class, Course.fromRow(fields[3].split(",")));
+                case LECTURER_ASSIGNED:
+                    return DataChangeEvent.lecturerAssigned(CourseJournal.class, fields[2], fields[3]);
+                case ENROLLED:
+                    return DataChangeEvent.enrolled(CourseJournal.class, fields[2], fields[3]);
+                case DROPPED:
+                    return DataChangeEvent.dropped(CourseJournal.class, fields[2], fields[3]);
+                default:
+                    return null;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Skipping malformed journal line: " + String.join(SEPARATOR, fields));
+            return null;
+        }
+    }
+
+    private static void appendLines(String filename, List<String> lines) throws IOException {
+        FlightEvents.JournalWrite event = new FlightEvents.JournalWrite();
+        event.begin();
+        try (FileChannel channel = FileChannel.open(journalPath(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long sizeBefore = channel.size();
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                    Charset.defaultCharset()));
+            for (String line : lines) {
+                writer.write(line);
+                writer.write("\n");
+            }
+            writer.flush();
+            channel.force(false);
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = journalPath(filename).toString();
+                event.lines = lines.size();
+                event.bytes = channel.size() - sizeBefore;
+                event.commit();
+            }
+        }
+    }
+
+    private static Path journalPath(String filename) {
+        return Paths.get(filename + JOURNAL_SUFFIX);
+    }
+}
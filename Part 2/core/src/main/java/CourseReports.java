@@ -0,0 +1,82 @@
+/**
+ * CourseReports formats the student and lecturer reports shown by the admin portal. Every report is built from
+ * one pinned {@link CatalogSnapshot}, so enrollments made while it runs do not appear half-way through.
+ */
+public final class CourseReports {
+
+    private static final Metrics.Histogram VIEW_ALL = Metrics.getInstance().histogram("admin.viewAllCourses");
+    private static final Metrics.Histogram VIEW_COURSE = Metrics.getInstance().histogram("admin.viewCourse");
+
+    private CourseReports() {
+    }
+
+    /**
+     * Describes the students and lecturer of every course.
+     * @param snapshot The catalog version to report on.
+     * @return The report.
+     */
+    public static String viewAllCourses(CatalogSnapshot snapshot) {
+        long start = System.nanoTime();
+        StringBuilder output = new StringBuilder("Output for viewing all courses (version ")
+                .append(snapshot.getVersion()).append(")\n");
+
+        for (Course course : snapshot.courses()) {
+            appendCourseDetails(output, course.getCode(), course);
+
+            // Separate each course output
+            output.append("\n");
+        }
+
+        VIEW_ALL.recordSince(start);
+        return output.toString();
+    }
+
+    /**
+     * Describes the students and lecturer of one course.
+     * @param snapshot The catalog version to report on.
+     * @param courseName The code of the course, in any case.
+     * @return The report, or "Course not found." if there is no such course.
+     */
+    public static String viewCourse(CatalogSnapshot snapshot, String courseName) {
+        long start = System.nanoTime();
+        try {
+            return findCourse(snapshot, courseName);
+        } finally {
+            VIEW_COURSE.recordSince(start);
+        }
+    }
+
+    private static String findCourse(CatalogSnapshot snapshot, String courseName) {
+        for (Course course : snapshot.courses()) {
+            if (course.getCode().equalsIgnoreCase(courseName)) {
+                StringBuilder output = new StringBuilder();
+                appendCourseDetails(output, courseName, course);
+                return output.toString();
+            }
+        }
+
+        return "Course not found.";
+    }
+
+    private static void appendCourseDetails(StringBuilder output, String courseName, Course course) {
+        output.append("Students and Lecturer for ").append(courseName).append(":\n");
+
+        // Display students
+        if (course.getStudentCount() > 0) {
+            output.append("Students:\n");
+            for (String studentName : course.getStudents()) {
+                output.append("- ").append(studentName).append("\n");
+            }
+        } else {
+            output.append("No students in ").append(courseName).append(".\n");
+        }
+
+        // Display lecturer
+        if (course.hasLecturer()) {
+            String lecturerList = course.getLecturer().replace(";", ",");
+            output.append("Lecturer(s): ").append(lecturerList).append("\n");
+        } else {
+            output.append("No assigned lecturer for ").append(courseName).append(".\n");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * DataChangeBus is an in-process publish/subscribe channel for {@link DataChangeEvent}s.
+ * Every window that edits courses.csv or database.csv publishes what it changed, and every
+ * open window subscribes so it can apply the delta to its own data without reloading files.
+ * Events are delivered synchronously on the publishing thread; JavaFX subscribers hand them
+ * over to the FX thread themselves.
+ */
+public final class DataChangeBus {
+
+    private static final DataChangeBus INSTANCE = new DataChangeBus();
+
+    // Subscribers are added and removed rarely but notified on every change
+    private final List<Consumer<DataChangeEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    private DataChangeBus() {
+    }
+
+    /**
+     * Returns the bus shared by every window in this process.
+     * @return The shared DataChangeBus.
+     */
+    public static DataChangeBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a subscriber that is notified of every published event.
+     * @param subscriber The callback to invoke for each event.
+     */
+    public void subscribe(Consumer<DataChangeEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Removes a previously registered subscriber, typically when its window closes.
+     * @param subscriber The callback to remove.
+     */
+    public void unsubscribe(Consumer<DataChangeEvent> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Publishes an event to all subscribers. A failing subscriber does not prevent the
+     * others from being notified.
+     * @param event The event to publish.
+     */
+    public void publish(DataChangeEvent event) {
+        for (Consumer<DataChangeEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
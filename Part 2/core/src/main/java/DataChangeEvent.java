@@ -0,0 +1,186 @@
+import java.util.List;
+
+/**
+ * DataChangeEvent describes a single mutation of the shared course or user data, such as a course being added
+ * or a student enrolling. Events are published on the {@link DataChangeBus} so that every open window can apply
+ * the same delta to its own copy of the data instead of reloading the CSV files. After the files are replaced
+ * wholesale, as by a restore, a single RELOADED event tells windows to refresh everything they show.
+ */
+public final class DataChangeEvent {
+
+    /**
+     * Enum representing the different kinds of mutations.
+     */
+    public enum Type {
+        COURSE_ADDED,
+        LECTURER_ASSIGNED,
+        ENROLLED,
+        DROPPED,
+        USER_CREATED,
+        RELOADED
+    }
+
+    private final Type type;
+    private final Object source;
+    private final String courseCode;
+    private final String name;
+    private final Course course;
+    private final Account account;
+
+    private DataChangeEvent(Type type, Object source, String courseCode, String name, Course course,
+            Account account) {
+        this.type = type;
+        this.source = source;
+        this.courseCode = courseCode;
+        this.name = name;
+        this.course = course;
+        this.account = account;
+    }
+
+    /**
+     * Creates an event for a newly added course.
+     * @param source The window or component that made the change.
+     * @param course The added course.
+     * @return The new event.
+     */
+    public static DataChangeEvent courseAdded(Object source, Course course) {
+        return new DataChangeEvent(Type.COURSE_ADDED, source, course.getCode(), null, course, null);
+    }
+
+    /**
+     * Creates an event for a lecturer being assigned to a course.
+     * @param source The window or component that made the change.
+     * @param courseCode The code of the course.
+     * @param lecturerName The name of the assigned lecturer.
+     * @return The new event.
+     */
+    public static DataChangeEvent lecturerAssigned(Object source, String courseCode, String lecturerName) {
+        return new DataChangeEvent(Type.LECTURER_ASSIGNED, source, courseCode, lecturerName, null, null);
+    }
+
+    /**
+     * Creates an event for a student enrolling in a course.
+     * @param source The window or component that made the change.
+     * @param courseCode The code of the course.
+     * @param studentName The name of the student.
+     * @return The new event.
+     */
+    public static DataChangeEvent enrolled(Object source, String courseCode, String studentName) {
+        return new DataChangeEvent(Type.ENROLLED, source, courseCode, studentName, null, null);
+    }
+
+    /**
+     * Creates an event for a student dropping a course.
+     * @param source The window or component that made the change.
+     * @param courseCode The code of the course.
+     * @param studentName The name of the student.
+     * @return The new event.
+     */
+    public static DataChangeEvent dropped(Object source, String courseCode, String studentName) {
+        return new DataChangeEvent(Type.DROPPED, source, courseCode, studentName, null, null);
+    }
+
+    /**
+     * Creates an event for a newly created user account.
+     * @param source The window or component that made the change.
+     * @param account The created account.
+     * @return The new event.
+     */
+    public static DataChangeEvent userCreated(Object source, Account account) {
+        return new DataChangeEvent(Type.USER_CREATED, source, null, account.getUsername(), null, account);
+    }
+
+    /**
+     * Creates an event for the shared data having been reloaded from the data files.
+     * @param source The window or component that reloaded it.
+     * @return The new event.
+     */
+    public static DataChangeEvent reloaded(Object source) {
+        return new DataChangeEvent(Type.RELOADED, source, null, null, null, null);
+    }
+
+    /**
+     * @return The kind of mutation.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The window or component that made the change, used by subscribers to skip their own events.
+     */
+    public Object getSource() {
+        return source;
+    }
+
+    /**
+     * @return The affected course code, or null for user and reload events.
+     */
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    /**
+     * @return The lecturer, student or user name involved in the change, or null for course additions.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The added course for COURSE_ADDED events, or null otherwise.
+     */
+    public Course getCourse() {
+        return course;
+    }
+
+    /**
+     * @return The created account for USER_CREATED events, or null otherwise.
+     */
+    public Account getAccount() {
+        return account;
+    }
+
+    /**
+     * Applies this event to a course. Applying the same event twice leaves the course unchanged,
+     * so events echoed back to their origin are harmless.
+     * @param target The course to update; must have this event's course code.
+     * @return The updated course, or target itself if nothing changed.
+     */
+    public Course applyTo(Course target) {
+        switch (type) {
+            case LECTURER_ASSIGNED:
+                return name.equals(target.getLecturer()) ? target : target.withLecturer(name);
+            case ENROLLED:
+                return target.withStudent(name);
+            case DROPPED:
+                return target.withoutStudent(name);
+            default:
+                return target;
+        }
+    }
+
+    /**
+     * Applies a USER_CREATED event to a list of accounts. Accounts whose username is already
+     * present are not added again.
+     * @param accounts The accounts to update in place.
+     * @return True if the account was added, false otherwise.
+     */
+    public boolean applyToAccounts(List<Account> accounts) {
+        if (type != Type.USER_CREATED) {
+            return false;
+        }
+        for (Account existing : accounts) {
+            if (existing.getUsername().equals(name)) {
+                return false;
+            }
+        }
+        accounts.add(account);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return type + (courseCode != null ? " " + courseCode : "") + (name != null ? " " + name : "");
+    }
+}
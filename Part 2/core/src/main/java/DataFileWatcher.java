@@ -0,0 +1,341 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * DataFileWatcher watches the data directory for external edits to courses.csv and database.csv
+ * and publishes the differences on the {@link DataChangeBus}, so open windows pick up changes made
+ * by scripts without being reopened.
+ * When a file only grew, just the appended bytes are read and parsed. Any other change is re-read
+ * and diffed row by row against the last known contents.
+ * It also watches schedule.csv and hands the whole schedule to a listener whenever it changes.
+ */
+public final class DataFileWatcher implements AutoCloseable {
+
+    // Number of bytes before the old end of file used to confirm that a change was a pure append
+    private static final int TAIL_CHECK_BYTES = 64;
+    // Quiet period used to coalesce the bursts of events produced by a single save
+    private static final long SETTLE_MILLIS = 50;
+
+    private final Path directory;
+    private final WatchService watchService;
+    private final Map<String, TrackedFile> trackedFiles = new LinkedHashMap<>();
+    private final Consumer<RegistrationSchedule> scheduleListener;
+    private final Thread thread;
+
+    private DataFileWatcher(Path directory, Consumer<RegistrationSchedule> scheduleListener) throws IOException {
+        this.directory = directory;
+        this.scheduleListener = scheduleListener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        trackedFiles.put(DataFiles.COURSES_FILE, new TrackedFile(directory.resolve(DataFiles.COURSES_FILE), true));
+        trackedFiles.put(DataFiles.DATABASE_FILE, new TrackedFile(directory.resolve(DataFiles.DATABASE_FILE), false));
+        for (TrackedFile trackedFile : trackedFiles.values()) {
+            trackedFile.reload();
+        }
+        // Deletions matter for schedule.csv, whose removal opens registration to everyone
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::watchLoop, "data-file-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching the data files in the given directory on a background daemon thread.
+     * @param directory The directory containing courses.csv and database.csv.
+     * @return The running watcher; close it to stop watching.
+     * @throws IOException If the directory cannot be watched or the files cannot be read.
+     */
+    public static DataFileWatcher start(Path directory) throws IOException {
+        return start(directory, schedule -> { });
+    }
+
+    /**
+     * Starts watching the data files in the given directory on a background daemon thread.
+     * @param directory The directory containing courses.csv, database.csv and schedule.csv.
+     * @param scheduleListener Given the reloaded schedule on the watcher thread whenever schedule.csv changes.
+     * @return The running watcher; close it to stop watching.
+     * @throws IOException If the directory cannot be watched or the files cannot be read.
+     */
+    public static DataFileWatcher start(Path directory, Consumer<RegistrationSchedule> scheduleListener)
+            throws IOException {
+        DataFileWatcher watcher = new DataFileWatcher(directory, scheduleListener);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    /**
+     * Stops watching the data directory.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Waits for file system events and refreshes the affected files until the watcher is closed.
+     */
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<String> changedFiles = new LinkedHashSet<>();
+                collectChangedFiles(key, changedFiles);
+
+                // A save usually arrives as several events; wait until the directory is quiet
+                WatchKey nextKey;
+                while ((nextKey = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collectChangedFiles(nextKey, changedFiles);
+                }
+
+                for (String fileName : changedFiles) {
+                    try {
+                        if (DataFiles.SCHEDULE_FILE.equals(fileName)) {
+                            scheduleListener.accept(
+                                    DataFiles.loadSchedule(directory.resolve(DataFiles.SCHEDULE_FILE).toString()));
+                        } else {
+                            trackedFiles.get(fileName).refresh();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher closed
+        }
+    }
+
+    private void collectChangedFiles(WatchKey key, Set<String> changedFiles) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changedFiles.addAll(trackedFiles.keySet());
+                changedFiles.add(DataFiles.SCHEDULE_FILE);
+                continue;
+            }
+            String fileName = ((Path) event.context()).toString();
+            if (trackedFiles.containsKey(fileName) || DataFiles.SCHEDULE_FILE.equals(fileName)) {
+                changedFiles.add(fileName);
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * TrackedFile remembers what was last seen in one data file: its length, the bytes just before its end
+     * and its parsed contents, keyed by course code or username.
+     */
+    private final class TrackedFile {
+
+        private final Path path;
+        private final boolean courses;
+        private long length;
+        private byte[] tail = new byte[0];
+        private Map<String, Course> coursesByCode = new LinkedHashMap<>();
+        private Set<String> usernames = new LinkedHashSet<>();
+
+        TrackedFile(Path path, boolean courses) {
+            this.path = path;
+            this.courses = courses;
+        }
+
+        /**
+         * Reads the whole file and replaces the remembered contents.
+         * @return The complete lines that were read.
+         * @throws IOException If the file cannot be read.
+         */
+        List<String> reload() throws IOException {
+            FlightEvents.CatalogReload event = new FlightEvents.CatalogReload();
+            event.begin();
+            List<String> lines = new ArrayList<>();
+            length = 0;
+            tail = new byte[0];
+            if (Files.exists(path)) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // keep reading until the buffer is full or the file ends
+                    }
+                    length = parseLines(buffer.array(), buffer.position(), lines);
+                    tail = readTail(channel, length);
+                }
+            }
+            coursesByCode = new LinkedHashMap<>();
+            usernames = new LinkedHashSet<>();
+            for (String line : lines) {
+                remember(line);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = path.toString();
+                event.lines = lines.size();
+                event.bytes = length;
+                event.commit();
+            }
+            return lines;
+        }
+
+        /**
+         * Brings the remembered contents up to date with the file and publishes the differences.
+         * @throws IOException If the file cannot be read.
+         */
+        void refresh() throws IOException {
+            if (!Files.exists(path)) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > length && Arrays.equals(tail, readTail(channel, length))) {
+                    readAppended(channel, size);
+                    return;
+                }
+            }
+
+            if (courses) {
+                Map<String, Course> oldCourses = coursesByCode;
+                reload();
+                diffCourses(oldCourses, coursesByCode);
+            } else {
+                Set<String> oldUsernames = usernames;
+                for (String line : reload()) {
+                    Account account = DataFiles.parseAccountLine(line);
+                    if (account != null && !oldUsernames.contains(account.getUsername())) {
+                        publish(DataChangeEvent.userCreated(DataFileWatcher.this, account));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Parses only the bytes appended since the last refresh.
+         */
+        private void readAppended(FileChannel channel, long size) throws IOException {
+            FlightEvents.CatalogReload event = new FlightEvents.CatalogReload();
+            event.begin();
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - length));
+            long position = length;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+
+            List<String> appended = new ArrayList<>();
+            long consumed = parseLines(buffer.array(), buffer.position(), appended);
+            if (consumed == 0) {
+                return; // Only a partial line so far
+            }
+            length += consumed;
+            tail = readTail(channel, length);
+
+            for (String line : appended) {
+                Object parsed = remember(line);
+                if (parsed instanceof Course) {
+                    publish(DataChangeEvent.courseAdded(DataFileWatcher.this, (Course) parsed));
+                } else if (parsed instanceof Account) {
+                    publish(DataChangeEvent.userCreated(DataFileWatcher.this, (Account) parsed));
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = path.toString();
+                event.lines = appended.size();
+                event.bytes = consumed;
+                event.incremental = true;
+                event.commit();
+            }
+        }
+
+        /**
+         * Parses a line and records it as seen.
+         * @return The newly seen Course or Account, or null if the line is malformed or already known.
+         */
+        private Object remember(String line) {
+            if (courses) {
+                Course course = DataFiles.parseCourseLine(line);
+                if (course != null && coursesByCode.putIfAbsent(course.getCode(), course) == null) {
+                    return course;
+                }
+            } else {
+                Account account = DataFiles.parseAccountLine(line);
+                if (account != null && usernames.add(account.getUsername())) {
+                    return account;
+                }
+            }
+            return null;
+        }
+
+        private byte[] readTail(FileChannel channel, long end) throws IOException {
+            int tailLength = (int) Math.min(TAIL_CHECK_BYTES, end);
+            ByteBuffer buffer = ByteBuffer.allocate(tailLength);
+            long position = end - tailLength;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+
+    /**
+     * Splits complete lines out of a byte range. A trailing line without a line break is left
+     * unconsumed so it can be read once the writer finishes it.
+     * @param bytes The bytes to split.
+     * @param count The number of valid bytes.
+     * @param lines The list receiving the non-empty lines.
+     * @return The number of bytes consumed.
+     */
+    private static long parseLines(byte[] bytes, int count, List<String> lines) {
+        int lineStart = 0;
+        for (int i = 0; i < count; i++) {
+            if (bytes[i] == '\n') {
+                int lineEnd = i > lineStart && bytes[i - 1] == '\r' ? i - 1 : i;
+                if (lineEnd > lineStart) {
+                    lines.add(new String(bytes, lineStart, lineEnd - lineStart, Charset.defaultCharset()));
+                }
+                lineStart = i + 1;
+            }
+        }
+        return lineStart;
+    }
+
+    /**
+     * Publishes course additions, lecturer assignments, enrollments and drops between two versions of courses.csv.
+     */
+    private void diffCourses(Map<String, Course> oldCourses, Map<String, Course> newCourses) {
+        for (DataChangeEvent change : new CourseCatalog(oldCourses.values()).changesTo(this, newCourses.values())) {
+            publish(change);
+        }
+    }
+
+    private static void publish(DataChangeEvent event) {
+        DataChangeBus.getInstance().publish(event);
+    }
+}
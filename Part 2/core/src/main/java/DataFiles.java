@@ -0,0 +1,363 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * DataFiles reads and writes the CSV data files, converting between their rows and the {@link Course},
+ * {@link Account} and {@link RegistrationSchedule} model. Every module goes through these methods instead of
+ * splitting lines itself. Every writer ends lines with \n on every platform; readers also accept \r\n.
+ * Writes are durable: the catalog is written to a temporary file, forced to disk and renamed over the old
+ * file in one atomic step, and account appends are forced before they return. A crash therefore leaves
+ * either the old or the new contents, never a truncated file, and {@link #recover(String, Predicate)} cleans
+ * up after it.
+ */
+public final class DataFiles {
+
+    /** Default location of the course catalog. */
+    public static final String COURSES_FILE = "courses.csv";
+    /** Default location of the user accounts. */
+    public static final String DATABASE_FILE = "database.csv";
+    /** Default location of the registration windows. */
+    public static final String SCHEDULE_FILE = "schedule.csv";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Appends and rewrites of the accounts file within this process take turns
+    private static final Object ACCOUNTS_LOCK = new Object();
+
+    private static final Metrics.Histogram LOAD_COURSES = Metrics.getInstance().histogram("file.loadCourses");
+    private static final Metrics.Histogram SAVE_COURSES = Metrics.getInstance().histogram("file.saveCourses");
+    private static final Metrics.Histogram LOAD_ACCOUNTS = Metrics.getInstance().histogram("file.loadAccounts");
+    private static final Metrics.Histogram APPEND_ACCOUNTS = Metrics.getInstance().histogram("file.appendAccounts");
+
+    private DataFiles() {
+    }
+
+    /**
+     * Loads the course catalog, skipping the header row. Malformed rows are reported and skipped.
+     * @param filename The CSV file to read.
+     * @return The courses in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<Course> loadCourses(String filename) throws IOException {
+        long start = System.nanoTime();
+        List<Course> courses = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Course course = parseCourseLine(line);
+                if (course != null) {
+                    courses.add(course);
+                }
+            }
+        }
+        LOAD_COURSES.recordSince(start);
+        return courses;
+    }
+
+    /**
+     * Parses one line of courses.csv.
+     * @param line The line to parse.
+     * @return The course, or null for the header, blank lines and malformed rows.
+     */
+    public static Course parseCourseLine(String line) {
+        if (line.isEmpty()) {
+            return null;
+        }
+        String[] row = line.split(",");
+        if (row.length > 1 && Course.CSV_HEADER[1].equals(row[1])) {
+            return null;
+        }
+        try {
+            return Course.fromRow(row);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Skipping malformed course row: " + line + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Writes the course catalog, header row first. The rows go to a temporary file that is forced to disk
+     * and then atomically renamed over the old file, so readers and crashes never see a partial catalog.
+     * @param filename The CSV file to write.
+     * @param courses The courses to write, in the order they should appear.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void saveCourses(String filename, List<Course> courses) throws IOException {
+        long start = System.nanoTime();
+        List<String[]> rows = new ArrayList<>(courses.size() + 1);
+        rows.add(Course.CSV_HEADER);
+        for (Course course : courses) {
+            rows.add(course.toRow());
+        }
+        writeAtomically(filename, rows);
+        SAVE_COURSES.recordSince(start);
+    }
+
+    /**
+     * Repairs a data file after a crash. A leftover temporary file belongs to a save that never reached its
+     * rename, so the data file still holds the last complete save and the temporary file is discarded. An
+     * unterminated last line is what a crash in the middle of an append leaves behind: it is cut off unless
+     * it still parses as a complete row, as it does when the file was edited by hand, in which case the
+     * missing line break is added.
+     * @param filename The CSV file to check.
+     * @param isCompleteRow Tells whether a line parses as a complete row of this file.
+     * @return True if anything had to be repaired.
+     * @throws IOException If the file cannot be repaired.
+     */
+    public static boolean recover(String filename, Predicate<String> isCompleteRow) throws IOException {
+        boolean repaired = Files.deleteIfExists(Paths.get(filename + TEMP_SUFFIX));
+        Path path = Paths.get(filename);
+        if (!Files.exists(path)) {
+            return repaired;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            long position = end;
+            while (position > 0) {
+                buffer.clear();
+                channel.read(buffer, position - 1);
+                if (buffer.get(0) == '\n') {
+                    break;
+                }
+                position--;
+            }
+            if (position == end) {
+                return repaired;
+            }
+
+            ByteBuffer tail = ByteBuffer.allocate((int) (end - position));
+            while (tail.hasRemaining() && channel.read(tail, position + tail.position()) > 0) {
+                // Read the whole unterminated line
+            }
+            String lastLine = new String(tail.array(), Charset.defaultCharset()).trim();
+            if (isCompleteRow.test(lastLine)) {
+                channel.write(ByteBuffer.wrap("\n".getBytes(Charset.defaultCharset())), end);
+            } else {
+                System.err.println("Removing incomplete last line of " + filename + ": " + lastLine);
+                channel.truncate(position);
+            }
+            channel.force(true);
+        }
+        return true;
+    }
+
+    /**
+     * Loads all user accounts. Malformed rows are reported and skipped.
+     * @param filename The CSV file to read.
+     * @return The accounts in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<Account> loadAccounts(String filename) throws IOException {
+        long start = System.nanoTime();
+        List<Account> accounts = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Account account = parseAccountLine(line);
+                if (account != null) {
+                    accounts.add(account);
+                }
+            }
+        }
+        LOAD_ACCOUNTS.recordSince(start);
+        return accounts;
+    }
+
+    /**
+     * Parses one line of database.csv.
+     * @param line The line to parse.
+     * @return The account, or null for blank lines and malformed rows.
+     */
+    public static Account parseAccountLine(String line) {
+        if (line.isEmpty()) {
+            return null;
+        }
+        try {
+            return Account.fromRow(line.split(","));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Skipping malformed account row: " + line + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Appends accounts to the end of the accounts file with a single open, flush and fsync.
+     * @param filename The CSV file to append to.
+     * @param accounts The accounts to append.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void appendAccounts(String filename, Collection<Account> accounts) throws IOException {
+        long start = System.nanoTime();
+        synchronized (ACCOUNTS_LOCK) {
+            appendAccountRows(filename, accounts);
+        }
+        APPEND_ACCOUNTS.recordSince(start);
+    }
+
+    private static void appendAccountRows(String filename, Collection<Account> accounts) throws IOException {
+        FlightEvents.CsvWrite event = new FlightEvents.CsvWrite();
+        event.begin();
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long sizeBefore = channel.size();
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                    Charset.defaultCharset()));
+            for (Account account : accounts) {
+                writer.write(String.join(",", account.toRow()));
+                writer.write("\n");
+            }
+            writer.flush();
+            channel.force(true);
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = filename;
+                event.rows = accounts.size();
+                event.bytes = channel.size() - sizeBefore;
+                event.append = true;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Rewrites the accounts file, replacing some accounts. The latest file contents are read first, so
+     * accounts appended since the caller loaded the file are kept; the result is written atomically.
+     * @param filename The CSV file to rewrite.
+     * @param update Returns the replacement for an account, or the account itself to keep it.
+     * @return The number of accounts replaced.
+     * @throws IOException If the file cannot be read or written.
+     */
+    public static int rewriteAccounts(String filename, UnaryOperator<Account> update) throws IOException {
+        synchronized (ACCOUNTS_LOCK) {
+            List<String[]> rows = new ArrayList<>();
+            int replaced = 0;
+            try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Account account = parseAccountLine(line);
+                    if (account == null) {
+                        if (!line.isEmpty()) {
+                            rows.add(new String[] { line }); // Keep rows we cannot parse as they are
+                        }
+                        continue;
+                    }
+                    Account updated = update.apply(account);
+                    if (updated != account) {
+                        replaced++;
+                    }
+                    rows.add(updated.toRow());
+                }
+            }
+            if (replaced > 0) {
+                writeAtomically(filename, rows);
+            }
+            return replaced;
+        }
+    }
+
+    /**
+     * Loads the registration windows, skipping the header row. Malformed rows are reported and skipped.
+     * @param filename The CSV file to read.
+     * @return The schedule, or {@link RegistrationSchedule#EMPTY} if the file does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    public static RegistrationSchedule loadSchedule(String filename) throws IOException {
+        if (!Files.exists(Paths.get(filename))) {
+            return RegistrationSchedule.EMPTY;
+        }
+        List<RegistrationSchedule.Slot> slots = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] row = line.split(",");
+                if (line.isEmpty() || RegistrationSchedule.CSV_HEADER[0].equals(row[0])) {
+                    continue;
+                }
+                try {
+                    slots.add(RegistrationSchedule.Slot.fromRow(row));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping malformed schedule row: " + line + " (" + e.getMessage() + ")");
+                }
+            }
+        }
+        return RegistrationSchedule.of(slots);
+    }
+
+    /**
+     * Writes the registration windows, header row first, replacing the file atomically like the catalog.
+     * @param filename The CSV file to write.
+     * @param schedule The schedule to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void saveSchedule(String filename, RegistrationSchedule schedule) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(RegistrationSchedule.CSV_HEADER);
+        for (RegistrationSchedule.Slot slot : schedule.getSlots()) {
+            rows.add(slot.toRow());
+        }
+        writeAtomically(filename, rows);
+    }
+
+    /**
+     * Writes rows to a temporary file, forces it to disk and renames it over the target in one atomic step.
+     */
+    private static void writeAtomically(String filename, List<String[]> rows) throws IOException {
+        FlightEvents.CsvWrite event = new FlightEvents.CsvWrite();
+        event.begin();
+        Path target = Paths.get(filename);
+        Path temp = Paths.get(filename + TEMP_SUFFIX);
+        long bytes;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                    Charset.defaultCharset()));
+            for (String[] row : rows) {
+                writer.write(String.join(",", row));
+                writer.write("\n");
+            }
+            writer.flush();
+            channel.force(true);
+            bytes = channel.size();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(target);
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = filename;
+            event.rows = rows.size();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Forces the directory entry of a renamed file to disk. Not every platform can open a directory,
+     * so failures are ignored; the file contents themselves are already durable.
+     */
+    private static void forceDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on this platform
+        }
+    }
+}
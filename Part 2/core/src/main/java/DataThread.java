@@ -0,0 +1,33 @@
+/**
+ * DataThread is the thread the shared application data is confined to. {@link AppDataContext} applies
+ * published changes on it, so the data never needs a lock. The JavaFX windows use the application thread;
+ * headless tools that use the data from a single thread use {@link #DIRECT}.
+ */
+public interface DataThread {
+
+    /**
+     * Runs everything straight away on the calling thread, for callers that use the data from one thread only.
+     */
+    DataThread DIRECT = new DataThread() {
+        @Override
+        public boolean isCurrent() {
+            return true;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    };
+
+    /**
+     * @return True if the calling thread is the data thread.
+     */
+    boolean isCurrent();
+
+    /**
+     * Runs a task on the data thread later.
+     * @param task The task to run.
+     */
+    void execute(Runnable task);
+}
@@ -0,0 +1,50 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExecutorDataThread confines the shared application data to one background thread, for headless callers that
+ * are themselves multi-threaded. Callers hand work to it with {@link #execute(Runnable)}, or with
+ * {@code CompletableFuture.supplyAsync(task, dataThread::execute)} when they need a result.
+ */
+public final class ExecutorDataThread implements DataThread, AutoCloseable {
+
+    private final ExecutorService executor;
+    private volatile Thread thread;
+
+    /**
+     * Starts the data thread.
+     * @param name The name of the thread.
+     */
+    public ExecutorDataThread(String name) {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread created = new Thread(runnable, name);
+            created.setDaemon(true);
+            thread = created;
+            return created;
+        });
+    }
+
+    @Override
+    public boolean isCurrent() {
+        return Thread.currentThread() == thread;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Runs the tasks already handed over, then stops the thread.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * FlightEvents holds the Java Flight Recorder events of the registration system, so a recording shows which
+ * logins, checkouts and file writes a slow moment was spent on instead of only generic I/O frames. They are
+ * recorded only while a recording is running, for example one started with
+ * -XX:StartFlightRecording:maxage=1h,filename=registration.jfr; otherwise creating and committing an event
+ * costs a check of a flag. Each event times the operation between begin() and commit(), and callers fill in
+ * the fields only when shouldCommit() says the event will be kept.
+ */
+public final class FlightEvents {
+
+    private static final String CATEGORY = "Course Registration";
+
+    private FlightEvents() {
+    }
+
+    /**
+     * A login attempt, from the call to loginAsync until the password check completes.
+     */
+    @Name("group27.Login")
+    @Label("Login")
+    @Category({ CATEGORY, "Authentication" })
+    @Description("A login attempt and how it ended")
+    @StackTrace(false)
+    static final class Login extends Event {
+
+        @Label("Username")
+        String username;
+
+        @Label("Outcome")
+        @Description("succeeded, wrong password, unknown user, blocked or rejected")
+        String outcome;
+
+        @Label("Cached")
+        @Description("Recognised from a recent login without hashing the password")
+        boolean cached;
+    }
+
+    /**
+     * A username running out of failed logins and being locked out.
+     */
+    @Name("group27.Lockout")
+    @Label("Lockout")
+    @Category({ CATEGORY, "Authentication" })
+    @Description("A username reached the limit of failed logins")
+    @StackTrace(false)
+    static final class Lockout extends Event {
+
+        @Label("Username")
+        String username;
+
+        @Label("Failures")
+        int failures;
+
+        @Label("Window Seconds")
+        long windowSeconds;
+    }
+
+    /**
+     * The credit, duplicate and prerequisite checks of one course in a cart.
+     */
+    @Name("group27.CartValidation")
+    @Label("Cart Validation")
+    @Category({ CATEGORY, "Registration" })
+    @Description("The registration rules checked for one course")
+    @StackTrace(false)
+    static final class CartValidation extends Event {
+
+        @Label("Student")
+        String student;
+
+        @Label("Course Code")
+        String courseCode;
+
+        @Label("Refusal")
+        @Description("Why the registration is refused, or empty if it is allowed")
+        String refusal;
+    }
+
+    /**
+     * A student's cart being registered and committed.
+     */
+    @Name("group27.Checkout")
+    @Label("Checkout")
+    @Category({ CATEGORY, "Registration" })
+    @Description("A cart registered course by course")
+    @StackTrace(false)
+    static final class Checkout extends Event {
+
+        @Label("Student")
+        String student;
+
+        @Label("Course Codes")
+        String courseCodes;
+
+        @Label("Saved")
+        int saved;
+
+        @Label("Refused")
+        int refused;
+    }
+
+    /**
+     * A group of commits merged into the courses file under the file lock.
+     */
+    @Name("group27.CourseCommit")
+    @Label("Course Commit")
+    @Category({ CATEGORY, "Persistence" })
+    @Description("Commits merged into the courses file with one write")
+    static final class CourseCommit extends Event {
+
+        @Label("File")
+        String file;
+
+        @Label("Commits")
+        @Description("Commits from this process merged into the write")
+        int commits;
+
+        @Label("Changes")
+        int changes;
+
+        @Label("Version")
+        long version;
+    }
+
+    /**
+     * A data file written, either replaced atomically or appended to.
+     */
+    @Name("group27.CsvWrite")
+    @Label("CSV Write")
+    @Category({ CATEGORY, "Persistence" })
+    @Description("A data file written and forced to disk")
+    static final class CsvWrite extends Event {
+
+        @Label("File")
+        String file;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Append")
+        boolean append;
+    }
+
+    /**
+     * Lines appended to the journal of a courses file.
+     */
+    @Name("group27.JournalWrite")
+    @Label("Journal Write")
+    @Category({ CATEGORY, "Persistence" })
+    @Description("Lines appended to a course journal and forced to disk")
+    static final class JournalWrite extends Event {
+
+        @Label("File")
+        String file;
+
+        @Label("Lines")
+        int lines;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+
+    /**
+     * A data file read again after it changed on disk.
+     */
+    @Name("group27.CatalogReload")
+    @Label("Catalog Reload")
+    @Category({ CATEGORY, "Persistence" })
+    @Description("A watched data file read after a change")
+    @StackTrace(false)
+    static final class CatalogReload extends Event {
+
+        @Label("File")
+        String file;
+
+        @Label("Lines")
+        int lines;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Incremental")
+        @Description("Only the appended bytes were read")
+        boolean incremental;
+    }
+}
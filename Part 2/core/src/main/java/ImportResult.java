@@ -0,0 +1,65 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ImportResult holds the rows of a bulk import that passed validation and a message for every rejected row.
+ * @param <T> The type of record being imported.
+ */
+public final class ImportResult<T> {
+
+    private final List<T> accepted;
+    private final List<String> errors;
+    private final int rowsRead;
+
+    /**
+     * Creates a result.
+     * @param accepted The valid records, in file order.
+     * @param errors One message per rejected row.
+     * @param rowsRead The number of data rows read.
+     */
+    public ImportResult(List<T> accepted, List<String> errors, int rowsRead) {
+        this.accepted = Collections.unmodifiableList(accepted);
+        this.errors = Collections.unmodifiableList(errors);
+        this.rowsRead = rowsRead;
+    }
+
+    /**
+     * @return The valid records, in file order.
+     */
+    public List<T> getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return One message per rejected row, prefixed with its line number.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return The number of data rows read, excluding headers and blank lines.
+     */
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Formats a short report for display.
+     * @param maxErrors The maximum number of error lines to include.
+     * @return The report text.
+     */
+    public String summary(int maxErrors) {
+        StringBuilder report = new StringBuilder();
+        report.append("Rows read: ").append(rowsRead).append('\n');
+        report.append("Imported: ").append(accepted.size()).append('\n');
+        report.append("Rejected: ").append(errors.size()).append('\n');
+        for (int i = 0; i < errors.size() && i < maxErrors; i++) {
+            report.append(errors.get(i)).append('\n');
+        }
+        if (errors.size() > maxErrors) {
+            report.append("... and ").append(errors.size() - maxErrors).append(" more\n");
+        }
+        return report.toString();
+    }
+}
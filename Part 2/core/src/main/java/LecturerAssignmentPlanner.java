@@ -0,0 +1,286 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * LecturerAssignmentPlanner proposes lecturers for unassigned courses so that the heaviest load across all
+ * lecturers stays as small as possible. It uses the longest-processing-time rule: courses are taken from the
+ * heaviest to the lightest and each goes to the least-loaded lecturer who still has capacity. Lecturers are
+ * kept in a set ordered by load, so taking or moving one costs O(log m), and a run costs O(n log n + n log m)
+ * for n courses and m lecturers, plus O(m) for a course when lecturers at their limit have to be passed over.
+ * Loads already carried by assigned courses are counted, per-lecturer limits are respected and a preferred
+ * lecturer wins when their resulting load is within the configured slack of the best choice. Without those
+ * the plan is within 4/3 of the optimal maximum load; with them it is a good plan but carries no such bound.
+ * The planner only computes a plan; nothing is changed until the caller applies it.
+ */
+public final class LecturerAssignmentPlanner {
+
+    /**
+     * Enum representing how the load of a course is measured. Under HEADCOUNT a course without students yet,
+     * as unassigned courses usually are, counts as one, so their load is spread by number of courses instead of
+     * every one of them going to the same lecturer.
+     */
+    public enum LoadMetric {
+        CREDITS,
+        HEADCOUNT
+    }
+
+    private final LoadMetric metric;
+    private final Map<String, Integer> maxLoads = new HashMap<>();
+    private final Map<String, Set<String>> preferredLecturers = new HashMap<>();
+    private int defaultMaxLoad = Integer.MAX_VALUE;
+    private int preferenceSlack;
+
+    /**
+     * Creates a planner.
+     * @param metric How course load is measured.
+     */
+    public LecturerAssignmentPlanner(LoadMetric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * Sets the load limit for lecturers without their own limit.
+     * @param maxLoad The highest total load a lecturer may carry.
+     */
+    public void setDefaultMaxLoad(int maxLoad) {
+        this.defaultMaxLoad = maxLoad;
+    }
+
+    /**
+     * Sets the load limit of one lecturer.
+     * @param lecturer The lecturer name.
+     * @param maxLoad The highest total load the lecturer may carry.
+     */
+    public void setMaxLoad(String lecturer, int maxLoad) {
+        maxLoads.put(lecturer, maxLoad);
+    }
+
+    /**
+     * Records courses a lecturer would like to teach.
+     * @param lecturer The lecturer name.
+     * @param courseCodes The preferred course codes.
+     */
+    public void addPreferences(String lecturer, Collection<String> courseCodes) {
+        for (String courseCode : courseCodes) {
+            preferredLecturers.computeIfAbsent(courseCode, key -> new HashSet<>()).add(lecturer);
+        }
+    }
+
+    /**
+     * Sets how much extra load a preferred lecturer may take compared with the least-loaded lecturer.
+     * @param slack The allowed difference in load; 0 means preferences only break ties.
+     */
+    public void setPreferenceSlack(int slack) {
+        this.preferenceSlack = slack;
+    }
+
+    /**
+     * Computes a plan for every course without a lecturer.
+     * @param courses All courses; courses that already have a lecturer count towards that lecturer's load.
+     * @param lecturers The lecturers available for assignment.
+     * @return The proposed assignments and resulting loads.
+     */
+    public Plan plan(Collection<Course> courses, Collection<String> lecturers) {
+        Map<String, Integer> loads = new LinkedHashMap<>();
+        for (String lecturer : lecturers) {
+            loads.put(lecturer, 0);
+        }
+
+        List<Course> unassigned = new ArrayList<>();
+        Set<String> seenCodes = new HashSet<>();
+        for (Course course : courses) {
+            if (!seenCodes.add(course.getCode())) {
+                continue; // Only the first course with a code can be assigned
+            }
+            if (course.hasLecturer()) {
+                loads.computeIfPresent(course.getLecturer(), (lecturer, load) -> load + loadOf(course));
+            } else {
+                unassigned.add(course);
+            }
+        }
+
+        // Heaviest courses first
+        unassigned.sort((first, second) -> Integer.compare(loadOf(second), loadOf(first)));
+
+        TreeSet<Entry> byLoad = new TreeSet<>();
+        for (Map.Entry<String, Integer> entry : loads.entrySet()) {
+            byLoad.add(new Entry(entry.getKey(), entry.getValue()));
+        }
+
+        Map<String, String> assignments = new LinkedHashMap<>();
+        List<String> unplaced = new ArrayList<>();
+        List<Entry> skipped = new ArrayList<>();
+        for (Course course : unassigned) {
+            int courseLoad = loadOf(course);
+
+            // Least-loaded lecturer with room for this course
+            Entry best = null;
+            while (!byLoad.isEmpty()) {
+                Entry candidate = byLoad.pollFirst();
+                if (candidate.load + courseLoad <= maxLoadOf(candidate.lecturer)) {
+                    best = candidate;
+                    break;
+                }
+                skipped.add(candidate);
+            }
+            byLoad.addAll(skipped);
+            skipped.clear();
+
+            String chosen = best == null ? null : best.lecturer;
+            String preferred = bestPreferred(course, courseLoad, loads);
+            if (preferred != null
+                    && (chosen == null || loads.get(preferred) <= loads.get(chosen) + preferenceSlack)) {
+                chosen = preferred;
+            }
+
+            if (best != null && !best.lecturer.equals(chosen)) {
+                byLoad.add(best);
+            }
+            if (chosen == null) {
+                unplaced.add(course.getCode());
+                continue;
+            }
+            if (best == null || !best.lecturer.equals(chosen)) {
+                byLoad.remove(new Entry(chosen, loads.get(chosen)));
+            }
+
+            int newLoad = loads.get(chosen) + courseLoad;
+            loads.put(chosen, newLoad);
+            byLoad.add(new Entry(chosen, newLoad));
+            assignments.put(course.getCode(), chosen);
+        }
+
+        return new Plan(assignments, loads, unplaced);
+    }
+
+    /**
+     * Picks the least-loaded preferred lecturer with room for a course.
+     */
+    private String bestPreferred(Course course, int courseLoad, Map<String, Integer> loads) {
+        String best = null;
+        for (String lecturer : preferredLecturers.getOrDefault(course.getCode(), Collections.emptySet())) {
+            Integer load = loads.get(lecturer);
+            if (load != null && load + courseLoad <= maxLoadOf(lecturer)
+                    && (best == null || load < loads.get(best))) {
+                best = lecturer;
+            }
+        }
+        return best;
+    }
+
+    private int maxLoadOf(String lecturer) {
+        return maxLoads.getOrDefault(lecturer, defaultMaxLoad);
+    }
+
+    private int loadOf(Course course) {
+        return metric == LoadMetric.CREDITS ? course.getCredits() : Math.max(course.getStudentCount(), 1);
+    }
+
+    /**
+     * Entry is a lecturer's position in the load order, ordered by load and then name.
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        private final String lecturer;
+        private final int load;
+
+        Entry(String lecturer, int load) {
+            this.lecturer = lecturer;
+            this.load = load;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = Integer.compare(load, other.load);
+            return result != 0 ? result : lecturer.compareTo(other.lecturer);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry && compareTo((Entry) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return lecturer.hashCode() * 31 + load;
+        }
+    }
+
+    /**
+     * Plan is the outcome of a planning run: the proposed lecturer for each course, the load every lecturer
+     * would end up with and the courses no lecturer had room for.
+     */
+    public static final class Plan {
+
+        private final Map<String, String> assignments;
+        private final Map<String, Integer> loads;
+        private final List<String> unplaced;
+
+        private Plan(Map<String, String> assignments, Map<String, Integer> loads, List<String> unplaced) {
+            this.assignments = Collections.unmodifiableMap(assignments);
+            this.loads = Collections.unmodifiableMap(loads);
+            this.unplaced = Collections.unmodifiableList(unplaced);
+        }
+
+        /**
+         * @return The proposed lecturer for each course code, heaviest course first.
+         */
+        public Map<String, String> getAssignments() {
+            return assignments;
+        }
+
+        /**
+         * @return The total load of each lecturer after the plan is applied.
+         */
+        public Map<String, Integer> getLoads() {
+            return loads;
+        }
+
+        /**
+         * @return The codes of courses that could not be assigned within the load limits.
+         */
+        public List<String> getUnplaced() {
+            return unplaced;
+        }
+
+        /**
+         * @return The heaviest lecturer load after the plan is applied.
+         */
+        public int getMaxLoad() {
+            int max = 0;
+            for (int load : loads.values()) {
+                max = Math.max(max, load);
+            }
+            return max;
+        }
+
+        /**
+         * Formats the plan for a preview.
+         * @return The preview text.
+         */
+        public String describe() {
+            StringBuilder text = new StringBuilder();
+            text.append("Courses to assign: ").append(assignments.size()).append('\n');
+            text.append("Highest load: ").append(getMaxLoad()).append("\n\nLoads:\n");
+            for (Map.Entry<String, Integer> entry : loads.entrySet()) {
+                text.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+            }
+            text.append("\nAssignments:\n");
+            for (Map.Entry<String, String> entry : assignments.entrySet()) {
+                text.append(entry.getKey()).append(" -> ").append(entry.getValue()).append('\n');
+            }
+            if (!unplaced.isEmpty()) {
+                text.append("\nNo lecturer has room for: ").append(String.join(", ", unplaced)).append('\n');
+            }
+            return text.toString();
+        }
+    }
+}
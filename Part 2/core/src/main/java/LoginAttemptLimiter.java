@@ -0,0 +1,102 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LoginAttemptLimiter counts failed logins per username over a sliding window. Once a username has failed
+ * the maximum number of times within the window, further attempts are refused until the oldest failure
+ * falls out of it. Each username keeps only its last few failure times in a small ring, so recording a
+ * failure and checking a username are both constant time. A successful login clears the count.
+ * Only usernames that have an account are tracked, so a flood of made-up names cannot grow the table.
+ */
+public final class LoginAttemptLimiter {
+
+    private final int maxFailures;
+    private final long windowMillis;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a limiter.
+     * @param maxFailures How many failures a username may have within the window.
+     * @param windowMillis The length of the sliding window.
+     */
+    public LoginAttemptLimiter(int maxFailures, long windowMillis) {
+        this.maxFailures = maxFailures;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @param username The entered username.
+     * @param now The current time in milliseconds.
+     * @return True if the username has used up its failures within the window.
+     */
+    public boolean isBlocked(String username, long now) {
+        Window window = windows.get(username);
+        return window != null && window.isFull(now - windowMillis);
+    }
+
+    /**
+     * Records a failed login.
+     * @param username The entered username.
+     * @param now The current time in milliseconds.
+     */
+    public void recordFailure(String username, long now) {
+        Window window = windows.computeIfAbsent(username, key -> new Window(maxFailures));
+        window.add(now);
+        if (window.isFull(now - windowMillis)) {
+            FlightEvents.Lockout event = new FlightEvents.Lockout();
+            if (event.shouldCommit()) {
+                event.username = username;
+                event.failures = maxFailures;
+                event.windowSeconds = windowMillis / 1000;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Clears the failures of a username after a successful login.
+     * @param username The username that logged in.
+     */
+    public void reset(String username) {
+        windows.remove(username);
+    }
+
+    /**
+     * Forgets usernames whose failures have all fallen out of the window.
+     * @param now The current time in milliseconds.
+     */
+    public void sweep(long now) {
+        windows.values().removeIf(window -> window.isExpired(now - windowMillis));
+    }
+
+    /**
+     * Window holds the times of the most recent failures of one username, oldest first from head.
+     */
+    private static final class Window {
+
+        private final long[] times;
+        private int head;
+        private int count;
+
+        Window(int capacity) {
+            this.times = new long[capacity];
+        }
+
+        synchronized void add(long time) {
+            times[(head + count) % times.length] = time;
+            if (count < times.length) {
+                count++;
+            } else {
+                head = (head + 1) % times.length;
+            }
+        }
+
+        synchronized boolean isFull(long windowStart) {
+            return count == times.length && times[head] > windowStart;
+        }
+
+        synchronized boolean isExpired(long windowStart) {
+            return count == 0 || times[(head + count - 1) % times.length] <= windowStart;
+        }
+    }
+}
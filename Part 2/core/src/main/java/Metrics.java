@@ -0,0 +1,301 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics is the process-wide registry of counters, gauges and latency histograms for the hot paths: file
+ * loads and saves, logins, prerequisite checks, checkouts and admin reports. Every metric is also published
+ * as a JMX MBean under group27:type=Counter, Gauge or Histogram, so jconsole or any JMX client can watch a
+ * running instance, and {@link #report()} formats them all for the admin portal's /metrics command.
+ * Callers look a metric up once and keep it in a static field. Recording then touches only striped adders
+ * and atomic arrays, so it never allocates and never blocks.
+ */
+public final class Metrics {
+
+    private static final Metrics INSTANCE = new Metrics();
+    private static final String DOMAIN = "group27";
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @return The shared registry.
+     */
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Looks up a counter, creating and publishing it the first time.
+     * @param name The metric name, e.g. "login.failed".
+     * @return The counter.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> publish("Counter", key, new Counter()));
+    }
+
+    /**
+     * Publishes a value that is read when the metrics are reported. A gauge registered again under the same
+     * name replaces the earlier one.
+     * @param name The metric name, e.g. "sessions.open".
+     * @param value Reads the current value; must be cheap and thread-safe.
+     */
+    public void gauge(String name, LongSupplier value) {
+        if (gauges.put(name, value) == null) {
+            publish("Gauge", name, new Gauge(name));
+        }
+    }
+
+    /**
+     * Looks up a latency histogram, creating and publishing it the first time.
+     * @param name The metric name, e.g. "registration.checkout".
+     * @return The histogram.
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> publish("Histogram", key, new Histogram()));
+    }
+
+    private <T> T publish(String type, String name, T mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        return mbean;
+    }
+
+    /**
+     * Formats every metric, sorted by name.
+     * @return The report.
+     */
+    public String report() {
+        StringBuilder output = new StringBuilder("Metrics\n\nCounters:\n");
+        for (Map.Entry<String, Counter> counter : new TreeMap<>(counters).entrySet()) {
+            output.append(String.format("  %-28s %d%n", counter.getKey(), counter.getValue().getCount()));
+        }
+        output.append("\nGauges:\n");
+        for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+            output.append(String.format("  %-28s %d%n", gauge.getKey(), gauge.getValue().getAsLong()));
+        }
+        output.append("\nLatencies:\n");
+        for (Map.Entry<String, Histogram> histogram : new TreeMap<>(histograms).entrySet()) {
+            Histogram value = histogram.getValue();
+            output.append(String.format("  %-28s %d calls, mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                    histogram.getKey(), value.getCount(), value.getMeanMillis(), value.getMedianMillis(),
+                    value.get99thPercentileMillis(), value.getMaxMillis()));
+        }
+        return output.toString();
+    }
+
+    /**
+     * The JMX view of a counter.
+     */
+    public interface CounterMXBean {
+
+        /**
+         * @return The number of times the counter was incremented.
+         */
+        long getCount();
+    }
+
+    /**
+     * The JMX view of a gauge.
+     */
+    public interface GaugeMXBean {
+
+        /**
+         * @return The current value.
+         */
+        long getValue();
+    }
+
+    /**
+     * The JMX view of a latency histogram.
+     */
+    public interface HistogramMXBean {
+
+        /**
+         * @return The number of latencies recorded.
+         */
+        long getCount();
+
+        /**
+         * @return The mean latency in milliseconds.
+         */
+        double getMeanMillis();
+
+        /**
+         * @return The median latency in milliseconds.
+         */
+        double getMedianMillis();
+
+        /**
+         * @return The 99th percentile latency in milliseconds.
+         */
+        double get99thPercentileMillis();
+
+        /**
+         * @return The longest latency in milliseconds.
+         */
+        double getMaxMillis();
+    }
+
+    /**
+     * Counter counts events; increments from many threads do not contend.
+     */
+    public static final class Counter implements CounterMXBean {
+
+        private final LongAdder count = new LongAdder();
+
+        private Counter() {
+        }
+
+        /**
+         * Counts one event.
+         */
+        public void increment() {
+            count.increment();
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    private final class Gauge implements GaugeMXBean {
+
+        private final String name;
+
+        private Gauge(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public long getValue() {
+            return gauges.get(name).getAsLong();
+        }
+    }
+
+    /**
+     * Histogram records latencies in nanoseconds into buckets that split each power of two in four, so a
+     * percentile is reported within 25% of the true value. Recording is two adds and a compare.
+     */
+    public static final class Histogram implements HistogramMXBean {
+
+        private static final int SUB_BUCKETS = 4;
+        private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Histogram() {
+        }
+
+        /**
+         * Records the time since a start time.
+         * @param startNanos A value of System.nanoTime() taken when the operation started.
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Records a latency.
+         * @param nanos The latency in nanoseconds.
+         */
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(bucketOf(value));
+            count.increment();
+            totalNanos.add(value);
+            long max = maxNanos.get();
+            while (value > max && !maxNanos.compareAndSet(max, value)) {
+                max = maxNanos.get();
+            }
+        }
+
+        private static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+            return (exponent - 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + 1;
+            long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 2);
+            return lower + (1L << (exponent - 2)) - 1;
+        }
+
+        private double percentileMillis(double fraction) {
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), maxNanos.get()) / 1e6;
+                }
+            }
+            return maxNanos.get() / 1e6;
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            long calls = count.sum();
+            return calls == 0 ? 0 : totalNanos.sum() / 1e6 / calls;
+        }
+
+        @Override
+        public double getMedianMillis() {
+            return percentileMillis(0.50);
+        }
+
+        @Override
+        public double get99thPercentileMillis() {
+            return percentileMillis(0.99);
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * NamePool dictionary-encodes the short strings that repeat throughout the data files, such as course codes,
+ * lecturer names and student names. Every distinct value is kept once, so a student enrolled in ten courses or a
+ * lecturer assigned to fifty shares a single String instance, and equal names can be compared by reference.
+ */
+public final class NamePool {
+
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+    private NamePool() {
+    }
+
+    /**
+     * Returns the canonical instance of a string.
+     * @param value The string to look up, may be null.
+     * @return The pooled string equal to value, or null if value is null.
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = POOL.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    /**
+     * @return The number of distinct strings in the pool.
+     */
+    public static int size() {
+        return POOL.size();
+    }
+}
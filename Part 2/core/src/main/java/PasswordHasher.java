@@ -0,0 +1,172 @@
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PasswordHasher stores passwords as salted PBKDF2-HMAC-SHA256 hashes in the form
+ * {@code pbkdf2$<iterations>$<salt>$<hash>}, which contains no commas and so fits the password column of
+ * database.csv. Hashing is deliberately slow, so the asynchronous methods run it on a bounded pool with one
+ * thread per core and a fixed-size queue; during a login rush extra requests are turned away at once instead
+ * of piling up behind each other. The cost is set with the {@code credentials.iterations} system property.
+ * Passwords still stored in plain text are accepted and reported by {@link #needsRehash(String)}, so they can
+ * be upgraded after the next successful login.
+ */
+public final class PasswordHasher {
+
+    private static final PasswordHasher INSTANCE = new PasswordHasher(
+            Integer.getInteger("credentials.iterations", 120_000));
+
+    private static final String PREFIX = "pbkdf2";
+    private static final String SEPARATOR = "$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadPoolExecutor pool;
+
+    private PasswordHasher(int iterations) {
+        this.iterations = iterations;
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        Metrics.getInstance().gauge("hasher.queued", () -> pool.getQueue().size());
+        Metrics.getInstance().gauge("hasher.active", pool::getActiveCount);
+    }
+
+    /**
+     * @return The hasher shared by the whole application.
+     */
+    public static PasswordHasher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return The PBKDF2 iteration count used for new hashes.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Hashes a password with a new random salt on the calling thread.
+     * @param password The password to hash.
+     * @return The encoded hash.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + SEPARATOR + iterations + SEPARATOR + encoder.encodeToString(salt) + SEPARATOR
+                + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Checks a password against a stored value on the calling thread. Plain-text stored values are compared
+     * in constant time.
+     * @param stored The value from the password column.
+     * @param password The entered password.
+     * @return True if the password matches.
+     */
+    public boolean verify(String stored, String password) {
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8),
+                    password.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\" + SEPARATOR);
+        if (parts.length != 4) {
+            return false;
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        try {
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected,
+                    derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1])));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param stored The value from the password column.
+     * @return True if the value is plain text or was hashed with a lower cost than the current one.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\" + SEPARATOR);
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @param stored The value from the password column.
+     * @return True if the value is a hash rather than a plain-text password.
+     */
+    public static boolean isHashed(String stored) {
+        return stored.startsWith(PREFIX + SEPARATOR);
+    }
+
+    /**
+     * Hashes a password on the worker pool.
+     * @param password The password to hash.
+     * @return A future completed with the encoded hash, or failed with a RejectedExecutionException if the
+     *         pool is saturated.
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        return submit(() -> hash(password));
+    }
+
+    /**
+     * Checks a password on the worker pool.
+     * @param stored The value from the password column.
+     * @param password The entered password.
+     * @return A future completed with the result, or failed with a RejectedExecutionException if the pool is
+     *         saturated.
+     */
+    public CompletableFuture<Boolean> verifyAsync(String stored, String password) {
+        return submit(() -> verify(stored, password));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, pool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * RegistrationClient gives the student registration window the registration engine of a
+ * {@link RegistrationServer} instead of the data files in its own process. It logs in once and sends the
+ * session token with every later request; the server applies the same rules as {@link RegistrationService},
+ * so the window behaves the same either way.
+ * The window uses it when the system property registration.server holds the server's address, e.g.
+ * http://127.0.0.1:8027.
+ * Every call is a blocking round trip, so windows make them off the application thread. The credits of the
+ * courses listed as available are remembered, so showing and totalling a cart asks the server nothing more.
+ */
+public final class RegistrationClient implements StudentRegistration {
+
+    /**
+     * The system property holding the address of the server to use.
+     */
+    public static final String SERVER_PROPERTY = "registration.server";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final String baseUri;
+    private final Map<String, Integer> credits = new ConcurrentHashMap<>();
+    private volatile String token;
+    private volatile WaitingListener waitingListener;
+
+    /**
+     * Creates a client; nothing is sent until it logs in.
+     * @param serverAddress The server's address, e.g. http://127.0.0.1:8027.
+     */
+    public RegistrationClient(String serverAddress) {
+        String address = serverAddress.trim();
+        this.baseUri = (address.endsWith("/") ? address : address + "/") + "api/";
+    }
+
+    /**
+     * Logs in on the server.
+     * @param username The entered username.
+     * @param password The entered password.
+     * @return A future completed with the session, or with null if the credentials are wrong. It fails with a
+     *         RejectedExecutionException if the server is too busy checking other logins.
+     */
+    public CompletableFuture<Session> loginAsync(String username, String password) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("username", username);
+        body.put("password", password);
+        return http.sendAsync(request("login").POST(HttpRequest.BodyPublishers.ofString(Json.write(body))).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)).thenApply(response -> {
+                    if (response.statusCode() == 401) {
+                        return null;
+                    }
+                    if (response.statusCode() == 503) {
+                        throw new RejectedExecutionException(errorOf(response));
+                    }
+                    Map<?, ?> fields = (Map<?, ?>) check(response);
+                    token = (String) fields.get("token");
+                    // The server expires idle sessions; this copy only carries the identity
+                    return new Session(token, (String) fields.get("username"),
+                            Session.Role.valueOf((String) fields.get("role")), (String) fields.get("userId"),
+                            Long.MAX_VALUE);
+                });
+    }
+
+    /**
+     * Sets who is told about the student's place in the waiting room while a checkout waits.
+     * @param listener The listener, called on the thread doing the checkout, or null for none.
+     */
+    public void setWaitingListener(WaitingListener listener) {
+        this.waitingListener = listener;
+    }
+
+    /**
+     * Ends the session on the server.
+     */
+    public void logout() {
+        if (token != null) {
+            send("POST", "logout", Collections.emptyMap());
+            token = null;
+        }
+    }
+
+    @Override
+    public int getCredits(String courseCode) {
+        Integer known = credits.get(courseCode);
+        if (known != null) {
+            return known;
+        }
+        HttpResponse<String> response = exchange("GET", "courses/" + encode(courseCode), null);
+        if (response.statusCode() == 404) {
+            return 0;
+        }
+        int courseCredits = ((Number) ((Map<?, ?>) check(response)).get("credits")).intValue();
+        credits.put(courseCode, courseCredits);
+        return courseCredits;
+    }
+
+    /**
+     * Lists the courses the logged-in student is not registered for, remembering their credits.
+     * @param student Ignored; the server answers for the student the session belongs to.
+     */
+    @Override
+    public List<String> getAvailableCourses(String student) {
+        List<String> available = new ArrayList<>();
+        for (Object item : (List<?>) send("GET", "available", null)) {
+            Map<?, ?> entry = (Map<?, ?>) item;
+            credits.put((String) entry.get("code"), ((Number) entry.get("credits")).intValue());
+            available.add((String) entry.get("course"));
+        }
+        return available;
+    }
+
+    /**
+     * Lists the courses the logged-in student is registered for.
+     * @param student Ignored; the server answers for the student the session belongs to.
+     */
+    @Override
+    public List<String> getRegisteredCourses(String student) {
+        return strings(send("GET", "registered", null));
+    }
+
+    /**
+     * Checks whether registration is open for the logged-in student now.
+     * @param student Ignored; the server answers for the student the session belongs to.
+     */
+    @Override
+    public String checkWindow(String student) {
+        return (String) ((Map<?, ?>) send("GET", "window", null)).get("refusal");
+    }
+
+    /**
+     * Registers the logged-in student for every course in their cart, in order. When registration is busy
+     * the server holds the checkout in its waiting room, and this call keeps the student's place until it is
+     * admitted, telling the waiting listener the place and expected wait each time the server answers.
+     * @throws RejectedExecutionException If the server's waiting room is full.
+     */
+    @Override
+    public Map<String, String> checkout(Object source, String student, List<String> courseCodes) {
+        HttpResponse<String> response = exchange("POST", "checkout",
+                Collections.singletonMap("courses", courseCodes));
+        while (response.statusCode() == 202) {
+            Map<?, ?> place = (Map<?, ?>) Json.parse(response.body());
+            WaitingListener listener = waitingListener;
+            if (listener != null) {
+                listener.waiting(((Number) place.get("position")).intValue(),
+                        ((Number) place.get("etaMillis")).longValue());
+            }
+            // The server waits a while before answering 202, so asking again straight away does not spin
+            response = exchange("POST", "checkout", Collections.singletonMap("courses", courseCodes));
+        }
+        if (response.statusCode() == 503) {
+            throw new RejectedExecutionException(errorOf(response));
+        }
+        if (response.statusCode() == 403) {
+            // Outside the student's registration window: every course is refused for that reason
+            Map<String, String> refusals = new LinkedHashMap<>();
+            for (String courseCode : courseCodes) {
+                refusals.put(courseCode, errorOf(response));
+            }
+            return refusals;
+        }
+        Map<?, ?> results = (Map<?, ?>) ((Map<?, ?>) check(response)).get("results");
+        Map<String, String> refusals = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> result : results.entrySet()) {
+            refusals.put((String) result.getKey(), (String) result.getValue());
+        }
+        return refusals;
+    }
+
+    @Override
+    public String drop(Object source, String student, String courseCode) {
+        HttpResponse<String> response = exchange("POST", "drop", Collections.singletonMap("course", courseCode));
+        if (response.statusCode() == 404 || response.statusCode() == 409) {
+            return errorOf(response);
+        }
+        check(response);
+        return null;
+    }
+
+    private Object send(String method, String path, Object body) {
+        return check(exchange(method, path, body));
+    }
+
+    private HttpResponse<String> exchange(String method, String path, Object body) {
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(Json.write(body));
+        try {
+            return http.send(request(path).method(method, publisher).build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the registration server", e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + path)).timeout(TIMEOUT)
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static Object check(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Registration server answered " + response.statusCode() + ": "
+                    + errorOf(response));
+        }
+        return Json.parse(response.body());
+    }
+
+    private static String errorOf(HttpResponse<String> response) {
+        try {
+            Object body = Json.parse(response.body());
+            if (body instanceof Map && ((Map<?, ?>) body).get("error") != null) {
+                return String.valueOf(((Map<?, ?>) body).get("error"));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a response from the API, e.g. a proxy's error page
+        }
+        return response.body();
+    }
+
+    private static List<String> strings(Object value) {
+        List<String> strings = new ArrayList<>();
+        for (Object item : (List<?>) value) {
+            strings.add(String.valueOf(item));
+        }
+        return strings;
+    }
+
+    private static String encode(String pathSegment) {
+        return URLEncoder.encode(pathSegment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * WaitingListener is told where a checkout stands in the server's waiting room.
+     */
+    public interface WaitingListener {
+
+        /**
+         * @param position The place in line, 1 for the next admitted.
+         * @param etaMillis Roughly how long until the checkout is admitted.
+         */
+        void waiting(int position, long etaMillis);
+    }
+}
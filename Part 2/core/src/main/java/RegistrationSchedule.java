@@ -0,0 +1,322 @@
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RegistrationSchedule is the admin's timetable of registration windows, one row of schedule.csv per slot:
+ * when it opens, when it closes and which cohort of students it is for. A cohort is every student, an intake
+ * year, a range of student IDs or a range of completed credits. Each student registers in the first slot
+ * whose cohort includes them, so rows are listed from the most specific to the most general, and a student
+ * no slot includes cannot register. An empty schedule leaves registration open to everyone, as before there
+ * was one.
+ * The schedule is immutable; adding or removing a slot returns a new schedule.
+ */
+public final class RegistrationSchedule {
+
+    /**
+     * The header row of schedule.csv.
+     */
+    public static final String[] CSV_HEADER = { "Opens", "Closes", "Cohort" };
+
+    /**
+     * The schedule with no slots, under which registration is always open.
+     */
+    public static final RegistrationSchedule EMPTY = new RegistrationSchedule(Collections.emptyList());
+
+    private final List<Slot> slots;
+
+    private RegistrationSchedule(List<Slot> slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * @param slots The slots, most specific cohort first.
+     * @return The schedule.
+     */
+    public static RegistrationSchedule of(List<Slot> slots) {
+        if (slots.isEmpty()) {
+            return EMPTY;
+        }
+        return new RegistrationSchedule(Collections.unmodifiableList(new ArrayList<>(slots)));
+    }
+
+    /**
+     * @return The slots in the order students are matched against them.
+     */
+    public List<Slot> getSlots() {
+        return slots;
+    }
+
+    /**
+     * @return True if there are no slots and registration is always open.
+     */
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    /**
+     * Returns a copy of this schedule with a slot added after the existing ones.
+     * @param slot The slot to add.
+     * @return The updated schedule.
+     */
+    public RegistrationSchedule withSlot(Slot slot) {
+        List<Slot> updated = new ArrayList<>(slots);
+        updated.add(slot);
+        return of(updated);
+    }
+
+    /**
+     * Returns a copy of this schedule without one slot.
+     * @param index The position of the slot, counting from 0.
+     * @return The updated schedule.
+     * @throws IndexOutOfBoundsException If there is no such slot.
+     */
+    public RegistrationSchedule withoutSlot(int index) {
+        List<Slot> updated = new ArrayList<>(slots);
+        updated.remove(index);
+        return of(updated);
+    }
+
+    /**
+     * Finds the slot a student registers in.
+     * @param account The student's account, or null if it is not known.
+     * @param completedCredits The credits the student has completed.
+     * @return The first slot whose cohort includes the student, or null if there is none.
+     */
+    public Slot slotFor(Account account, int completedCredits) {
+        for (Slot slot : slots) {
+            if (slot.getCohort().includes(account, completedCredits)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        if (slots.isEmpty()) {
+            return "No registration windows are scheduled; registration is open to everyone.\n";
+        }
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < slots.size(); i++) {
+            output.append(i + 1).append(". ").append(slots.get(i)).append("\n");
+        }
+        return output.toString();
+    }
+
+    /**
+     * Slot is one registration window: a cohort and the times between which it may register.
+     */
+    public static final class Slot {
+
+        private final LocalDateTime opens;
+        private final LocalDateTime closes;
+        private final long opensMillis;
+        private final long closesMillis;
+        private final Cohort cohort;
+
+        /**
+         * Creates a slot.
+         * @param opens When registration opens, in local time.
+         * @param closes When registration closes, in local time.
+         * @param cohort The students the slot is for.
+         * @throws IllegalArgumentException If the slot closes before it opens.
+         */
+        public Slot(LocalDateTime opens, LocalDateTime closes, Cohort cohort) {
+            if (!closes.isAfter(opens)) {
+                throw new IllegalArgumentException("A slot must close after it opens: " + opens + " to " + closes);
+            }
+            this.opens = opens;
+            this.closes = closes;
+            this.opensMillis = opens.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.closesMillis = closes.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.cohort = cohort;
+        }
+
+        /**
+         * Parses a row of schedule.csv.
+         * @param row The CSV columns: opens, closes and cohort, with times like 2024-01-31T09:00.
+         * @return The parsed slot.
+         * @throws IllegalArgumentException If the row is too short or a column is malformed.
+         */
+        public static Slot fromRow(String[] row) {
+            if (row.length < 3) {
+                throw new IllegalArgumentException("Expected 3 columns but found " + row.length);
+            }
+            try {
+                return new Slot(LocalDateTime.parse(row[0].trim()), LocalDateTime.parse(row[1].trim()),
+                        Cohort.parse(row[2]));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Malformed time: " + e.getParsedString(), e);
+            }
+        }
+
+        /**
+         * Formats this slot as a row of schedule.csv.
+         * @return The CSV columns.
+         */
+        public String[] toRow() {
+            return new String[] { opens.toString(), closes.toString(), cohort.toString() };
+        }
+
+        /**
+         * @return When registration opens, in local time.
+         */
+        public LocalDateTime getOpens() {
+            return opens;
+        }
+
+        /**
+         * @return When registration closes, in local time.
+         */
+        public LocalDateTime getCloses() {
+            return closes;
+        }
+
+        /**
+         * @return The students the slot is for.
+         */
+        public Cohort getCohort() {
+            return cohort;
+        }
+
+        /**
+         * @param nowMillis The current time in milliseconds since the epoch.
+         * @return True if registration is open in this slot at that time.
+         */
+        public boolean isOpen(long nowMillis) {
+            return nowMillis >= opensMillis && nowMillis < closesMillis;
+        }
+
+        /**
+         * @param nowMillis The current time in milliseconds since the epoch.
+         * @return True if the slot has not opened yet at that time.
+         */
+        public boolean isUpcoming(long nowMillis) {
+            return nowMillis < opensMillis;
+        }
+
+        @Override
+        public String toString() {
+            return opens.toString().replace('T', ' ') + " to " + closes.toString().replace('T', ' ') + ": " + cohort;
+        }
+    }
+
+    /**
+     * Cohort is a group of students sharing a registration window, written in schedule.csv as "all",
+     * "intake 2022", "id 1221300000-1221309999" or "credits 0-5". A single value stands for a range of one.
+     * Student IDs carry the intake year in their second and third digits: 1221304161 joined in 2022.
+     */
+    public static final class Cohort {
+
+        /**
+         * Enum representing what a cohort is defined by.
+         */
+        public enum Kind {
+            ALL,
+            INTAKE,
+            ID,
+            CREDITS
+        }
+
+        private final Kind kind;
+        private final long low;
+        private final long high;
+
+        private Cohort(Kind kind, long low, long high) {
+            this.kind = kind;
+            this.low = low;
+            this.high = high;
+        }
+
+        /**
+         * Parses a cohort as written in schedule.csv.
+         * @param text The cohort, e.g. "intake 2022".
+         * @return The cohort.
+         * @throws IllegalArgumentException If the text is not a cohort.
+         */
+        public static Cohort parse(String text) {
+            String[] parts = text.trim().split("\\s+");
+            Kind kind;
+            try {
+                kind = Kind.valueOf(parts[0].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown cohort: " + text.trim());
+            }
+            if (kind == Kind.ALL) {
+                return new Cohort(kind, Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected a value or range in cohort: " + text.trim());
+            }
+            try {
+                int dash = parts[1].indexOf('-');
+                long low = Long.parseLong(dash < 0 ? parts[1] : parts[1].substring(0, dash));
+                long high = dash < 0 ? low : Long.parseLong(parts[1].substring(dash + 1));
+                if (high < low) {
+                    throw new IllegalArgumentException("Empty range in cohort: " + text.trim());
+                }
+                return new Cohort(kind, low, high);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed range in cohort: " + text.trim(), e);
+            }
+        }
+
+        /**
+         * @return What the cohort is defined by.
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @param account The student's account, or null if it is not known.
+         * @param completedCredits The credits the student has completed.
+         * @return True if the student belongs to this cohort.
+         */
+        public boolean includes(Account account, int completedCredits) {
+            switch (kind) {
+                case ALL:
+                    return true;
+                case CREDITS:
+                    return completedCredits >= low && completedCredits <= high;
+                case INTAKE:
+                    long intakeYear = account == null ? -1 : intakeYearOf(account.getId());
+                    return intakeYear >= low && intakeYear <= high;
+                case ID:
+                    long id = account == null ? -1 : parseId(account.getId());
+                    return id >= 0 && id >= low && id <= high;
+                default:
+                    return false;
+            }
+        }
+
+        private static long intakeYearOf(String id) {
+            String digits = id.trim();
+            if (digits.length() < 3 || !Character.isDigit(digits.charAt(1)) || !Character.isDigit(digits.charAt(2))) {
+                return -1;
+            }
+            return 2000 + Integer.parseInt(digits.substring(1, 3));
+        }
+
+        private static long parseId(String id) {
+            try {
+                return Long.parseLong(id.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public String toString() {
+            String name = kind.name().toLowerCase();
+            if (kind == Kind.ALL) {
+                return name;
+            }
+            return name + " " + (low == high ? String.valueOf(low) : low + "-" + high);
+        }
+    }
+}
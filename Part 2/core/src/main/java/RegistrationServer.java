@@ -0,0 +1,649 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * RegistrationServer serves the registration engine as a local HTTP/JSON API on the JDK's built-in server, so
+ * clients other than the JavaFX windows in this process can log in, browse the catalog, fill a cart, check
+ * out, drop courses, read rosters and run admin queries. Requests carry the token from /api/login in an
+ * "Authorization: Bearer" header, and each endpoint checks the session's role.
+ * Every request gets its own thread, a virtual thread when the JVM has them, so a registration rush with many
+ * thousands of open connections costs little memory; older JVMs fall back to a cached pool. The engine stays
+ * confined to its data thread: handlers hand each operation to it and wait, which blocks only the request's
+ * own thread. Checkouts are metered by {@link AdmissionControl}; one that has to wait is answered with 202
+ * and its place in line, and one turned away with 503 and a Retry-After header.
+ * Run from the command line, it watches the data files, so course changes committed by other instances and
+ * edits to schedule.csv reach the engine without a restart.
+ * Request bodies over 64 KB are refused with 413. Carts hold at most 20 courses and are dropped when their
+ * session ends.
+ * Run it with: java RegistrationServer [--port 8027] [--host 127.0.0.1], from the folder holding the data files.
+ */
+public final class RegistrationServer implements AutoCloseable {
+
+    /**
+     * The port the server listens on unless told otherwise.
+     */
+    public static final int DEFAULT_PORT = 8027;
+
+    private static final int BACKLOG = 4096;
+    private static final String API = "/api/";
+    // How long a checkout request waits in line before answering with its place instead
+    private static final long QUEUE_POLL_MILLIS = 2000;
+    private static final long RETRY_AFTER_SECONDS = 30;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MAX_CART_ITEMS = 20;
+
+    private final AppDataContext dataContext;
+    private final StudentRegistration registration;
+    private final AdmissionControl admission;
+    private final HttpServer server;
+    private final ExecutorService requests;
+    private final Map<String, List<String>> carts = new ConcurrentHashMap<>();
+    private final Consumer<Session> sessionEnded = session -> carts.remove(session.getToken());
+    private DataFileWatcher dataFileWatcher;
+
+    /**
+     * Creates a server; it does not accept requests until started.
+     * @param dataContext The shared data, whose sessions authenticate requests.
+     * @param registration The registration rules to apply, used on the data thread.
+     * @param address The address to listen on; port 0 picks a free port.
+     * @throws IOException If the address cannot be bound.
+     */
+    public RegistrationServer(AppDataContext dataContext, StudentRegistration registration,
+            InetSocketAddress address) throws IOException {
+        this(dataContext, registration, address, AdmissionControl.fromProperties());
+    }
+
+    /**
+     * Creates a server that admits checkouts through the given admission control.
+     * @param dataContext The shared data, whose sessions authenticate requests.
+     * @param registration The registration rules to apply, used on the data thread.
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param admission The admission control metering checkouts; it is closed with the server.
+     * @throws IOException If the address cannot be bound.
+     */
+    public RegistrationServer(AppDataContext dataContext, StudentRegistration registration,
+            InetSocketAddress address, AdmissionControl admission) throws IOException {
+        this.dataContext = dataContext;
+        this.registration = registration;
+        this.admission = admission;
+        this.requests = newRequestExecutor();
+        this.server = HttpServer.create(address, BACKLOG);
+        server.createContext(API, this::handle);
+        server.setExecutor(requests);
+        dataContext.getSessions().addEndListener(sessionEnded);
+    }
+
+    /**
+     * Creates the executor running requests: one virtual thread per request on JVMs that have them, otherwise
+     * a pool that starts a thread for every request no idle thread can take.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "http-request-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Watches the data files for changes made outside this server until it is closed.
+     * @param directory The directory holding the data files.
+     * @throws IOException If the directory cannot be watched.
+     */
+    public void watchDataFiles(Path directory) throws IOException {
+        dataFileWatcher = DataFileWatcher.start(directory, dataContext::setSchedule);
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, gives running ones a second to finish, stops the request threads and closes
+     * the data context and the data file watcher.
+     */
+    @Override
+    public void close() {
+        if (dataFileWatcher != null) {
+            dataFileWatcher.close();
+        }
+        server.stop(1);
+        admission.close();
+        requests.shutdownNow();
+        dataContext.getSessions().removeEndListener(sessionEnded);
+        dataContext.close();
+    }
+
+    /**
+     * Starts a server over the data files in the working directory.
+     * @param args --port and --host, both optional.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        String host = "127.0.0.1";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[i + 1]);
+            } else if ("--host".equals(args[i])) {
+                host = args[i + 1];
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        AppDataContext dataContext = AppDataContext.load(new ExecutorDataThread("server-data"));
+        RegistrationServer server = new RegistrationServer(dataContext, dataContext.getRegistration(),
+                new InetSocketAddress(host, port));
+        server.watchDataFiles(Paths.get("."));
+        server.start();
+        System.out.println("Registration API listening on http://" + host + ":" + server.getPort() + API);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status = 200;
+        Object body;
+        try {
+            body = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath().substring(API.length()),
+                    exchange);
+            if (body instanceof Reply) {
+                status = ((Reply) body).status;
+                body = ((Reply) body).body;
+            }
+        } catch (ApiException e) {
+            status = e.status;
+            body = error(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            status = 503;
+            body = error("Too many logins are being checked. Please try again.");
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            status = 500;
+            body = error("Internal error");
+        }
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Object route(String method, String path, HttpExchange exchange) throws IOException {
+        String[] parts = path.split("/");
+        switch (method + " " + parts[0]) {
+            case "POST login":
+                return login(readBody(exchange));
+            case "POST logout":
+                return logout(exchange);
+            case "GET courses":
+                if (parts.length == 1) {
+                    return listCourses();
+                }
+                if (parts.length == 3 && "roster".equals(parts[2])) {
+                    return roster(authenticate(exchange), parts[1]);
+                }
+                return describeCourse(parts[1]);
+            case "GET available":
+                return onDataThread(() -> available(student(exchange).getUsername()));
+            case "GET registered":
+                return onDataThread(() -> registration.getRegisteredCourses(student(exchange).getUsername()));
+            case "GET cart":
+                return cartOf(student(exchange));
+            case "POST cart":
+                return addToCart(student(exchange), readBody(exchange));
+            case "DELETE cart":
+                carts.remove(student(exchange).getToken());
+                return Collections.emptyList();
+            case "POST checkout":
+                return checkout(exchange, student(exchange), readBody(exchange));
+            case "POST drop":
+                return drop(student(exchange), readBody(exchange));
+            case "GET window":
+                return Collections.singletonMap("refusal",
+                        onDataThread(() -> registration.checkWindow(student(exchange).getUsername())));
+            case "GET admin":
+                return admin(exchange, parts.length > 1 ? parts[1] : "");
+            case "PUT admin":
+                if (parts.length > 1 && "schedule".equals(parts[1])) {
+                    return replaceSchedule(exchange, readBody(exchange));
+                }
+                throw new ApiException(404, "No such endpoint: " + method + " /" + API.substring(1) + path);
+            default:
+                throw new ApiException(404, "No such endpoint: " + method + " /" + API.substring(1) + path);
+        }
+    }
+
+    private Object login(Map<String, Object> request) {
+        String username = requireString(request, "username");
+        String password = requireString(request, "password");
+        Session session;
+        try {
+            // Account lookups are confined to the data thread; the password check itself runs on the hasher
+            session = onDataThread(() -> dataContext.getSessions().loginAsync(username, password)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw (RejectedExecutionException) e.getCause();
+            }
+            throw e;
+        }
+        if (session == null) {
+            throw new ApiException(401, "Invalid username or password.");
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("token", session.getToken());
+        response.put("username", session.getUsername());
+        response.put("role", session.getRole().name());
+        response.put("userId", session.getUserId());
+        return response;
+    }
+
+    private Object logout(HttpExchange exchange) {
+        Session session = authenticate(exchange);
+        // The cart goes with the session
+        dataContext.getSessions().logout(session.getToken());
+        return Collections.emptyMap();
+    }
+
+    private Object listCourses() {
+        List<Object> courses = new ArrayList<>();
+        for (Course course : dataContext.getCatalogStore().snapshot().courses()) {
+            courses.add(describe(course));
+        }
+        return courses;
+    }
+
+    private Object describeCourse(String courseCode) {
+        Course course = dataContext.getCatalogStore().snapshot().get(courseCode);
+        if (course == null) {
+            throw new ApiException(404, "Course not found.");
+        }
+        return describe(course);
+    }
+
+    /**
+     * Lists the courses a student may still register for with their credits, so a client can show and total
+     * them without asking about each course. Called on the data thread.
+     */
+    private List<Object> available(String student) {
+        List<Object> available = new ArrayList<>();
+        for (String course : registration.getAvailableCourses(student)) {
+            String courseCode = course.split(",")[0].trim();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("course", course);
+            entry.put("code", courseCode);
+            entry.put("credits", registration.getCredits(courseCode));
+            available.add(entry);
+        }
+        return available;
+    }
+
+    private static Map<String, Object> describe(Course course) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("code", course.getCode());
+        description.put("credits", course.getCredits());
+        description.put("prerequisites", course.getPrerequisiteCodes());
+        description.put("minCompletedCredits", course.getMinCompletedCredits());
+        description.put("lecturer", course.hasLecturer() ? course.getLecturer() : null);
+        description.put("students", course.getStudentCount());
+        return description;
+    }
+
+    private Object roster(Session session, String courseCode) {
+        Course course = dataContext.getCatalogStore().snapshot().get(courseCode);
+        if (course == null) {
+            throw new ApiException(404, "Course not found.");
+        }
+        if (session.getRole() != Session.Role.ADMIN && !teaches(session, course)) {
+            throw new ApiException(403, "Only the admin and the course's lecturers may read its roster.");
+        }
+        return course.getStudents();
+    }
+
+    private static boolean teaches(Session session, Course course) {
+        if (session.getRole() != Session.Role.LECTURER || !course.hasLecturer()) {
+            return false;
+        }
+        for (String lecturer : course.getLecturer().split(";")) {
+            if (lecturer.trim().equalsIgnoreCase(session.getUsername())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object cartOf(Session session) {
+        List<String> cart = carts.get(session.getToken());
+        if (cart == null) {
+            return Collections.emptyList();
+        }
+        synchronized (cart) {
+            return new ArrayList<>(cart);
+        }
+    }
+
+    private Object addToCart(Session session, Map<String, Object> request) {
+        String courseCode = requireString(request, "course");
+        if (!dataContext.getCatalogStore().snapshot().contains(courseCode)) {
+            throw new ApiException(404, "Course not found.");
+        }
+        List<String> cart = carts.computeIfAbsent(session.getToken(), token -> new ArrayList<>());
+        synchronized (cart) {
+            if (!cart.contains(courseCode)) {
+                if (cart.size() >= MAX_CART_ITEMS) {
+                    throw new ApiException(409, "The cart is full. Check out or remove a course first.");
+                }
+                cart.add(courseCode);
+                TrafficRecorder.getInstance().cartAdd(session.getUsername(), courseCode);
+            }
+        }
+        return cartOf(session);
+    }
+
+    /**
+     * Checks out through admission control. A request not admitted within a couple of seconds is answered
+     * with 202 and its place in line, which it keeps by asking again with the same token.
+     */
+    private Object checkout(HttpExchange exchange, Session session, Map<String, Object> request) {
+        List<String> courseCodes = new ArrayList<>();
+        Object requested = request.get("courses");
+        List<String> cart = carts.get(session.getToken());
+        if (requested instanceof List) {
+            if (((List<?>) requested).size() > MAX_CART_ITEMS) {
+                throw new ApiException(400, "At most " + MAX_CART_ITEMS + " courses can be checked out at once.");
+            }
+            for (Object courseCode : (List<?>) requested) {
+                courseCodes.add(String.valueOf(courseCode));
+            }
+        } else if (cart != null) {
+            synchronized (cart) {
+                courseCodes.addAll(cart);
+            }
+        }
+        if (courseCodes.isEmpty()) {
+            throw new ApiException(400, "The cart is empty.");
+        }
+        // Students outside their registration window are turned away before they take a place in line
+        String closed = onDataThread(() -> registration.checkWindow(session.getUsername()));
+        if (closed != null) {
+            throw new ApiException(403, closed);
+        }
+
+        AdmissionControl.Ticket ticket;
+        try {
+            ticket = admission.enter(session.getToken());
+            if (!admission.await(ticket, QUEUE_POLL_MILLIS)) {
+                Map<String, Object> place = new LinkedHashMap<>();
+                place.put("position", admission.getPosition(ticket));
+                place.put("etaMillis", admission.getEtaMillis(ticket));
+                return new Reply(202, place);
+            }
+        } catch (RejectedExecutionException e) {
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+            throw new ApiException(503, "Registration is very busy and the waiting room is full. Please try again"
+                    + " in a minute.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(503, "The registration server is shutting down.");
+        }
+
+        long start = System.nanoTime();
+        try {
+            Map<String, String> results = onDataThread(
+                    () -> registration.checkout(this, session.getUsername(), courseCodes));
+            if (!(requested instanceof List) && cart != null) {
+                carts.remove(session.getToken(), cart);
+            }
+            return Collections.singletonMap("results", results);
+        } finally {
+            admission.done(ticket, start);
+        }
+    }
+
+    private Object drop(Session session, Map<String, Object> request) {
+        String courseCode = requireString(request, "course");
+        Course course = dataContext.getCatalogStore().snapshot().get(courseCode);
+        if (course == null) {
+            throw new ApiException(404, "Course not found.");
+        }
+        String failure = onDataThread(() -> registration.drop(this, session.getUsername(), courseCode));
+        if (failure == null) {
+            return Collections.emptyMap();
+        }
+        // Anything but a failed save is a refusal, e.g. the student was not registered
+        throw new ApiException(RegistrationService.SAVE_FAILED.equals(failure) ? 500 : 409, failure);
+    }
+
+    private Object admin(HttpExchange exchange, String query) throws IOException {
+        Session session = authenticate(exchange);
+        if (session.getRole() != Session.Role.ADMIN) {
+            throw new ApiException(403, "Only the admin may run admin queries.");
+        }
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        switch (query) {
+            case "report":
+                String courseCode = parameters.getOrDefault("course", "all");
+                CatalogSnapshot snapshot = dataContext.getCatalogStore().snapshot();
+                return Collections.singletonMap("report", "all".equalsIgnoreCase(courseCode)
+                        ? CourseReports.viewAllCourses(snapshot) : CourseReports.viewCourse(snapshot, courseCode));
+            case "metrics":
+                return Collections.singletonMap("report", Metrics.getInstance().report());
+            case "schedule":
+                return describeSchedule(onDataThread(() -> dataContext.getRegistration().getSchedule()));
+            case "audit":
+                List<Object> entries = new ArrayList<>();
+                for (AuditLog.Entry entry : AuditLog.getInstance().query(parameters.get("user"),
+                        parameters.get("course"), parseMillis(parameters.get("from"), Long.MIN_VALUE),
+                        parseMillis(parameters.get("to"), Long.MAX_VALUE))) {
+                    Map<String, Object> fields = new LinkedHashMap<>();
+                    fields.put("time", entry.getTimeMillis());
+                    fields.put("actor", entry.getActor());
+                    fields.put("action", entry.getAction());
+                    fields.put("course", entry.getCourseCode());
+                    fields.put("subject", entry.getSubject());
+                    entries.add(fields);
+                }
+                return entries;
+            default:
+                throw new ApiException(404, "No such admin query: " + query);
+        }
+    }
+
+    private static List<Object> describeSchedule(RegistrationSchedule schedule) {
+        List<Object> slots = new ArrayList<>();
+        for (RegistrationSchedule.Slot slot : schedule.getSlots()) {
+            String[] row = slot.toRow();
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (int i = 0; i < row.length; i++) {
+                fields.put(RegistrationSchedule.CSV_HEADER[i].toLowerCase(), row[i]);
+            }
+            slots.add(fields);
+        }
+        return slots;
+    }
+
+    /**
+     * Replaces the registration windows with the slots in the request, given like those GET returns, and
+     * saves them to the schedule file.
+     */
+    private Object replaceSchedule(HttpExchange exchange, Map<String, Object> request) throws IOException {
+        Session session = authenticate(exchange);
+        if (session.getRole() != Session.Role.ADMIN) {
+            throw new ApiException(403, "Only the admin may change the registration windows.");
+        }
+        if (!(request.get("slots") instanceof List)) {
+            throw new IllegalArgumentException("Missing \"slots\"");
+        }
+        List<RegistrationSchedule.Slot> slots = new ArrayList<>();
+        for (Object slot : (List<?>) request.get("slots")) {
+            if (!(slot instanceof Map)) {
+                throw new IllegalArgumentException("Each slot must be a JSON object");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> fields = (Map<String, Object>) slot;
+            slots.add(RegistrationSchedule.Slot.fromRow(new String[] { requireString(fields, "opens"),
+                    requireString(fields, "closes"), requireString(fields, "cohort") }));
+        }
+        RegistrationSchedule schedule = RegistrationSchedule.of(slots);
+        DataFiles.saveSchedule(DataFiles.SCHEDULE_FILE, schedule);
+        onDataThread(() -> {
+            dataContext.getRegistration().setSchedule(schedule);
+            return null;
+        });
+        return describeSchedule(schedule);
+    }
+
+    /**
+     * Looks up the session named by the request's bearer token.
+     */
+    private Session authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        String token = header != null && header.startsWith("Bearer ") ? header.substring("Bearer ".length()) : null;
+        Session session = dataContext.getSessions().validate(token);
+        if (session == null) {
+            throw new ApiException(401, "Log in first.");
+        }
+        return session;
+    }
+
+    private Session student(HttpExchange exchange) {
+        Session session = authenticate(exchange);
+        if (session.getRole() != Session.Role.STUDENT) {
+            throw new ApiException(403, "Only students may register for courses.");
+        }
+        return session;
+    }
+
+    /**
+     * Runs an operation on the data thread and waits for its result.
+     */
+    private <T> T onDataThread(Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(operation, dataContext.getDataThread()::execute).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new ApiException(413, "The request body is larger than " + MAX_BODY_BYTES + " bytes.");
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8).trim();
+        if (text.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Object body = Json.parse(text);
+        if (!(body instanceof Map)) {
+            throw new IllegalArgumentException("The request body must be a JSON object");
+        }
+        return (Map<String, Object>) body;
+    }
+
+    private static String requireString(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("Missing \"" + field + "\"");
+        }
+        return (String) value;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.put(key, value);
+        }
+        return parameters;
+    }
+
+    private static long parseMillis(String value, long missing) {
+        return value == null || value.isEmpty() ? missing : Long.parseLong(value);
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Collections.singletonMap("error", message);
+    }
+
+    /**
+     * Reply is a response body sent with a status other than 200.
+     */
+    private static final class Reply {
+
+        private final int status;
+        private final Object body;
+
+        Reply(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * ApiException ends a request with an HTTP error status and a message for the client.
+     */
+    private static final class ApiException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * RegistrationService applies the course registration rules to the shared catalog: the credit limit per
+ * trimester, prerequisite courses and minimum completed credits. Registering or dropping a course commits
+ * the change to the courses file and then updates the catalog and publishes it to the other windows; a
+ * change that cannot be saved is reported to the caller and leaves the catalog as it was.
+ * The credit limit, duplicate and prerequisite rules are checked twice: against this catalog, for a quick
+ * answer, and again against the merged courses file while it is locked, since other instances may have
+ * registered the student in the meantime. Each commit also brings this catalog up to date with the file.
+ * Registering is only allowed in the student's window of the {@link RegistrationSchedule}. A student's slot is
+ * looked up once, when they are first checked, and kept until the schedule changes, so every later check is
+ * one map lookup and two comparisons however many slots there are. Completed credits therefore count as of
+ * that first check.
+ * Courses are listed as "Course Code, Lecturer", the form the registration window shows.
+ */
+public final class RegistrationService implements StudentRegistration {
+
+    /**
+     * The fewest credits a student may register for in one go.
+     */
+    public static final int MIN_CREDITS = 3;
+
+    /**
+     * The most credits a student may be registered for.
+     */
+    public static final int MAX_CREDITS = 12;
+
+    /**
+     * The message returned when a change passed the rules but the courses file could not be written.
+     */
+    public static final String SAVE_FAILED = "The change could not be saved. Please try again.";
+
+    private static final Metrics.Histogram PREREQUISITE_CHECKS =
+            Metrics.getInstance().histogram("registration.prerequisites");
+    private static final Metrics.Histogram CHECKOUTS = Metrics.getInstance().histogram("registration.checkout");
+    private static final Metrics.Counter REGISTERED = Metrics.getInstance().counter("registration.saved");
+    private static final Metrics.Counter REFUSED = Metrics.getInstance().counter("registration.refused");
+    private static final Metrics.Counter DROPPED = Metrics.getInstance().counter("registration.dropped");
+    private static final Metrics.Counter COMMIT_FAILURES = Metrics.getInstance().counter("errors.courseCommit");
+
+    private final CourseCatalog courses;
+    private final String coursesFile;
+    private final Function<String, Account> accounts;
+    private RegistrationSchedule schedule;
+    // Each student's slot, null for students no slot includes
+    private final Map<String, RegistrationSchedule.Slot> slots = new HashMap<>();
+
+    /**
+     * Creates the registration rules for a catalog, with registration always open.
+     * @param courses The catalog, only used on the data thread.
+     * @param coursesFile The courses CSV file registrations are committed to.
+     */
+    public RegistrationService(CourseCatalog courses, String coursesFile) {
+        this(courses, coursesFile, RegistrationSchedule.EMPTY, student -> null);
+    }
+
+    /**
+     * Creates the registration rules for a catalog, with registration open in each student's window.
+     * @param courses The catalog, only used on the data thread.
+     * @param coursesFile The courses CSV file registrations are committed to.
+     * @param schedule The registration windows.
+     * @param accounts Looks up a student's account by name on the data thread, for the cohort rules.
+     */
+    public RegistrationService(CourseCatalog courses, String coursesFile, RegistrationSchedule schedule,
+            Function<String, Account> accounts) {
+        this.courses = courses;
+        this.coursesFile = coursesFile;
+        this.schedule = schedule;
+        this.accounts = accounts;
+    }
+
+    /**
+     * @return The registration windows.
+     */
+    public RegistrationSchedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Replaces the registration windows; every student's slot is looked up again.
+     * @param schedule The new schedule.
+     */
+    public void setSchedule(RegistrationSchedule schedule) {
+        this.schedule = schedule;
+        slots.clear();
+    }
+
+    @Override
+    public String checkWindow(String student) {
+        if (schedule.isEmpty()) {
+            return null;
+        }
+        RegistrationSchedule.Slot slot = slots.get(student);
+        if (slot == null && !slots.containsKey(student)) {
+            Account account = accounts.apply(student);
+            slot = schedule.slotFor(account, getCreditsRegistered(student));
+            if (account != null) {
+                // Not remembered for an unknown student, whose account may yet be created
+                slots.put(student, slot);
+            }
+        }
+        long now = System.currentTimeMillis();
+        if (slot == null) {
+            return "No registration window is scheduled for you.";
+        }
+        if (slot.isOpen(now)) {
+            return null;
+        }
+        return slot.isUpcoming(now)
+                ? "Your registration window opens at " + slot.getOpens().toString().replace('T', ' ') + "."
+                : "Your registration window closed at " + slot.getCloses().toString().replace('T', ' ') + ".";
+    }
+
+    /**
+     * @param student The student's name.
+     * @param courseCode The code of the course.
+     * @return True if the student is registered for the course.
+     */
+    public boolean isRegistered(String student, String courseCode) {
+        return isRegistered(courses, student, courseCode);
+    }
+
+    private static boolean isRegistered(CourseCatalog catalog, String student, String courseCode) {
+        Course course = catalog.get(courseCode);
+        return course != null && course.hasStudent(student);
+    }
+
+    /**
+     * Checks whether a student has taken every prerequisite course and the required number of credits.
+     * @param student The student's name.
+     * @param courseCode The code of the course.
+     * @return True if all prerequisites are met; false otherwise or if the course does not exist.
+     */
+    public boolean meetsPrerequisites(String student, String courseCode) {
+        long start = System.nanoTime();
+        boolean met = checkPrerequisites(courses, student, courseCode);
+        PREREQUISITE_CHECKS.recordSince(start);
+        return met;
+    }
+
+    private static boolean checkPrerequisites(CourseCatalog catalog, String student, String courseCode) {
+        Course course = catalog.get(courseCode);
+        if (course == null) {
+            return false;
+        }
+        for (String prerequisite : course.getPrerequisiteCodes()) {
+            if (!isRegistered(catalog, student, prerequisite)) {
+                return false;
+            }
+        }
+        return course.getMinCompletedCredits() == 0
+                || creditsRegistered(catalog, student) >= course.getMinCompletedCredits();
+    }
+
+    /**
+     * @param courseCode The code of the course.
+     * @return The credits of the course, or 0 if there is no such course.
+     */
+    public int getCredits(String courseCode) {
+        Course course = courses.get(courseCode);
+        return course == null ? 0 : course.getCredits();
+    }
+
+    /**
+     * @param student The student's name.
+     * @return The total credits of every course the student is registered for.
+     */
+    public int getCreditsRegistered(String student) {
+        return creditsRegistered(courses, student);
+    }
+
+    private static int creditsRegistered(CourseCatalog catalog, String student) {
+        int totalCredits = 0;
+        for (Course course : catalog.courses()) {
+            if (course.hasStudent(student)) {
+                totalCredits += course.getCredits();
+            }
+        }
+        return totalCredits;
+    }
+
+    /**
+     * @param student The student's name.
+     * @return The courses the student is not registered for.
+     */
+    public List<String> getAvailableCourses(String student) {
+        List<String> available = new ArrayList<>();
+        for (Course course : courses.courses()) {
+            if (!course.hasStudent(student)) {
+                available.add(course.getCode() + ", " + course.getLecturer());
+            }
+        }
+        return available;
+    }
+
+    /**
+     * @param student The student's name.
+     * @return The courses the student is registered for.
+     */
+    public List<String> getRegisteredCourses(String student) {
+        List<String> registered = new ArrayList<>();
+        for (Course course : courses.courses()) {
+            if (course.hasStudent(student)) {
+                registered.add(course.getCode() + ", " + course.getLecturer());
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * Checks whether a student may register for a course.
+     * @param student The student's name.
+     * @param courseCode The code of the course.
+     * @return A message explaining why the registration is refused, or null if it is allowed.
+     */
+    public String checkRegistration(String student, String courseCode) {
+        FlightEvents.CartValidation event = new FlightEvents.CartValidation();
+        event.begin();
+        String refusal = findRefusal(student, courseCode);
+        event.end();
+        if (event.shouldCommit()) {
+            event.student = student;
+            event.courseCode = courseCode;
+            event.refusal = refusal == null ? "" : refusal;
+            event.commit();
+        }
+        return refusal;
+    }
+
+    private String findRefusal(String student, String courseCode) {
+        String closed = checkWindow(student);
+        if (closed != null) {
+            return closed;
+        }
+        if (getCreditsRegistered(student) + getCredits(courseCode) > MAX_CREDITS) {
+            return creditLimitRefusal();
+        }
+        if (isRegistered(student, courseCode)) {
+            return alreadyRegisteredRefusal(courseCode);
+        }
+        if (!meetsPrerequisites(student, courseCode)) {
+            return prerequisitesRefusal(courseCode);
+        }
+        return null;
+    }
+
+    /**
+     * Checks the rules that depend on the catalog alone, for the commit to re-check on the merged file.
+     */
+    private static String findRefusal(CourseCatalog catalog, String student, String courseCode) {
+        Course course = catalog.get(courseCode);
+        if (creditsRegistered(catalog, student) + (course == null ? 0 : course.getCredits()) > MAX_CREDITS) {
+            return creditLimitRefusal();
+        }
+        if (isRegistered(catalog, student, courseCode)) {
+            return alreadyRegisteredRefusal(courseCode);
+        }
+        if (!checkPrerequisites(catalog, student, courseCode)) {
+            return prerequisitesRefusal(courseCode);
+        }
+        return null;
+    }
+
+    private static String creditLimitRefusal() {
+        return "You cannot register for more than " + MAX_CREDITS + " credits.";
+    }
+
+    private static String alreadyRegisteredRefusal(String courseCode) {
+        return "You are already registered for course: " + courseCode;
+    }
+
+    private static String prerequisitesRefusal(String courseCode) {
+        return "You do not meet the prerequisites for course: " + courseCode;
+    }
+
+    /**
+     * Registers a student for a course if the rules allow it.
+     * @param source The window or component making the change.
+     * @param student The student's name.
+     * @param courseCode The code of the course.
+     * @return A message explaining why the registration is refused or could not be saved, or null if it was
+     *         made.
+     */
+    public String register(Object source, String student, String courseCode) {
+        String refusal = checkRegistration(student, courseCode);
+        if (refusal != null) {
+            REFUSED.increment();
+            return refusal;
+        }
+        String failure = commit(DataChangeEvent.enrolled(source, courseCode, student),
+                latest -> findRefusal(latest, student, courseCode));
+        if (failure != null) {
+            REFUSED.increment();
+            return failure;
+        }
+        REGISTERED.increment();
+        return null;
+    }
+
+    /**
+     * Registers a student for every course in their cart, in order, so a course may count the ones before it
+     * as prerequisites.
+     * @param source The window or component making the change.
+     * @param student The student's name.
+     * @param courseCodes The codes of the courses in the cart.
+     * @return The refusal of each course in cart order, null for each course that was registered.
+     */
+    public Map<String, String> checkout(Object source, String student, List<String> courseCodes) {
+        long start = System.nanoTime();
+        FlightEvents.Checkout event = new FlightEvents.Checkout();
+        event.begin();
+        Map<String, String> results = new LinkedHashMap<>();
+        int saved = 0;
+        for (String courseCode : courseCodes) {
+            String refusal = register(source, student, courseCode);
+            results.put(courseCode, refusal);
+            if (refusal == null) {
+                saved++;
+            }
+        }
+        CHECKOUTS.recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.student = student;
+            event.courseCodes = String.join(";", courseCodes);
+            event.saved = saved;
+            event.refused = results.size() - saved;
+            event.commit();
+        }
+        TrafficRecorder.getInstance().checkout(student, results);
+        return results;
+    }
+
+    /**
+     * Drops a student from a course.
+     * @param source The window or component making the change.
+     * @param student The student's name.
+     * @param courseCode The code of the course.
+     * @return A message explaining why the drop is refused or could not be saved, or null if it was made.
+     */
+    public String drop(Object source, String student, String courseCode) {
+        String refusal = findDropRefusal(courses, student, courseCode);
+        if (refusal != null) {
+            return refusal;
+        }
+        String failure = commit(DataChangeEvent.dropped(source, courseCode, student),
+                latest -> findDropRefusal(latest, student, courseCode));
+        if (failure != null) {
+            return failure;
+        }
+        DROPPED.increment();
+        TrafficRecorder.getInstance().drop(student, courseCode);
+        return null;
+    }
+
+    private static String findDropRefusal(CourseCatalog catalog, String student, String courseCode) {
+        if (catalog.get(courseCode) == null) {
+            return "There is no course: " + courseCode;
+        }
+        if (!isRegistered(catalog, student, courseCode)) {
+            return "You are not registered for course: " + courseCode;
+        }
+        return null;
+    }
+
+    /**
+     * Merges a change into the courses file if it still passes the rules there, then applies it and tells the
+     * other windows, and catches this catalog up with whatever other instances committed. Nothing of the change
+     * is applied or published if the file cannot be written or the change is refused.
+     * @param rules Checks the change against the merged catalog, returning a refusal or null.
+     * @return A message for the student if the change was refused or could not be saved, or null.
+     */
+    private String commit(DataChangeEvent change, Function<CourseCatalog, String> rules) {
+        // Set by the thread writing the group, which hands it over under the commit's lock
+        String[] refusal = new String[1];
+        CourseCatalog merged;
+        try {
+            merged = SharedCourseFile.commit(coursesFile, Collections.singletonList(change), (latest, event) -> {
+                refusal[0] = rules.apply(latest);
+                return refusal[0] == null;
+            });
+        } catch (IOException e) {
+            COMMIT_FAILURES.increment();
+            e.printStackTrace();
+            return SAVE_FAILED;
+        }
+        if (refusal[0] == null) {
+            courses.apply(change);
+            // Students enroll and drop themselves
+            AuditLog.getInstance().record(change.getName(), change);
+            DataChangeBus.getInstance().publish(change);
+        }
+        for (DataChangeEvent update : courses.changesTo(this, merged.courses())) {
+            courses.apply(update);
+            DataChangeBus.getInstance().publish(update);
+        }
+        return refusal[0];
+    }
+}
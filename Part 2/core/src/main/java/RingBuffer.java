@@ -0,0 +1,113 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * RingBuffer is a bounded queue that any number of threads may add to without locking and one thread takes
+ * from. Each slot carries a sequence number telling whether it is free for the producer claiming it or filled
+ * for the consumer, so an add is one compare-and-set on the tail plus two writes, and a full buffer is
+ * reported straight away instead of blocking the caller.
+ * @param <T> The type of the items.
+ */
+public final class RingBuffer<T> {
+
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * Creates an empty buffer.
+     * @param capacity The number of slots, a power of two.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        items = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds an item if there is a free slot. Safe to call from any thread.
+     * @param item The item, not null.
+     * @return True if it was added; false if the buffer is full.
+     */
+    public boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[index] = item;
+                    // Publishes the item to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                // Another producer claimed this slot first
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest item. Must only be called by the one consuming thread.
+     * @return The item, or null if the buffer is empty or the next item is still being added.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        T item = (T) items[index];
+        items[index] = null;
+        sequences.set(index, position + items.length);
+        head = position + 1;
+        return item;
+    }
+
+    /**
+     * Takes up to a number of the oldest items. Must only be called by the one consuming thread.
+     * @param sink The list the items are added to, oldest first.
+     * @param max The most items to take.
+     * @return The number of items taken.
+     */
+    public int drainTo(List<? super T> sink, int max) {
+        int taken = 0;
+        while (taken < max) {
+            T item = poll();
+            if (item == null) {
+                break;
+            }
+            sink.add(item);
+            taken++;
+        }
+        return taken;
+    }
+
+    /**
+     * @return The number of items ever added, including ones already taken.
+     */
+    public long offered() {
+        return tail.get();
+    }
+
+    /**
+     * @return The number of items waiting, approximately while producers are adding.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Session is proof that a user has logged in. Modules given a session trust its role and user ID instead of
+ * asking for credentials again. Sessions expire after a period without use; {@link SessionService} renews
+ * them on every successful check and removes expired ones.
+ */
+public final class Session {
+
+    /**
+     * Enum representing what a logged-in user may open.
+     */
+    public enum Role {
+        ADMIN,
+        STUDENT,
+        LECTURER
+    }
+
+    private final String token;
+    private final String username;
+    private final Role role;
+    private final String userId;
+    private volatile long expiresAt;
+
+    Session(String token, String username, Role role, String userId, long expiresAt) {
+        this.token = token;
+        this.username = username;
+        this.role = role;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return The random token identifying this session.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return The username of the logged-in user.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return The role of the logged-in user.
+     */
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * @return The ID from the logged-in user's row of database.csv.
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * @param now The current time in milliseconds.
+     * @return True if the session has expired.
+     */
+    boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    /**
+     * Moves the expiry time forward.
+     * @param expiresAt The new expiry time in milliseconds.
+     */
+    void renew(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return role + " " + username;
+    }
+}
@@ -0,0 +1,380 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * SessionService authenticates a user once and hands out a {@link Session} that every module can trust.
+ * Checking a session is a single hash lookup, so opening a module costs no re-authentication and no file
+ * scan. Sessions expire after a fixed idle time; a daemon thread sweeps out expired sessions once a minute,
+ * and a session found expired on lookup is removed straight away. Listeners are told about every session
+ * that ends, so state kept per session elsewhere can be let go with it.
+ * Passwords are checked with {@link PasswordHasher} on its worker pool, never on the calling thread. A user who
+ * logged in successfully within the last few minutes is recognised from a keyed digest of the password, so
+ * repeated logins skip the slow hash. Plain-text or outdated password rows are rehashed after a successful
+ * login and written back in batches.
+ * A login for a username that certainly has no account is turned away at once by the shared
+ * {@link UsernameFilter}, and a username that has failed too often recently is refused without checking
+ * the password, so a credential-stuffing burst costs neither account lookups nor hashing.
+ */
+public final class SessionService {
+
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long SWEEP_INTERVAL_SECONDS = 60;
+    private static final long VERIFIED_CACHE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long UPGRADE_DELAY_SECONDS = 2;
+    private static final int MAX_FAILED_LOGINS = 5;
+    private static final long FAILED_LOGIN_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final Metrics.Histogram LOGIN_LATENCY = Metrics.getInstance().histogram("login");
+    private static final Metrics.Counter LOGINS_SUCCEEDED = Metrics.getInstance().counter("login.succeeded");
+    private static final Metrics.Counter LOGINS_FAILED = Metrics.getInstance().counter("login.failed");
+    private static final Metrics.Counter LOGINS_REJECTED = Metrics.getInstance().counter("login.rejected");
+    private static final Metrics.Counter UNKNOWN_USERS = Metrics.getInstance().counter("login.unknownUser");
+    private static final Metrics.Counter BLOCKED_USERS = Metrics.getInstance().counter("login.blocked");
+    private static final Metrics.Counter CACHED_LOGINS = Metrics.getInstance().counter("login.cached");
+
+    private final AppDataContext dataContext;
+    private final long idleTimeoutMillis;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final ScheduledExecutorService sweeper;
+    private final PasswordHasher hasher = PasswordHasher.getInstance();
+    private final byte[] cacheKey = new byte[32];
+    private final Map<String, VerifiedLogin> verifiedLogins = new ConcurrentHashMap<>();
+    private final Map<String, String> pendingUpgrades = new ConcurrentHashMap<>();
+    private final AtomicBoolean upgradeScheduled = new AtomicBoolean();
+    private final LoginAttemptLimiter attempts = new LoginAttemptLimiter(MAX_FAILED_LOGINS,
+            FAILED_LOGIN_WINDOW_MILLIS);
+    private final List<Consumer<Session>> endListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a session service with the default idle timeout of 30 minutes.
+     * @param dataContext The shared data holding the user accounts.
+     */
+    public SessionService(AppDataContext dataContext) {
+        this(dataContext, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a session service.
+     * @param dataContext The shared data holding the user accounts.
+     * @param idleTimeoutMillis How long a session lasts without being used.
+     */
+    public SessionService(AppDataContext dataContext, long idleTimeoutMillis) {
+        this.dataContext = dataContext;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+        random.nextBytes(cacheKey);
+        Metrics.getInstance().gauge("sessions.open", sessions::size);
+    }
+
+    /**
+     * Checks credentials and opens a session. The account is looked up on the calling thread, which must be
+     * the data thread of the shared data; the password check runs on the hashing pool.
+     * @param username The entered username.
+     * @param password The entered password.
+     * @return A future completed with the new session, or with null if the credentials are wrong or the
+     *         username has failed too often within the last five minutes. It fails with a
+     *         RejectedExecutionException if too many logins are already being checked.
+     */
+    public CompletableFuture<Session> loginAsync(String username, String password) {
+        long start = System.nanoTime();
+        FlightEvents.Login event = new FlightEvents.Login();
+        event.begin();
+        CompletableFuture<Session> login = authenticate(username, password, event);
+        login.whenComplete((session, error) -> {
+            LOGIN_LATENCY.recordSince(start);
+            if (error != null) {
+                LOGINS_REJECTED.increment();
+            } else {
+                (session != null ? LOGINS_SUCCEEDED : LOGINS_FAILED).increment();
+                TrafficRecorder.getInstance().login(username, session != null);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.username = username;
+                if (error != null) {
+                    event.outcome = "rejected";
+                } else if (session != null) {
+                    event.outcome = "succeeded";
+                } else if (event.outcome == null) {
+                    event.outcome = "wrong password";
+                }
+                event.commit();
+            }
+        });
+        return login;
+    }
+
+    /**
+     * Checks credentials, noting on the flight event why a login ended early.
+     */
+    private CompletableFuture<Session> authenticate(String username, String password,
+            FlightEvents.Login event) {
+        if (!dataContext.mightHaveAccount(username)) {
+            UNKNOWN_USERS.increment();
+            event.outcome = "unknown user";
+            return CompletableFuture.completedFuture(null);
+        }
+        Account account = dataContext.findAccount(username);
+        if (account == null) {
+            UNKNOWN_USERS.increment();
+            event.outcome = "unknown user";
+            return CompletableFuture.completedFuture(null);
+        }
+        Session.Role role = roleOf(account.getType());
+        String userId = account.getId();
+        String stored = account.getPassword();
+
+        long now = System.currentTimeMillis();
+        if (attempts.isBlocked(username, now)) {
+            BLOCKED_USERS.increment();
+            event.outcome = "blocked";
+            return CompletableFuture.completedFuture(null);
+        }
+        String digest = digest(username, password);
+        VerifiedLogin verified = verifiedLogins.get(username);
+        if (verified != null && verified.matches(stored, digest, now)) {
+            CACHED_LOGINS.increment();
+            event.cached = true;
+            attempts.reset(username);
+            return CompletableFuture.completedFuture(open(username, role, userId));
+        }
+
+        return hasher.verifyAsync(stored, password).thenApply(matches -> {
+            if (!matches) {
+                attempts.recordFailure(username, System.currentTimeMillis());
+                return null;
+            }
+            attempts.reset(username);
+            verifiedLogins.put(username, new VerifiedLogin(stored, digest,
+                    System.currentTimeMillis() + VERIFIED_CACHE_MILLIS));
+            if (hasher.needsRehash(stored)) {
+                // Already on a hashing thread, so the upgrade costs the user no extra wait
+                pendingUpgrades.put(username, hasher.hash(password));
+                scheduleUpgrade();
+            }
+            return open(username, role, userId);
+        });
+    }
+
+    private static Session.Role roleOf(Account.Type type) {
+        switch (type) {
+            case ADMIN:
+                return Session.Role.ADMIN;
+            case LECTURER:
+                return Session.Role.LECTURER;
+            default:
+                return Session.Role.STUDENT;
+        }
+    }
+
+    /**
+     * Looks up a session and renews it.
+     * @param token The session token.
+     * @return The session, or null if there is none or it has expired.
+     */
+    public Session validate(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (session.isExpired(now)) {
+            if (sessions.remove(token, session)) {
+                ended(session);
+            }
+            return null;
+        }
+        session.renew(now + idleTimeoutMillis);
+        return session;
+    }
+
+    /**
+     * Checks that a session is still valid and has a role.
+     * @param session The session to check, or null.
+     * @param role The role required.
+     * @return True if the session is valid and has the role.
+     */
+    public boolean hasRole(Session session, Session.Role role) {
+        return session != null && session.getRole() == role && validate(session.getToken()) != null;
+    }
+
+    /**
+     * Ends a session.
+     * @param token The session token.
+     */
+    public void logout(String token) {
+        if (token != null) {
+            Session session = sessions.remove(token);
+            if (session != null) {
+                ended(session);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener told about every session that ends, by logout or by expiring.
+     * @param listener Called with the ended session, on the thread that ended it.
+     */
+    public void addEndListener(Consumer<Session> listener) {
+        endListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addEndListener(Consumer)}.
+     * @param listener The listener to remove.
+     */
+    public void removeEndListener(Consumer<Session> listener) {
+        endListeners.remove(listener);
+    }
+
+    private void ended(Session session) {
+        for (Consumer<Session> listener : endListeners) {
+            try {
+                listener.accept(session);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @return The number of sessions that have not been swept yet.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops the sweeper thread.
+     */
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private Session open(String username, Session.Role role, String userId) {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, username, role, userId, System.currentTimeMillis() + idleTimeoutMillis);
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * Removes every expired session, verified login and failed-login window.
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Session> iterator = sessions.values().iterator(); iterator.hasNext();) {
+            Session session = iterator.next();
+            if (session.isExpired(now)) {
+                iterator.remove();
+                ended(session);
+            }
+        }
+        verifiedLogins.values().removeIf(verified -> verified.expiresAt <= now);
+        attempts.sweep(now);
+    }
+
+    /**
+     * Computes a keyed digest of a password, so the verified-login cache never holds the password itself.
+     */
+    private String digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(cacheKey, "HmacSHA256"));
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Writes rehashed passwords a moment after the first one is queued, so a burst of logins by
+     * users with plain-text rows rewrites the accounts file once.
+     */
+    private void scheduleUpgrade() {
+        if (upgradeScheduled.compareAndSet(false, true)) {
+            sweeper.schedule(this::writeUpgrades, UPGRADE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void writeUpgrades() {
+        upgradeScheduled.set(false);
+        Map<String, String> batch = new HashMap<>();
+        for (String username : pendingUpgrades.keySet()) {
+            batch.put(username, pendingUpgrades.remove(username));
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, Account> upgraded = new ConcurrentHashMap<>();
+        try {
+            DataFiles.rewriteAccounts(DataFiles.DATABASE_FILE, account -> {
+                String hash = batch.get(account.getUsername());
+                if (hash == null || !hasher.needsRehash(account.getPassword())) {
+                    return account;
+                }
+                Account updated = account.withPassword(hash);
+                upgraded.put(account.getUsername(), updated);
+                return updated;
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        dataContext.getDataThread().execute(() -> upgraded.values().forEach(dataContext::replaceAccount));
+    }
+
+    /**
+     * VerifiedLogin remembers that a password was recently checked against a stored value.
+     */
+    private static final class VerifiedLogin {
+
+        private final String stored;
+        private final String digest;
+        private final long expiresAt;
+
+        VerifiedLogin(String stored, String digest, long expiresAt) {
+            this.stored = stored;
+            this.digest = digest;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean matches(String currentStored, String currentDigest, long now) {
+            return now < expiresAt && stored.equals(currentStored)
+                    && MessageDigest.isEqual(digest.getBytes(StandardCharsets.UTF_8),
+                            currentDigest.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
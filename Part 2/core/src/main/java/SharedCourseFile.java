@@ -0,0 +1,276 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * SharedCourseFile commits course changes to a courses file that several app instances, possibly on different
+ * machines sharing a drive, write at the same time. Instead of writing out its own in-memory copy, which would
+ * silently drop changes other instances made since it loaded, a writer sends only its journal of changes.
+ * The commit takes an exclusive lock on a sidecar lock file, re-reads the latest courses file, replays the
+ * journal onto it, writes the result and bumps the version stamp kept in the lock file. The lock is held only
+ * for that short read-merge-write, and changes from other writers are merged rather than rejected. Every change
+ * that took effect is also appended to the {@link CourseJournal} under the commit's version stamp.
+ * A change can carry a {@link Guard} that is checked against the merged catalog under the lock, so rules such as
+ * the credit limit hold across writers and not just against the caller's own copy.
+ * Concurrent commits within this process are grouped so that they share one write and one fsync.
+ */
+public final class SharedCourseFile {
+
+    private static final String LOCK_SUFFIX = ".lock";
+
+    // FileChannel locks belong to the whole process, so threads of this process queue here first
+    private static final Object PROCESS_LOCK = new Object();
+    // Commit requests waiting for the next group
+    private static final Deque<PendingCommit> PENDING = new ArrayDeque<>();
+
+    private SharedCourseFile() {
+    }
+
+    /**
+     * Replays a journal of changes onto the latest contents of a courses file and writes the result.
+     * Requests from threads that arrive while another commit is writing are grouped: the next thread to get
+     * the lock replays all of their journals in arrival order and writes and fsyncs the file once for the
+     * whole group.
+     * @param filename The courses CSV file.
+     * @param journal The changes to apply, in order.
+     * @return The merged catalog as written, including changes made by other instances. It is shared by the
+     *         whole group and must not be modified.
+     * @throws IOException If the file cannot be locked, read or written.
+     */
+    public static CourseCatalog commit(String filename, List<DataChangeEvent> journal) throws IOException {
+        return commit(filename, journal, (latest, change) -> true);
+    }
+
+    /**
+     * Replays a journal of changes onto the latest contents of a courses file and writes the result, skipping
+     * the changes the guard refuses. The guard sees the merged catalog with every earlier change of the group
+     * applied, so two writers cannot both pass a check that only one of them may.
+     * @param filename The courses CSV file.
+     * @param journal The changes to apply, in order.
+     * @param guard Decides whether each change may be applied. It runs on whichever thread writes the group,
+     *        while the file is locked, so it must be quick and only look at the catalog it is given.
+     * @return The merged catalog as written, including changes made by other instances. It is shared by the
+     *         whole group and must not be modified.
+     * @throws IOException If the file cannot be locked, read or written.
+     */
+    public static CourseCatalog commit(String filename, List<DataChangeEvent> journal, Guard guard)
+            throws IOException {
+        PendingCommit request = new PendingCommit(filename, journal, guard);
+        synchronized (PENDING) {
+            PENDING.add(request);
+        }
+        synchronized (PROCESS_LOCK) {
+            if (!request.done) {
+                List<PendingCommit> group = new ArrayList<>();
+                synchronized (PENDING) {
+                    for (Iterator<PendingCommit> it = PENDING.iterator(); it.hasNext();) {
+                        PendingCommit pending = it.next();
+                        if (pending.filename.equals(filename)) {
+                            group.add(pending);
+                            it.remove();
+                        }
+                    }
+                }
+                CourseCatalog merged = null;
+                IOException failure = null;
+                try {
+                    merged = commitGroup(filename, group);
+                } catch (IOException e) {
+                    failure = e;
+                }
+                for (PendingCommit pending : group) {
+                    pending.result = merged;
+                    pending.failure = failure;
+                    pending.done = true;
+                }
+            }
+            if (request.failure != null) {
+                throw new IOException("Commit to " + filename + " failed", request.failure);
+            }
+            return request.result;
+        }
+    }
+
+    /**
+     * Locks the file against other processes and replays every journal in the group onto its latest
+     * contents with a single write.
+     */
+    private static CourseCatalog commitGroup(String filename, List<PendingCommit> group) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(lockPath(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel.lock();
+            try {
+                FlightEvents.CourseCommit flightEvent = new FlightEvents.CourseCommit();
+                flightEvent.begin();
+                CourseCatalog latest = new CourseCatalog(DataFiles.loadCourses(filename));
+                List<DataChangeEvent> applied = new ArrayList<>();
+                for (PendingCommit pending : group) {
+                    for (DataChangeEvent event : pending.journal) {
+                        if (pending.guard.allows(latest, event) && latest.apply(event)) {
+                            applied.add(event);
+                        }
+                    }
+                }
+                if (!applied.isEmpty()) {
+                    DataFiles.saveCourses(filename, latest.toList());
+                    long version = readVersion(lockChannel) + 1;
+                    CourseJournal.append(filename, version, applied);
+                    writeVersion(lockChannel, version);
+                    lockChannel.force(false);
+                    flightEvent.version = version;
+                }
+                flightEvent.end();
+                if (flightEvent.shouldCommit()) {
+                    flightEvent.file = filename;
+                    flightEvent.commits = group.size();
+                    flightEvent.changes = applied.size();
+                    flightEvent.commit();
+                }
+                return latest;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Runs an action while other writers are held off, without changing the file. The action should be
+     * short, such as opening the file or noting its size, since commits wait for it.
+     * @param filename The courses CSV file.
+     * @param action The action, given the current version stamp.
+     * @return The action's result.
+     * @throws IOException If the file cannot be locked or the action fails.
+     */
+    public static <T> T readLocked(String filename, LockedAction<T> action) throws IOException {
+        synchronized (PROCESS_LOCK) {
+            try (FileChannel lockChannel = FileChannel.open(lockPath(filename), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.lock(0, Long.MAX_VALUE, true);
+                try {
+                    return action.run(readVersion(lockChannel));
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs an action that replaces the courses file wholesale, such as a restore, then gives the result a
+     * new version stamp and records the replacement in the journal.
+     * @param filename The courses CSV file.
+     * @param action The action, given the current version stamp.
+     * @return The new version stamp.
+     * @throws IOException If the file cannot be locked or the action fails.
+     */
+    public static long replaceLocked(String filename, LockedAction<?> action) throws IOException {
+        synchronized (PROCESS_LOCK) {
+            try (FileChannel lockChannel = FileChannel.open(lockPath(filename), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    long version = readVersion(lockChannel);
+                    action.run(version);
+                    CourseJournal.markRestored(filename, version + 1);
+                    writeVersion(lockChannel, version + 1);
+                    lockChannel.force(false);
+                    return version + 1;
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the version stamp of a courses file without taking the lock. The stamp goes up by one with every
+     * commit that changed the file, so an instance can tell cheaply whether it needs to reload.
+     * @param filename The courses CSV file.
+     * @return The number of changing commits so far, or 0 if none have been made.
+     * @throws IOException If the lock file exists but cannot be read.
+     */
+    public static long version(String filename) throws IOException {
+        Path lockPath = lockPath(filename);
+        if (!lockPath.toFile().exists()) {
+            return 0;
+        }
+        try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.READ)) {
+            return readVersion(lockChannel);
+        }
+    }
+
+    private static Path lockPath(String filename) {
+        return Paths.get(filename + LOCK_SUFFIX);
+    }
+
+    private static long readVersion(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // Keep reading until the stamp is complete or the file ends
+        }
+        return buffer.hasRemaining() ? 0 : buffer.getLong(0);
+    }
+
+    private static void writeVersion(FileChannel channel, long version) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, version);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+    }
+
+    /**
+     * LockedAction is work done while holding the courses file lock.
+     * @param <T> The type of the result.
+     */
+    public interface LockedAction<T> {
+
+        /**
+         * @param version The version stamp of the courses file.
+         * @return The result of the action.
+         * @throws IOException If the action fails.
+         */
+        T run(long version) throws IOException;
+    }
+
+    /**
+     * Guard is a rule a change must still pass against the latest contents of the courses file.
+     */
+    public interface Guard {
+
+        /**
+         * @param latest The merged catalog, with the changes before this one applied.
+         * @param change The change about to be applied.
+         * @return True if the change may be applied.
+         */
+        boolean allows(CourseCatalog latest, DataChangeEvent change);
+    }
+
+    /**
+     * PendingCommit is one caller's journal waiting to be written, and the outcome once it has been.
+     * Its outcome fields are only touched while holding the process lock.
+     */
+    private static final class PendingCommit {
+
+        private final String filename;
+        private final List<DataChangeEvent> journal;
+        private final Guard guard;
+        private boolean done;
+        private CourseCatalog result;
+        private IOException failure;
+
+        PendingCommit(String filename, List<DataChangeEvent> journal, Guard guard) {
+            this.filename = filename;
+            this.journal = journal;
+            this.guard = guard;
+        }
+    }
+}
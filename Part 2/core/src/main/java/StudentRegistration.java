@@ -0,0 +1,53 @@
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StudentRegistration is what the student registration window needs from the registration engine. It is
+ * implemented by {@link RegistrationService} over the shared data in this process and by
+ * {@link RegistrationClient} over the HTTP API of a {@link RegistrationServer}.
+ */
+public interface StudentRegistration {
+
+    /**
+     * @param courseCode The code of the course.
+     * @return The credits of the course, or 0 if there is no such course.
+     */
+    int getCredits(String courseCode);
+
+    /**
+     * @param student The student's name.
+     * @return The courses the student is not registered for, as "Course Code, Lecturer".
+     */
+    List<String> getAvailableCourses(String student);
+
+    /**
+     * @param student The student's name.
+     * @return The courses the student is registered for, as "Course Code, Lecturer".
+     */
+    List<String> getRegisteredCourses(String student);
+
+    /**
+     * Checks whether registration is open for a student now.
+     * @param student The student's name.
+     * @return A message explaining why the student may not register now, or null if they may.
+     */
+    String checkWindow(String student);
+
+    /**
+     * Registers a student for every course in their cart, in order.
+     * @param source The window or component making the change.
+     * @param student The student's name.
+     * @param courseCodes The codes of the courses in the cart.
+     * @return The refusal of each course in cart order, null for each course that was registered.
+     */
+    Map<String, String> checkout(Object source, String student, List<String> courseCodes);
+
+    /**
+     * Drops a student from a course.
+     * @param source The window or component making the change.
+     * @param student The student's name.
+     * @param courseCode The code of the course.
+     * @return A message explaining why the drop is refused or could not be saved, or null if it was made.
+     */
+    String drop(Object source, String student, String courseCode);
+}
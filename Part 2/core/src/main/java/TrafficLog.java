@@ -0,0 +1,267 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TrafficLog is a capture of the traffic of one run, as written by {@link TrafficRecorder}, read back into
+ * events in the order they happened. The file starts with a magic number, a version and the wall-clock time
+ * the capture started. Each record is a type byte, the microseconds since the previous record as a varint,
+ * and the record's fields. Usernames, course codes and admin commands repeat constantly, so a string is
+ * written in full the first time it appears and as its varint position in the table of earlier strings
+ * after that. Passwords are never recorded; a login only records whether it succeeded.
+ */
+public final class TrafficLog {
+
+    static final int MAGIC = 0x54524631; // "TRF1"
+    static final int VERSION = 1;
+
+    /**
+     * The kinds of traffic that are captured.
+     */
+    public enum Type {
+        /** A login attempt and whether it succeeded. */
+        LOGIN,
+        /** A course added to a student's cart. */
+        CART_ADD,
+        /** A cart registered, with whether each course was saved. */
+        CHECKOUT,
+        /** A course dropped. */
+        DROP,
+        /** A command typed into the admin portal. */
+        ADMIN_COMMAND;
+
+        private static final Type[] VALUES = values();
+    }
+
+    private final long startMillis;
+    private final List<Event> events;
+
+    private TrafficLog(long startMillis, List<Event> events) {
+        this.startMillis = startMillis;
+        this.events = Collections.unmodifiableList(events);
+    }
+
+    /**
+     * Reads a capture. A capture cut short by a crash is read up to its last complete record.
+     * @param file The capture file.
+     * @return The capture.
+     * @throws IOException If the file cannot be read or is not a capture.
+     */
+    public static TrafficLog read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a traffic capture");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported traffic capture version " + version);
+            }
+            long startMillis = in.readLong();
+
+            List<Event> events = new ArrayList<>();
+            List<String> strings = new ArrayList<>();
+            long offsetMicros = 0;
+            while (true) {
+                int typeIndex = in.read();
+                if (typeIndex < 0) {
+                    break;
+                }
+                try {
+                    if (typeIndex >= Type.VALUES.length) {
+                        throw new IOException("Unknown traffic record type " + typeIndex);
+                    }
+                    offsetMicros += readVarLong(in);
+                    events.add(readEvent(in, Type.VALUES[typeIndex], offsetMicros, strings));
+                } catch (EOFException e) {
+                    // The last record was only partly written
+                    break;
+                }
+            }
+            return new TrafficLog(startMillis, events);
+        }
+    }
+
+    private static Event readEvent(DataInputStream in, Type type, long offsetMicros, List<String> strings)
+            throws IOException {
+        String user = readString(in, strings);
+        List<String> courses = new ArrayList<>();
+        List<Boolean> outcomes = new ArrayList<>();
+        String command = null;
+        switch (type) {
+            case LOGIN:
+                outcomes.add(in.readBoolean());
+                break;
+            case CART_ADD:
+            case DROP:
+                courses.add(readString(in, strings));
+                break;
+            case CHECKOUT:
+                int count = (int) readVarLong(in);
+                for (int i = 0; i < count; i++) {
+                    courses.add(readString(in, strings));
+                    outcomes.add(in.readBoolean());
+                }
+                break;
+            default:
+                command = readString(in, strings);
+                break;
+        }
+        return new Event(type, offsetMicros, user, courses, outcomes, command);
+    }
+
+    /**
+     * Writes a string, or its position if it was written before.
+     */
+    static void writeString(DataOutputStream out, Map<String, Integer> strings, String value)
+            throws IOException {
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeVarLong(out, index);
+            return;
+        }
+        writeVarLong(out, strings.size());
+        out.writeUTF(value);
+        strings.put(value, strings.size());
+    }
+
+    private static String readString(DataInputStream in, List<String> strings) throws IOException {
+        int index = (int) readVarLong(in);
+        if (index < strings.size()) {
+            return strings.get(index);
+        }
+        if (index > strings.size()) {
+            throw new IOException("Traffic capture refers to an unknown string " + index);
+        }
+        String value = in.readUTF();
+        strings.add(value);
+        return value;
+    }
+
+    /**
+     * Writes a non-negative number in 7-bit groups, low group first, so small numbers take one byte.
+     */
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in traffic capture");
+    }
+
+    /**
+     * @return The wall-clock time the capture started, in milliseconds since the epoch.
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * @return The events in the order they were recorded.
+     */
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return The time from the start of the capture to its last event, in microseconds.
+     */
+    public long getDurationMicros() {
+        return events.isEmpty() ? 0 : events.get(events.size() - 1).getOffsetMicros();
+    }
+
+    /**
+     * Event is one captured request.
+     */
+    public static final class Event {
+
+        private final Type type;
+        private final long offsetMicros;
+        private final String user;
+        private final List<String> courses;
+        private final List<Boolean> outcomes;
+        private final String command;
+
+        Event(Type type, long offsetMicros, String user, List<String> courses, List<Boolean> outcomes,
+                String command) {
+            this.type = type;
+            this.offsetMicros = offsetMicros;
+            this.user = user;
+            this.courses = Collections.unmodifiableList(courses);
+            this.outcomes = Collections.unmodifiableList(outcomes);
+            this.command = command;
+        }
+
+        /**
+         * @return The kind of request.
+         */
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return The time since the start of the capture, in microseconds.
+         */
+        public long getOffsetMicros() {
+            return offsetMicros;
+        }
+
+        /**
+         * @return The username that made the request.
+         */
+        public String getUser() {
+            return user;
+        }
+
+        /**
+         * @return The course codes: one for a cart add or drop, the whole cart for a checkout, none otherwise.
+         */
+        public List<String> getCourses() {
+            return courses;
+        }
+
+        /**
+         * @return For a login, whether it succeeded; for a checkout, whether each course was saved.
+         */
+        public List<Boolean> getOutcomes() {
+            return outcomes;
+        }
+
+        /**
+         * @return The admin command as typed, or null for other requests.
+         */
+        public String getCommand() {
+            return command;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%10.3f s %-13s %s %s%s", offsetMicros / 1e6, type, user,
+                    command != null ? command : String.join(";", courses),
+                    outcomes.isEmpty() ? "" : " " + outcomes);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TrafficRecorder captures every login, cart add, checkout, drop and admin command into a compact binary
+ * file that {@link TrafficLog} reads back, so a bad registration day can be replayed later. Recording is off
+ * unless the system property traffic.capture names the file to write; when it is off every method returns
+ * at once. Records are buffered and flushed once a second and when the program exits, so recording costs a
+ * request a few bytes of copying and no disk write.
+ */
+public final class TrafficRecorder implements AutoCloseable {
+
+    /**
+     * The system property naming the capture file.
+     */
+    public static final String CAPTURE_PROPERTY = "traffic.capture";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long FLUSH_INTERVAL_SECONDS = 1;
+    private static final TrafficRecorder INSTANCE = fromProperty();
+
+    private final DataOutputStream out;
+    private final ScheduledExecutorService flusher;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final long startNanos = System.nanoTime();
+    private long lastMicros;
+    private volatile boolean enabled;
+
+    private TrafficRecorder() {
+        this.out = null;
+        this.flusher = null;
+    }
+
+    /**
+     * Starts a capture.
+     * @param file The file to write; it is replaced if it exists.
+     * @throws IOException If the file cannot be created.
+     */
+    public TrafficRecorder(Path file) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        out.writeInt(TrafficLog.MAGIC);
+        out.writeByte(TrafficLog.VERSION);
+        out.writeLong(System.currentTimeMillis());
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "traffic-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+        enabled = true;
+    }
+
+    private static TrafficRecorder fromProperty() {
+        String file = System.getProperty(CAPTURE_PROPERTY, "").trim();
+        if (file.isEmpty()) {
+            return new TrafficRecorder();
+        }
+        try {
+            TrafficRecorder recorder = new TrafficRecorder(Paths.get(file));
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "traffic-recorder-close"));
+            return recorder;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new TrafficRecorder();
+        }
+    }
+
+    /**
+     * @return The recorder configured by the traffic.capture property, which does nothing if it is unset.
+     */
+    public static TrafficRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return True if requests are being recorded.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a login attempt. The password is not recorded.
+     * @param username The entered username.
+     * @param succeeded True if a session was opened.
+     */
+    public void login(String username, boolean succeeded) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            try {
+                begin(TrafficLog.Type.LOGIN, username);
+                out.writeBoolean(succeeded);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Records a course added to a student's cart.
+     * @param student The student's name.
+     * @param courseCode The code of the course.
+     */
+    public void cartAdd(String student, String courseCode) {
+        record(TrafficLog.Type.CART_ADD, student, courseCode);
+    }
+
+    /**
+     * Records a cart being registered.
+     * @param student The student's name.
+     * @param results The refusal of each course in the order they were registered, null if it was saved.
+     */
+    public void checkout(String student, Map<String, String> results) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            try {
+                begin(TrafficLog.Type.CHECKOUT, student);
+                TrafficLog.writeVarLong(out, results.size());
+                for (Map.Entry<String, String> result : results.entrySet()) {
+                    TrafficLog.writeString(out, strings, result.getKey());
+                    out.writeBoolean(result.getValue() == null);
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Records a course being dropped.
+     * @param student The student's name.
+     * @param courseCode The code of the course.
+     */
+    public void drop(String student, String courseCode) {
+        record(TrafficLog.Type.DROP, student, courseCode);
+    }
+
+    /**
+     * Records a command typed into the admin portal.
+     * @param username The admin's username.
+     * @param command The command as typed.
+     */
+    public void adminCommand(String username, String command) {
+        record(TrafficLog.Type.ADMIN_COMMAND, username, command);
+    }
+
+    private void record(TrafficLog.Type type, String user, String value) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            try {
+                begin(type, user);
+                TrafficLog.writeString(out, strings, value);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the type, time and user that start every record. Must hold the lock.
+     */
+    private void begin(TrafficLog.Type type, String user) throws IOException {
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        out.writeByte(type.ordinal());
+        TrafficLog.writeVarLong(out, Math.max(0, micros - lastMicros));
+        lastMicros = Math.max(lastMicros, micros);
+        TrafficLog.writeString(out, strings, user == null ? "" : user);
+    }
+
+    private void fail(IOException e) {
+        // Stop recording rather than fail every request; the capture so far stays readable
+        enabled = false;
+        e.printStackTrace();
+    }
+
+    /**
+     * Writes buffered records to the file.
+     */
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Flushes and closes the capture. Later requests are not recorded.
+     */
+    @Override
+    public synchronized void close() {
+        if (out == null) {
+            return;
+        }
+        flush();
+        enabled = false;
+        flusher.shutdownNow();
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
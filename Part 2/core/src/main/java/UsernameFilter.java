@@ -0,0 +1,111 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * UsernameFilter is a Bloom filter over the usernames that have an account. A login for a name the filter has
+ * never seen can be rejected in constant time, without searching the accounts or hashing the password. The
+ * filter may wrongly report an unknown name as present, about once in a hundred lookups, but never the
+ * reverse. It is sized for twice the accounts it was built from; once it holds that many it should be
+ * rebuilt with {@link #of(Collection)} to keep the false-positive rate down.
+ * Lookups and additions are thread-safe.
+ */
+public final class UsernameFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MINIMUM_CAPACITY = 1024;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private UsernameFilter(int capacity) {
+        this.capacity = capacity;
+        // Optimal sizes for n items at false-positive rate p: m = -n ln p / (ln 2)^2, k = m / n ln 2
+        long bits = (long) Math.ceil(-capacity * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+    }
+
+    /**
+     * Builds a filter holding the given usernames, with room for as many again.
+     * @param usernames The usernames that have an account.
+     * @return The new filter.
+     */
+    public static UsernameFilter of(Collection<String> usernames) {
+        UsernameFilter filter = new UsernameFilter(Math.max(MINIMUM_CAPACITY, usernames.size() * 2));
+        for (String username : usernames) {
+            filter.add(username);
+        }
+        return filter;
+    }
+
+    /**
+     * Adds a username.
+     * @param username The username of a new account.
+     */
+    public void add(String username) {
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                // Another thread set a different bit in the same word; try again
+            }
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * @param username The entered username.
+     * @return False if the username certainly has no account; true if it probably has one.
+     */
+    public boolean mightContain(String username) {
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True once the filter holds as many names as it was sized for.
+     */
+    public boolean isFull() {
+        return size.get() >= capacity;
+    }
+
+    private long index(int combined) {
+        return (combined & 0xffffffffL) % bitCount;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so both halves are well spread.
+     */
+    private static long hash(String username) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
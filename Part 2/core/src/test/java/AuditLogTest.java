@@ -0,0 +1,113 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsRecordsByUserAndCourse() throws IOException {
+        try (AuditLog auditLog = new AuditLog(directory)) {
+            auditLog.record("admin", "ENROLLED", "CS101", "alice");
+            auditLog.record("admin", "ENROLLED", "CS102", "bob");
+            auditLog.record("bob", "DROPPED", "cs102", "bob");
+
+            List<AuditLog.Entry> bob = auditLog.query("bob", null, 0, Long.MAX_VALUE);
+            assertEquals(2, bob.size());
+            assertEquals("ENROLLED", bob.get(0).getAction());
+            assertEquals("DROPPED", bob.get(1).getAction());
+
+            List<AuditLog.Entry> course = auditLog.query(null, "CS102", 0, Long.MAX_VALUE);
+            assertEquals(2, course.size());
+
+            List<AuditLog.Entry> alice = auditLog.query("alice", null, 0, Long.MAX_VALUE);
+            assertEquals(1, alice.size());
+            assertEquals("CS101", alice.get(0).getCourseCode());
+        }
+    }
+
+    @Test
+    void keepsMissingFieldsAsNull() throws IOException {
+        try (AuditLog auditLog = new AuditLog(directory)) {
+            auditLog.record("admin", "LOGIN", null, "");
+
+            AuditLog.Entry entry = auditLog.query("admin", null, 0, Long.MAX_VALUE).get(0);
+            assertNull(entry.getCourseCode());
+            assertNull(entry.getSubject());
+        }
+    }
+
+    @Test
+    void rotatesFilesAndQueriesAcrossThem() throws IOException, InterruptedException {
+        long[] groupStarts = new long[3];
+        try (AuditLog auditLog = new AuditLog(directory, 1)) {
+            for (int group = 0; group < groupStarts.length; group++) {
+                // Files are named by the time of their first record, so each group starts in a later millisecond
+                Thread.sleep(2);
+                groupStarts[group] = System.currentTimeMillis();
+                auditLog.record("admin", "ENROLLED", "CS10" + group, "student" + group);
+                auditLog.flush();
+            }
+            assertEquals(groupStarts.length, auditFiles());
+
+            List<AuditLog.Entry> all = auditLog.query("admin", null, 0, Long.MAX_VALUE);
+            assertEquals(groupStarts.length, all.size());
+            for (int group = 0; group < groupStarts.length; group++) {
+                assertEquals("student" + group, all.get(group).getSubject());
+            }
+
+            List<AuditLog.Entry> later = auditLog.query(null, null, groupStarts[1], Long.MAX_VALUE);
+            assertEquals(2, later.size());
+            assertEquals("CS101", later.get(0).getCourseCode());
+        }
+    }
+
+    @Test
+    void keepsFilesOfWritersSharingTheFolderApart() throws IOException {
+        try (AuditLog first = new AuditLog(directory, 1); AuditLog second = new AuditLog(directory, 1)) {
+            // Files rotated by both writers within the same millisecond must not overwrite each other
+            for (int i = 0; i < 20; i++) {
+                first.record("admin", "ENROLLED", "CS101", "first" + i);
+                first.flush();
+                second.record("admin", "ENROLLED", "CS101", "second" + i);
+                second.flush();
+            }
+            assertEquals(40, auditFiles());
+
+            List<AuditLog.Entry> all = first.query(null, "CS101", 0, Long.MAX_VALUE);
+            assertEquals(40, all.size());
+            long middle = all.get(20).getTimeMillis();
+            long expected = all.stream().filter(entry -> entry.getTimeMillis() >= middle).count();
+            assertEquals(expected, second.query(null, "CS101", middle, Long.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    void keepsRecordsMadeBeforeClose() throws IOException {
+        AuditLog auditLog = new AuditLog(directory);
+        for (int i = 0; i < 10_000; i++) {
+            auditLog.record("admin", "ENROLLED", "CS101", "student" + i);
+        }
+        auditLog.close();
+
+        try (AuditLog reopened = new AuditLog(directory)) {
+            assertEquals(10_000, reopened.query(null, "CS101", 0, Long.MAX_VALUE).size());
+        }
+    }
+
+    private long auditFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log.gz")).count();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CatalogImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void acceptsCoursesWhosePrerequisitesAreKnown() throws IOException {
+        CourseCatalog existing = new CourseCatalog(List.of(Course.create(3, "CS101", "Nil")));
+
+        ImportResult<Course> result = validate(existing,
+                "3,CS201,CS101",
+                "4,CS301,CS201;CS101");
+
+        assertEquals(List.of("CS201", "CS301"), codes(result.getAccepted()));
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        assertEquals(2, result.getRowsRead());
+    }
+
+    @Test
+    void rejectsUnknownPrerequisitesAndTheirDependents() throws IOException {
+        ImportResult<Course> result = validate(new CourseCatalog(),
+                "3,CS201,CS999",
+                "3,CS301,CS201",
+                "3,CS100,Nil");
+
+        assertEquals(List.of("CS100"), codes(result.getAccepted()));
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).contains("unknown prerequisite CS999"), result.getErrors().get(0));
+        assertTrue(result.getErrors().get(1).contains("depends on rejected course CS201"),
+                result.getErrors().get(1));
+    }
+
+    @Test
+    void rejectsCyclesAndCoursesBehindThem() throws IOException {
+        ImportResult<Course> result = validate(new CourseCatalog(),
+                "3,CS201,CS202",
+                "3,CS202,CS201",
+                "3,CS301,CS202",
+                "3,CS100,Nil");
+
+        assertEquals(List.of("CS100"), codes(result.getAccepted()));
+        assertEquals(3, result.getErrors().size());
+        for (String error : result.getErrors()) {
+            assertTrue(error.contains("prerequisite cycle") || error.contains("depends on rejected course"), error);
+        }
+    }
+
+    @Test
+    void rejectsDuplicateCodes() throws IOException {
+        CourseCatalog existing = new CourseCatalog(List.of(Course.create(3, "CS101", "Nil")));
+
+        ImportResult<Course> result = validate(existing,
+                "3,cs101,Nil",
+                "3,CS102,Nil",
+                "4,CS102,Nil");
+
+        assertEquals(List.of("CS102"), codes(result.getAccepted()));
+        assertEquals(List.of("Line 2: duplicate code CS101 already in catalog",
+                "Line 4: duplicate code CS102 (first seen on line 3)"), result.getErrors());
+    }
+
+    @Test
+    void reportsMalformedCredits() throws IOException {
+        ImportResult<Course> result = validate(new CourseCatalog(), "many,CS101,Nil");
+
+        assertTrue(result.getAccepted().isEmpty());
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("Line 2: "), result.getErrors().get(0));
+    }
+
+    private ImportResult<Course> validate(CourseCatalog existing, String... rows) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.join(",", Course.CSV_HEADER));
+        lines.addAll(List.of(rows));
+        Path file = Files.write(directory.resolve("catalog.csv"), lines);
+        return CatalogImporter.validate(file, existing);
+    }
+
+    private static List<String> codes(List<Course> courses) {
+        List<String> codes = new ArrayList<>();
+        for (Course course : courses) {
+            codes.add(course.getCode());
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,23 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CatalogStoreTest {
+
+    @Test
+    void followsPublishedChangesUntilClosed() {
+        CatalogStore store = new CatalogStore(List.of(Course.create(3, "CS101", "Nil")));
+        CatalogSnapshot before = store.snapshot();
+
+        DataChangeBus.getInstance().publish(DataChangeEvent.enrolled(this, "CS101", "alice"));
+        assertTrue(store.snapshot().get("CS101").hasStudent("alice"));
+        assertFalse(before.get("CS101").hasStudent("alice"));
+
+        store.close();
+        DataChangeBus.getInstance().publish(DataChangeEvent.enrolled(this, "CS101", "bob"));
+        assertFalse(store.snapshot().get("CS101").hasStudent("bob"));
+    }
+}
@@ -0,0 +1,60 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class JsonTest {
+
+    @Test
+    void roundTripsTheApiTypes() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("token", "a\"b\\c\n\t\u0001");
+        value.put("credits", 4L);
+        value.put("ratio", 0.5);
+        value.put("open", true);
+        value.put("lecturer", null);
+        value.put("courses", Arrays.asList("CS101", 7L, false, List.of()));
+        value.put("nested", Map.of("empty", new LinkedHashMap<>()));
+
+        String text = Json.write(value);
+
+        assertEquals(value, Json.parse(text));
+        assertEquals(text, Json.write(Json.parse(text)));
+    }
+
+    @Test
+    void readsWhitespaceEscapesAndNumbers() {
+        Object value = Json.parse(" { \"a\" : [ 1 , -2.5e1 , \"\\u00e9\\/\" ] } ");
+
+        assertEquals(Map.of("a", List.of(1L, -25.0, "é/")), value);
+    }
+
+    @Test
+    void rejectsDeepNestingInsteadOfOverflowingTheStack() {
+        String deepest = "[".repeat(64) + "]".repeat(64);
+        assertEquals(List.of(), unwrap(Json.parse(deepest), 63));
+
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[".repeat(65) + "]".repeat(65)));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[".repeat(100_000)));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":".repeat(100_000)));
+    }
+
+    @Test
+    void rejectsMalformedDocuments() {
+        for (String text : new String[] { "", "{", "[1,]", "{\"a\" 1}", "tru", "\"open", "1 2", "{1:2}" }) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(text), text);
+        }
+    }
+
+    private static Object unwrap(Object value, int levels) {
+        for (int i = 0; i < levels; i++) {
+            value = ((List<?>) value).get(0);
+        }
+        return value;
+    }
+}
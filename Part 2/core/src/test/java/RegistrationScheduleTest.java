@@ -0,0 +1,105 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RegistrationScheduleTest {
+
+    private static final Account INTAKE_2022 = student("1221304161");
+    private static final Account INTAKE_2023 = student("1231300007");
+
+    @Test
+    void parsesEachKindOfCohort() {
+        assertEquals(RegistrationSchedule.Cohort.Kind.ALL, RegistrationSchedule.Cohort.parse(" All ").getKind());
+        assertEquals("intake 2022", RegistrationSchedule.Cohort.parse("intake 2022").toString());
+        assertEquals("id 1221300000-1221309999",
+                RegistrationSchedule.Cohort.parse("ID   1221300000-1221309999").toString());
+        assertEquals("credits 0-5", RegistrationSchedule.Cohort.parse("credits 0-5").toString());
+    }
+
+    @Test
+    void rejectsMalformedCohorts() {
+        assertThrows(IllegalArgumentException.class, () -> RegistrationSchedule.Cohort.parse("year 2022"));
+        assertThrows(IllegalArgumentException.class, () -> RegistrationSchedule.Cohort.parse("intake"));
+        assertThrows(IllegalArgumentException.class, () -> RegistrationSchedule.Cohort.parse("intake 2022 2023"));
+        assertThrows(IllegalArgumentException.class, () -> RegistrationSchedule.Cohort.parse("credits 10-5"));
+        assertThrows(IllegalArgumentException.class, () -> RegistrationSchedule.Cohort.parse("id 12x"));
+    }
+
+    @Test
+    void matchesStudentsByIntakeIdAndCredits() {
+        RegistrationSchedule.Cohort intake = RegistrationSchedule.Cohort.parse("intake 2022");
+        assertTrue(intake.includes(INTAKE_2022, 0));
+        assertFalse(intake.includes(INTAKE_2023, 0));
+        assertFalse(intake.includes(null, 0));
+
+        RegistrationSchedule.Cohort ids = RegistrationSchedule.Cohort.parse("id 1221300000-1221309999");
+        assertTrue(ids.includes(INTAKE_2022, 0));
+        assertFalse(ids.includes(INTAKE_2023, 0));
+        assertFalse(ids.includes(student("not-a-number"), 0));
+
+        RegistrationSchedule.Cohort credits = RegistrationSchedule.Cohort.parse("credits 6");
+        assertTrue(credits.includes(null, 6));
+        assertFalse(credits.includes(INTAKE_2022, 7));
+
+        assertTrue(RegistrationSchedule.Cohort.parse("all").includes(null, 0));
+    }
+
+    @Test
+    void givesEachStudentTheFirstSlotThatIncludesThem() {
+        RegistrationSchedule.Slot early = slot("2024-01-01T09:00", "2024-01-02T09:00", "intake 2022");
+        RegistrationSchedule.Slot late = slot("2024-01-03T09:00", "2024-01-04T09:00", "all");
+        RegistrationSchedule schedule = RegistrationSchedule.of(List.of(early, late));
+
+        assertSame(early, schedule.slotFor(INTAKE_2022, 0));
+        assertSame(late, schedule.slotFor(INTAKE_2023, 0));
+        assertNull(RegistrationSchedule.of(List.of(early)).slotFor(INTAKE_2023, 0));
+        assertSame(RegistrationSchedule.EMPTY, RegistrationSchedule.of(List.of()));
+    }
+
+    @Test
+    void opensAndClosesAtTheSlotTimes() {
+        RegistrationSchedule.Slot slot = slot("2024-01-01T09:00", "2024-01-01T17:00", "all");
+        long opens = millis("2024-01-01T09:00");
+        long closes = millis("2024-01-01T17:00");
+
+        assertTrue(slot.isUpcoming(opens - 1));
+        assertFalse(slot.isOpen(opens - 1));
+        assertTrue(slot.isOpen(opens));
+        assertTrue(slot.isOpen(closes - 1));
+        assertFalse(slot.isOpen(closes));
+        assertFalse(slot.isUpcoming(closes));
+    }
+
+    @Test
+    void roundTripsSlotRows() {
+        RegistrationSchedule.Slot slot = slot("2024-01-01T09:00", "2024-01-01T17:00", "credits 0-5");
+        RegistrationSchedule.Slot parsed = RegistrationSchedule.Slot.fromRow(slot.toRow());
+
+        assertEquals(slot.toString(), parsed.toString());
+        assertThrows(IllegalArgumentException.class,
+                () -> RegistrationSchedule.Slot.fromRow(new String[] { "2024-01-02T09:00", "2024-01-01T09:00", "all" }));
+        assertThrows(IllegalArgumentException.class,
+                () -> RegistrationSchedule.Slot.fromRow(new String[] { "tomorrow", "2024-01-01T09:00", "all" }));
+    }
+
+    private static RegistrationSchedule.Slot slot(String opens, String closes, String cohort) {
+        return RegistrationSchedule.Slot.fromRow(new String[] { opens, closes, cohort });
+    }
+
+    private static long millis(String time) {
+        return LocalDateTime.parse(time).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Account student(String id) {
+        return new Account(Account.Type.STUDENT, "student" + id, 20, id, "secret");
+    }
+}
@@ -0,0 +1,113 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RegistrationServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<DataChangeEvent> published = new ArrayList<>();
+    private final Consumer<DataChangeEvent> listener = published::add;
+    private CourseCatalog catalog;
+
+    @BeforeEach
+    void subscribe() {
+        catalog = new CourseCatalog(List.of(Course.create(3, "CS101", "Nil")));
+        DataChangeBus.getInstance().subscribe(listener);
+    }
+
+    @AfterEach
+    void unsubscribe() {
+        DataChangeBus.getInstance().unsubscribe(listener);
+    }
+
+    @Test
+    void savesAppliesAndPublishesARegistration() throws IOException {
+        String coursesFile = directory.resolve("courses.csv").toString();
+        DataFiles.saveCourses(coursesFile, catalog.toList());
+        RegistrationService registration = new RegistrationService(catalog, coursesFile);
+
+        assertNull(registration.register(this, "alice", "CS101"));
+
+        assertTrue(catalog.get("CS101").hasStudent("alice"));
+        assertTrue(new CourseCatalog(DataFiles.loadCourses(coursesFile)).get("CS101").hasStudent("alice"));
+        assertEquals(1, published.size());
+
+        assertNull(registration.drop(this, "alice", "CS101"));
+        assertFalse(catalog.get("CS101").hasStudent("alice"));
+        assertEquals(2, published.size());
+
+        assertNotNull(registration.drop(this, "alice", "CS101"));
+        assertNotNull(registration.drop(this, "alice", "CS999"));
+        assertEquals(2, published.size());
+    }
+
+    @Test
+    void checksTheRulesAgainstChangesFromOtherInstances() throws IOException {
+        String coursesFile = directory.resolve("courses.csv").toString();
+        List<Course> courses = List.of(Course.create(6, "CS201", "Nil"), Course.create(6, "CS202", "Nil"),
+                Course.create(3, "CS101", "Nil"));
+        DataFiles.saveCourses(coursesFile, courses);
+        RegistrationService first = new RegistrationService(new CourseCatalog(courses), coursesFile);
+        CourseCatalog secondCatalog = new CourseCatalog(courses);
+        RegistrationService second = new RegistrationService(secondCatalog, coursesFile);
+
+        assertNull(first.register(this, "alice", "CS201"));
+        assertNull(first.register(this, "alice", "CS202"));
+        // The second instance has not seen those, but the file has 12 credits already
+        assertNotNull(second.register(this, "alice", "CS101"));
+        assertNotNull(second.register(this, "alice", "CS201"));
+
+        CourseCatalog saved = new CourseCatalog(DataFiles.loadCourses(coursesFile));
+        assertFalse(saved.get("CS101").hasStudent("alice"));
+        assertEquals(12, new RegistrationService(saved, coursesFile).getCreditsRegistered("alice"));
+        assertEquals(12, second.getCreditsRegistered("alice"));
+    }
+
+    @Test
+    void leavesTheCatalogAloneWhenTheFileCannotBeWritten() {
+        // A courses file in a folder that does not exist cannot be read or written
+        String coursesFile = directory.resolve("missing").resolve("courses.csv").toString();
+        RegistrationService registration = new RegistrationService(catalog, coursesFile);
+
+        assertNotNull(registration.register(this, "alice", "CS101"));
+
+        assertFalse(catalog.get("CS101").hasStudent("alice"));
+        assertTrue(published.isEmpty());
+        catalog.apply(DataChangeEvent.enrolled(this, "CS101", "alice"));
+        assertEquals(RegistrationService.SAVE_FAILED, registration.drop(this, "alice", "CS101"));
+        assertTrue(catalog.get("CS101").hasStudent("alice"));
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void looksUpTheWindowAgainOnceTheAccountExists() {
+        LocalDateTime now = LocalDateTime.now();
+        RegistrationSchedule schedule = RegistrationSchedule.of(List.of(new RegistrationSchedule.Slot(
+                now.minusHours(1), now.plusHours(1), RegistrationSchedule.Cohort.parse("intake 2022"))));
+        Map<String, Account> accounts = new HashMap<>();
+        RegistrationService registration = new RegistrationService(catalog, "courses.csv", schedule, accounts::get);
+
+        assertNotNull(registration.checkWindow("alice"));
+
+        accounts.put("alice", new Account(Account.Type.STUDENT, "alice", 20, "1221300001", "hash"));
+        assertNull(registration.checkWindow("alice"));
+    }
+}
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedCourseFileTest {
+
+    @TempDir
+    Path directory;
+
+    private String coursesFile;
+
+    @BeforeEach
+    void writeCatalog() throws IOException {
+        coursesFile = directory.resolve("courses.csv").toString();
+        DataFiles.saveCourses(coursesFile,
+                List.of(Course.create(3, "CS101", "Nil"), Course.create(4, "CS102", "Nil")));
+    }
+
+    @Test
+    void mergesChangesMadeByOtherWriters() throws IOException {
+        // Two writers that loaded the same catalog each commit only their own change
+        SharedCourseFile.commit(coursesFile, List.of(DataChangeEvent.enrolled(this, "CS101", "alice")));
+        CourseCatalog merged = SharedCourseFile.commit(coursesFile,
+                List.of(DataChangeEvent.lecturerAssigned(this, "CS102", "drsmith")));
+
+        assertTrue(merged.get("CS101").hasStudent("alice"));
+        assertEquals("drsmith", merged.get("CS102").getLecturer());
+        CourseCatalog onDisk = new CourseCatalog(DataFiles.loadCourses(coursesFile));
+        assertTrue(onDisk.get("CS101").hasStudent("alice"));
+        assertEquals("drsmith", onDisk.get("CS102").getLecturer());
+        assertEquals(2, SharedCourseFile.version(coursesFile));
+    }
+
+    @Test
+    void leavesTheVersionAloneWhenNothingChanges() throws IOException {
+        SharedCourseFile.commit(coursesFile, List.of(DataChangeEvent.enrolled(this, "CS101", "alice")));
+        SharedCourseFile.commit(coursesFile, List.of(DataChangeEvent.enrolled(this, "CS101", "alice")));
+
+        assertEquals(1, SharedCourseFile.version(coursesFile));
+        assertEquals(1, CourseJournal.read(coursesFile, 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    void groupsConcurrentCommitsWithoutLosingAny() throws Exception {
+        int writers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CourseCatalog>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < writers; i++) {
+                String student = "student" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return SharedCourseFile.commit(coursesFile,
+                            Collections.singletonList(DataChangeEvent.enrolled(this, "CS101", student)));
+                }));
+            }
+            start.countDown();
+            for (Future<CourseCatalog> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        CourseCatalog onDisk = new CourseCatalog(DataFiles.loadCourses(coursesFile));
+        assertEquals(writers, onDisk.get("CS101").getStudentCount());
+        // Every writer sees its own change in the catalog it is given back
+        for (int i = 0; i < writers; i++) {
+            assertTrue(results.get(i).get().get("CS101").hasStudent("student" + i));
+        }
+        // Grouped writers share a version stamp, so there are at most as many versions as writers
+        long version = SharedCourseFile.version(coursesFile);
+        assertTrue(version >= 1 && version <= writers, "version " + version);
+        assertEquals(writers, CourseJournal.read(coursesFile, 0, version).size());
+    }
+}
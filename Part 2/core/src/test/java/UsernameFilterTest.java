@@ -0,0 +1,53 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class UsernameFilterTest {
+
+    @Test
+    void containsEveryNameItWasBuiltFromOrGiven() {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            usernames.add("student" + i);
+        }
+        UsernameFilter filter = UsernameFilter.of(usernames);
+        filter.add("newcomer");
+
+        for (String username : usernames) {
+            assertTrue(filter.mightContain(username), username);
+        }
+        assertTrue(filter.mightContain("newcomer"));
+    }
+
+    @Test
+    void rejectsMostUnknownNames() {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            usernames.add("student" + i);
+        }
+        UsernameFilter filter = UsernameFilter.of(usernames);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("stranger" + i)) {
+                falsePositives++;
+            }
+        }
+        // Sized for 1% at twice the names it holds, so well under that here
+        assertTrue(falsePositives < 100, falsePositives + " false positives");
+    }
+
+    @Test
+    void reportsFullOnceItHoldsItsCapacity() {
+        UsernameFilter filter = UsernameFilter.of(List.of());
+        assertFalse(filter.isFull());
+        for (int i = 0; i < 1024; i++) {
+            filter.add("user" + i);
+        }
+        assertTrue(filter.isFull());
+    }
+}
@@ -0,0 +1,302 @@
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+
+// 1. Class description.
+/**
+ * AdminControlGUI is a JavaFX application for an admin control interface with login functionality
+ * and the ability to create user accounts, storing the information in a CSV file.
+ */
+public class AdminControlGUI extends Application {
+
+    private TextField usernameField;
+    private PasswordField passwordField;
+    // Checks new accounts for duplicate usernames and IDs
+    private AccountProvisioner provisioner;
+    // Shared data; its provisioner already knows about accounts created in other windows
+    private AppDataContext dataContext;
+    // Admin session handed over by MainApp, if any
+    private Session session;
+
+    // 2. Constructor and method description.
+    /**
+     * Creates the window; the data files are loaded when it starts, as when it is launched on its own.
+     */
+    public AdminControlGUI() {
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Creates the window on top of the data MainApp has already loaded. A session with the right role
+     * skips the window's own login.
+     * @param dataContext The shared application data.
+     * @param session The session of the user already logged in, or null to ask for credentials.
+     */
+    public AdminControlGUI(AppDataContext dataContext, Session session) {
+        this.dataContext = dataContext;
+        this.session = session;
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * The main method to launch the JavaFX application.
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Start method to initialize the primary stage and set up the login GUI.
+     * @param primaryStage The primary stage for the JavaFX application.
+     */
+    @Override
+    public void start(Stage primaryStage) {
+        // GUI initialization code...
+        // Original code for GUI initialization
+        primaryStage.setTitle("Admin Control GUI");
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 20, 20, 20));
+
+        Label usernameLabel = new Label("Username:");
+        Label passwordLabel = new Label("Password:");
+
+        usernameField = new TextField();
+        passwordField = new PasswordField();
+
+        Button loginButton = new Button("Login");
+        loginButton.setOnAction(e -> handleLogin());
+
+        grid.add(usernameLabel, 0, 0);
+        grid.add(usernameField, 1, 0);
+        grid.add(passwordLabel, 0, 1);
+        grid.add(passwordField, 1, 1);
+        grid.add(loginButton, 1, 2);
+
+        Scene scene = new Scene(grid, 300, 150);
+        primaryStage.setScene(scene);
+
+        if (dataContext == null) {
+            dataContext = AppDataContext.load(FxDataThread.INSTANCE);
+        }
+        if (dataContext.getSessions().hasRole(session, Session.Role.ADMIN)) {
+            // Already logged in as admin
+            showAdminPanel();
+            return;
+        }
+        primaryStage.show();
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Handles the login button action, validating admin credentials.
+     */
+    private void handleLogin() {
+        // Login validation code...
+        // Original code for login validation
+        String enteredUsername = usernameField.getText();
+        String enteredPassword = passwordField.getText();
+
+        // The password is checked on the hashing pool; the result is handled back on the FX thread
+        dataContext.getSessions().loginAsync(enteredUsername, enteredPassword).whenComplete((loggedIn, error) ->
+                Platform.runLater(() -> {
+                    if (error != null) {
+                        showAlert("Server Busy", "Too many logins are being checked. Please try again.");
+                    } else if (loggedIn != null && loggedIn.getRole() == Session.Role.ADMIN) {
+                        session = loggedIn;
+                        showAdminPanel();
+                    } else {
+                        showAlert("Invalid Credentials", "Please enter correct admin username and password.");
+                    }
+                }));
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Displays the admin panel upon successful login.
+     */
+    private void showAdminPanel() {
+        // Admin panel initialization code...
+        // Original code for admin panel initialization
+        Stage adminPanelStage = new Stage();
+        adminPanelStage.setTitle("Admin Panel");
+
+        provisioner = dataContext.getProvisioner();
+
+        GridPane adminPanelGrid = new GridPane();
+        adminPanelGrid.setHgap(10);
+        adminPanelGrid.setVgap(10);
+        adminPanelGrid.setPadding(new Insets(20, 20, 20, 20));
+
+        Label userLabel = new Label("User Info:");
+        Label nameLabel = new Label("Name:");
+        Label ageLabel = new Label("Age:");
+        Label idLabel = new Label("ID:");
+        Label typeLabel = new Label("Type:");
+        Label passwordLabel = new Label("Password:");
+
+        TextField nameField = new TextField();
+        TextField ageField = new TextField();
+        TextField idField = new TextField();
+        TextField passwordField = new PasswordField();
+
+        ChoiceBox<String> typeChoiceBox = new ChoiceBox<>();
+        typeChoiceBox.getItems().addAll("Student", "Lecturer");
+        typeChoiceBox.setValue("Student");
+
+        Button createUserButton = new Button("Create User");
+        createUserButton.setOnAction(e -> createUserAccount(
+                nameField.getText(),
+                ageField.getText(),
+                idField.getText(),
+                typeChoiceBox.getValue(),
+                passwordField.getText()
+        ));
+
+        adminPanelGrid.add(userLabel, 0, 0);
+        adminPanelGrid.add(nameLabel, 0, 1);
+        adminPanelGrid.add(nameField, 1, 1);
+        adminPanelGrid.add(ageLabel, 0, 2);
+        adminPanelGrid.add(ageField, 1, 2);
+        adminPanelGrid.add(idLabel, 0, 3);
+        adminPanelGrid.add(idField, 1, 3);
+        adminPanelGrid.add(typeLabel, 0, 4);
+        adminPanelGrid.add(typeChoiceBox, 1, 4);
+        adminPanelGrid.add(passwordLabel, 0, 5);
+        adminPanelGrid.add(passwordField, 1, 5);
+        adminPanelGrid.add(createUserButton, 1, 6);
+
+        Button importRosterButton = new Button("Import Roster...");
+        importRosterButton.setOnAction(e -> importRoster(adminPanelStage));
+        adminPanelGrid.add(importRosterButton, 1, 7);
+
+        Scene adminPanelScene = new Scene(adminPanelGrid, 400, 290);
+        adminPanelStage.setScene(adminPanelScene);
+
+        adminPanelStage.show();
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Creates a user account and writes the information to a CSV file.
+     * @param name User's name.
+     * @param age User's age.
+     * @param id User's ID.
+     * @param type User's type (Student or Lecturer).
+     * @param password User's password.
+     */
+    private void createUserAccount(String name, String age, String id, String type, String password) {
+        // User account creation and CSV writing code...
+        // Original code for user account creation and CSV writing
+        Account account;
+        try {
+            account = new Account(Account.Type.fromLabel(type), name, Integer.parseInt(age.trim()), id, password);
+        } catch (IllegalArgumentException e) {
+            showAlert("Error", "Age must be a whole number.");
+            return;
+        }
+
+        String clash = provisioner.checkUnique(account);
+        if (clash != null) {
+            showAlert("Error", "Cannot create account: " + clash + ".");
+            return;
+        }
+
+        // Hash the password on the hashing pool, then store the account on the FX thread
+        PasswordHasher.getInstance().hashAsync(password).whenComplete((hash, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                showAlert("Error", "The server is busy. Please try again.");
+                return;
+            }
+            Account stored = account.withPassword(hash);
+            try {
+                String lateClash = provisioner.create(stored);
+                if (lateClash != null) {
+                    showAlert("Error", "Cannot create account: " + lateClash + ".");
+                    return;
+                }
+                DataChangeEvent created = DataChangeEvent.userCreated(this, stored);
+                AuditLog.getInstance().record(getActor(), created);
+                DataChangeBus.getInstance().publish(created);
+                showAlert("Success", type + " account created successfully!");
+            } catch (IOException e) {
+                showAlert("Error", "An error occurred while writing to the database.");
+            }
+        }));
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Creates accounts in bulk from a roster file chosen by the admin. All accepted accounts are
+     * written in one batch and a single report lists the rejected rows.
+     * @param owner The window that owns the file chooser.
+     */
+    private void importRoster(Stage owner) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Roster");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = fileChooser.showOpenDialog(owner);
+        if (file == null) {
+            return;
+        }
+
+        // Hashing every password in the roster takes a while, so the import runs in the background
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return provisioner.provision(file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                showAlert("Error", "An error occurred while importing the roster: " + error.getCause().getMessage());
+                return;
+            }
+            for (Account account : result.getAccepted()) {
+                DataChangeEvent created = DataChangeEvent.userCreated(this, account);
+                AuditLog.getInstance().record(getActor(), created);
+                DataChangeBus.getInstance().publish(created);
+            }
+            showAlert("Roster Imported", result.summary(20));
+        }));
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Names the admin for the audit log.
+     * @return The username of the logged-in admin.
+     */
+    private String getActor() {
+        return session != null ? session.getUsername() : "admin";
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Displays an alert dialog with the specified title and message.
+     * @param title Title of the alert dialog.
+     * @param message Message to be displayed in the alert dialog.
+     */
+    private void showAlert(String title, String message) {
+        // Alert dialog code...
+        // Original code for alert dialog
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
@@ -0,0 +1,379 @@
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.PasswordField;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// 1. Class description.
+/**
+ * AdminPortalUI is a JavaFX application for an admin portal interface with login functionality
+ * and commands to view course information stored in a CSV file.
+ */
+public class AdminPortalUI extends Application {
+
+    private static final int AUDIT_LIMIT = 500;
+
+    private TextField usernameField;
+    private PasswordField passwordField;
+    private TextArea outputArea;
+    private TextField commandField;
+    private Stage primaryStage;
+    private final BackupManager backupManager = new BackupManager(Paths.get("."));
+    // Shared data; reports read pinned snapshots of its catalog store
+    private AppDataContext dataContext;
+    // Admin session handed over by MainApp, if any
+    private Session session;
+
+    // 2. Constructor and method description.
+    /**
+     * Creates the portal; the data files are loaded when it starts, as when it is launched on its own.
+     */
+    public AdminPortalUI() {
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Creates the portal on top of the data MainApp has already loaded. A session with the right role
+     * skips the portal's own login.
+     * @param dataContext The shared application data.
+     * @param session The session of the user already logged in, or null to ask for credentials.
+     */
+    public AdminPortalUI(AppDataContext dataContext, Session session) {
+        this.dataContext = dataContext;
+        this.session = session;
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * The main method to launch the JavaFX application.
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Start method to initialize the primary stage and set up the login GUI.
+     * @param primaryStage The primary stage for the JavaFX application.
+     */
+    @Override
+    public void start(Stage primaryStage) {
+        // GUI initialization code...
+        // Original code for GUI initialization
+        this.primaryStage = primaryStage;
+        primaryStage.setTitle("Admin Portal");
+        if (dataContext == null) {
+            dataContext = AppDataContext.load(FxDataThread.INSTANCE);
+        }
+
+        // Create UI components
+        usernameField = new TextField();
+        passwordField = new PasswordField();
+        Button loginButton = new Button("Login");
+        outputArea = new TextArea();
+        outputArea.setEditable(false);
+        commandField = new TextField();
+        GridPane grid = new GridPane();
+
+        // Layout setup
+        grid.setPadding(new Insets(20, 20, 20, 20));
+        grid.setVgap(10);
+        grid.setHgap(10);
+
+        // Add components to the grid
+        grid.add(new Label("Username:"), 0, 0);
+        grid.add(usernameField, 1, 0);
+        grid.add(new Label("Password:"), 0, 1);
+        grid.add(passwordField, 1, 1);
+        grid.add(loginButton, 1, 2);
+        grid.add(new Label("Output:"), 0, 3);
+        grid.add(outputArea, 1, 3);
+
+        // Login button event handler
+        loginButton.setOnAction(e -> {
+            String username = usernameField.getText();
+            String password = passwordField.getText();
+
+            outputArea.setText("Checking credentials...");
+            authenticateAdmin(username, password).whenComplete((isAuthenticated, ex) -> Platform.runLater(() -> {
+                if (ex != null) {
+                    outputArea.setText("Too many logins are being checked. Please try again.");
+                } else if (isAuthenticated) {
+                    showCommandPage();
+                } else {
+                    outputArea.setText("Invalid credentials. Please try again.");
+                }
+            }));
+        });
+
+        Scene scene = new Scene(grid, 600, 400);
+        primaryStage.setScene(scene);
+        if (dataContext.getSessions().hasRole(session, Session.Role.ADMIN)) {
+            // Already logged in as admin
+            showCommandPage();
+        }
+        primaryStage.show();
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Switches to the command page after the admin has logged in.
+     */
+    private void showCommandPage() {
+        outputArea.setText("Login successful.\nEnter command (/view [course name], /view all, /metrics, /audit [user:name] [course:code] [from:time] [to:time], /schedule, /schedule add [opens] [closes] [cohort], /schedule remove [number], /backup, /backups or /restore [snapshot] [version]): ");
+        primaryStage.setScene(createCommandPage());
+    }
+
+    // 2. Constructor and method description.
+    /**
+     * Creates a scene for the command page with a command input field and output area.
+     * @return The Scene for the command page.
+     */
+    private Scene createCommandPage() {
+        // Command page setup code...
+        // Original code for command page setup
+        GridPane commandGrid = new GridPane();
+        commandGrid.setPadding(new Insets(20, 20, 20, 20));
+        commandGrid.setVgap(10);
+        commandGrid.setHgap(10);
+
+        // Add components to the commandGrid
+        commandGrid.add(new Label("Command:"), 0, 0);
+        commandGrid.add(commandField, 1, 0);
+        commandGrid.add(new Label("Output:"), 0, 1);
+        commandGrid.add(outputArea, 1, 1);
+
+        commandField.setOnAction(e -> setupCommandInput());
+
+        return new Scene(commandGrid, 600, 400);
+    }
+
+    // 3. Parameter description.
+    /**
+     * Processes the user's command input and displays the output accordingly.
+     */
+    private void setupCommandInput() {
+        // Command processing code...
+        // Original code for command processing
+        String command = commandField.getText().trim();
+        TrafficRecorder.getInstance().adminCommand(session != null ? session.getUsername() : "admin", command);
+
+        if ("/view all".equalsIgnoreCase(command)) {
+            String output = CourseReports.viewAllCourses(dataContext.getCatalogStore().snapshot());
+            displayOutputInNewScene(output);
+        } else if (command.startsWith("/view ")) {
+            String courseName = command.substring("/view ".length()).trim();
+            String output = CourseReports.viewCourse(dataContext.getCatalogStore().snapshot(), courseName);
+            displayOutputInNewScene(output);
+        } else if ("/audit".equalsIgnoreCase(command) || command.startsWith("/audit ")) {
+            try {
+                displayOutputInNewScene(queryAudit(command.substring("/audit".length()).trim()));
+            } catch (IOException | IllegalArgumentException | DateTimeParseException e) {
+                outputArea.setText("Error: " + e.getMessage());
+            }
+        } else if ("/schedule".equalsIgnoreCase(command) || command.startsWith("/schedule ")) {
+            try {
+                displayOutputInNewScene(editSchedule(command.substring("/schedule".length()).trim()));
+            } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                outputArea.setText("Error: " + e.getMessage());
+            }
+        } else if ("/metrics".equalsIgnoreCase(command)) {
+            displayOutputInNewScene(Metrics.getInstance().report());
+        } else if ("/backup".equalsIgnoreCase(command)) {
+            try {
+                String name = backupManager.snapshot();
+                outputArea.setText("Snapshot " + name + " taken at version " + backupManager.versionOf(name) + ".");
+            } catch (IOException e) {
+                outputArea.setText("Error: " + e.getMessage());
+            }
+        } else if ("/backups".equalsIgnoreCase(command)) {
+            try {
+                displayOutputInNewScene(listBackups());
+            } catch (IOException e) {
+                outputArea.setText("Error: " + e.getMessage());
+            }
+        } else if (command.startsWith("/restore ")) {
+            restore(command.substring("/restore ".length()).trim().split("\\s+"));
+        } else {
+            outputArea.setText("Invalid command.");
+        }
+    }
+
+    // 3. Parameter description.
+    /**
+     * Restores a snapshot off the application thread, then reloads the shared data from the restored files
+     * so every open window shows the restored state before success is reported.
+     * @param arguments The snapshot name and, optionally, the course version to replay the journal up to.
+     */
+    private void restore(String[] arguments) {
+        outputArea.setText("Restoring " + arguments[0] + "...");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                long version = arguments.length > 1 ? Long.parseLong(arguments[1])
+                        : backupManager.versionOf(arguments[0]);
+                long restoredVersion = backupManager.restore(arguments[0], version);
+                dataContext.reload(this).join();
+                return "Restored " + arguments[0] + " up to version " + version
+                        + "; data is now at version " + restoredVersion + ".";
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((message, error) -> Platform.runLater(() ->
+                outputArea.setText(error == null ? message : "Error: " + error.getCause().getMessage())));
+    }
+
+    // 4. Return value description.
+    /**
+     * Lists the available backup snapshots with the course version each was taken at.
+     * @return A formatted string listing the snapshots.
+     * @throws IOException If the backups cannot be read.
+     */
+    private String listBackups() throws IOException {
+        StringBuilder output = new StringBuilder("Backup snapshots\n");
+        for (String name : backupManager.listSnapshots()) {
+            output.append(name).append(" (version ").append(backupManager.versionOf(name)).append(")\n");
+        }
+        return output.toString();
+    }
+
+    // 4. Return value description.
+    /**
+     * Searches the audit log. Filters are given as user:name, course:code, from:time and to:time, with times
+     * like 2024-01-31T09:00 in local time; a missing filter matches everything.
+     * @param arguments The filters, separated by spaces.
+     * @return A formatted string listing the most recent matching records.
+     * @throws IOException If the audit files cannot be read.
+     */
+    private String queryAudit(String arguments) throws IOException {
+        String user = null;
+        String courseCode = null;
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        for (String filter : arguments.isEmpty() ? new String[0] : arguments.split("\\s+")) {
+            int colon = filter.indexOf(':');
+            String key = colon < 0 ? filter : filter.substring(0, colon);
+            String value = filter.substring(colon + 1);
+            switch (key) {
+                case "user":
+                    user = value;
+                    break;
+                case "course":
+                    courseCode = value;
+                    break;
+                case "from":
+                    from = LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    break;
+                case "to":
+                    to = LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown filter " + filter);
+            }
+        }
+
+        List<AuditLog.Entry> entries = AuditLog.getInstance().query(user, courseCode, from, to);
+        StringBuilder output = new StringBuilder("Audit log: ").append(entries.size()).append(" records");
+        if (entries.size() > AUDIT_LIMIT) {
+            output.append(", showing the last ").append(AUDIT_LIMIT);
+        }
+        output.append("\n");
+        for (AuditLog.Entry entry : entries.subList(Math.max(0, entries.size() - AUDIT_LIMIT), entries.size())) {
+            output.append(entry).append("\n");
+        }
+        return output.toString();
+    }
+
+    // 4. Return value description.
+    /**
+     * Shows or changes the registration windows. "add" takes the opening and closing times, like
+     * 2024-01-31T09:00 in local time, and a cohort: all, intake 2022, id 1221300000-1221309999 or credits 0-5.
+     * "remove" takes the number of a slot as listed. Changes are saved to the schedule file at once.
+     * @param arguments Nothing to show the schedule, or the change to make.
+     * @return A formatted string listing the slots.
+     * @throws IOException If the schedule file cannot be written.
+     */
+    private String editSchedule(String arguments) throws IOException {
+        RegistrationService registration = dataContext.getRegistration();
+        RegistrationSchedule schedule = registration.getSchedule();
+        String[] words = arguments.split("\\s+", 4);
+        if ("add".equalsIgnoreCase(words[0]) && words.length == 4) {
+            schedule = schedule.withSlot(RegistrationSchedule.Slot.fromRow(new String[] { words[1], words[2],
+                    words[3] }));
+        } else if ("remove".equalsIgnoreCase(words[0]) && words.length == 2) {
+            schedule = schedule.withoutSlot(Integer.parseInt(words[1]) - 1);
+        } else if (!arguments.isEmpty()) {
+            throw new IllegalArgumentException("Use /schedule, /schedule add [opens] [closes] [cohort]"
+                    + " or /schedule remove [number]");
+        }
+        if (schedule != registration.getSchedule()) {
+            DataFiles.saveSchedule(DataFiles.SCHEDULE_FILE, schedule);
+            registration.setSchedule(schedule);
+        }
+        return "Registration windows\n" + schedule;
+    }
+
+    // 4. Return value description.
+    /**
+     * Authenticates the admin based on the provided username and password. The password is checked on the
+     * hashing pool.
+     * @param username The entered username.
+     * @param password The entered password.
+     * @return A future completed with true if authentication is successful, false otherwise.
+     */
+    private CompletableFuture<Boolean> authenticateAdmin(String username, String password) {
+        // Authentication code...
+        // Original code for admin authentication
+        return dataContext.getSessions().loginAsync(username, password).thenApply(loggedIn -> {
+            if (loggedIn == null || loggedIn.getRole() != Session.Role.ADMIN) {
+                return false;
+            }
+            session = loggedIn;
+            return true;
+        });
+    }
+
+    // 4. Return value description.
+    /**
+     * Retrieves the user's name from the database based on the provided username.
+     * @param username The username for which to retrieve the name.
+     * @return The user's name if found, an empty string otherwise.
+     */
+    private String getUserNameFromDatabase(String username) {
+        // Retrieve user name from database code...
+        // Original code for retrieving user name from the database
+        for (Account account : dataContext.getAccounts()) {
+            if (account.getUsername().trim().equals(username)) {
+                return account.getUsername().trim();
+            }
+        }
+        return "";
+    }
+
+    // 3. Parameter description.
+    /**
+     * Displays the provided output in a new scene and goes back to the command page.
+     * @param output The output to be displayed.
+     */
+    private void displayOutputInNewScene(String output) {
+        // Display output in a new scene code...
+        // Original code for displaying output in a new scene
+        outputArea.setText(output);
+        primaryStage.setScene(createCommandPage()); // Go back to the command page after displaying the output
+    }
+}
@@ -0,0 +1,624 @@
+
+/**
+ * CourseManagementSystemUI is a JavaFX application for managing courses and assigning lecturers.
+ * It allows an admin user to log in, assign lecturers to courses, and add new courses.
+ * The application uses CSV files for storing course and user data.
+ */
+
+import javafx.application.Application;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Pair;
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public class CourseManagementSystemUI extends Application {
+
+    private CourseCatalog coursesData;
+    private List<Account> databaseData;
+    private ComboBox<String> courseCodeComboBox;
+    private ComboBox<String> lecturerNameComboBox;
+    private TextField newCourseCodeField;
+    private TextField newCourseCreditField;
+    private TextField newCoursePrerequisiteField;
+
+    private static final String LECTURER_PREFERENCES_FILE = "lecturer_preferences.csv";
+
+    // Shared data; changes made by other windows are applied to it before this window hears of them
+    private AppDataContext dataContext;
+    // Admin session handed over by MainApp, if any
+    private Session session;
+    // Refreshes the lists shown for changes made by other open windows
+    private final Consumer<DataChangeEvent> changeListener = this::onDataChanged;
+
+    /**
+     * Creates the window; the data files are loaded when it starts, as when it is launched on its own.
+     */
+    public CourseManagementSystemUI() {
+    }
+
+    /**
+     * Creates the window on top of the data MainApp has already loaded. A session with the right role
+     * skips the window's own login.
+     *
+     * @param dataContext The shared application data.
+     * @param session The session of the user already logged in, or null to ask for credentials.
+     */
+    public CourseManagementSystemUI(AppDataContext dataContext, Session session) {
+        this.dataContext = dataContext;
+        this.session = session;
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    /**
+     * The entry point of the JavaFX application.
+     *
+     * @param primaryStage The primary stage for the application window.
+     */
+    @Override
+    public void start(Stage primaryStage) {
+        if (dataContext == null) {
+            dataContext = AppDataContext.load(FxDataThread.INSTANCE);
+        }
+        if (dataContext.getSessions().hasRole(session, Session.Role.ADMIN)) {
+            showMainWindow(primaryStage);
+        } else {
+            showLoginDialog(() -> showMainWindow(primaryStage));
+        }
+    }
+
+    /**
+     * Builds and shows the main window once the admin is logged in.
+     *
+     * @param primaryStage The primary stage for the application window.
+     */
+    private void showMainWindow(Stage primaryStage) {
+        // Continue with the main application
+        primaryStage.setTitle("Course Management System");
+
+        // Use the shared catalog kept sorted by credits
+        coursesData = dataContext.getCourses();
+        databaseData = dataContext.getAccounts();
+
+        // Create UI components
+        GridPane gridPane = createGridPane();
+        addLabels(gridPane);
+        addComboBoxes(gridPane);
+        addNewCourseFields(gridPane);
+        addButton(gridPane);
+
+        // Set up the scene
+        Scene scene = new Scene(gridPane, 400, 310);
+        primaryStage.setScene(scene);
+
+        // Keep in sync with the other windows until this one closes
+        DataChangeBus.getInstance().subscribe(changeListener);
+        primaryStage.setOnHidden(e -> DataChangeBus.getInstance().unsubscribe(changeListener));
+
+        primaryStage.show();
+    }
+
+    /**
+     * Shows a login dialog for the admin user. The password is checked on the hashing pool, so the
+     * window stays responsive while it runs.
+     *
+     * @param onLogin Run on the JavaFX application thread if the login is successful.
+     */
+    private void showLoginDialog(Runnable onLogin) {
+        Dialog<Pair<String, String>> loginDialog = new Dialog<>();
+        loginDialog.setTitle("Login Dialog");
+        loginDialog.setHeaderText("Enter your credentials");
+
+        // Set the button types
+        ButtonType loginButtonType = new ButtonType("Login", ButtonBar.ButtonData.OK_DONE);
+        loginDialog.getDialogPane().getButtonTypes().addAll(loginButtonType, ButtonType.CANCEL);
+
+        // Create the username and password labels and fields
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField username = new TextField();
+        username.setPromptText("Username");
+        PasswordField password = new PasswordField();
+        password.setPromptText("Password");
+
+        grid.add(new Label("Username:"), 0, 0);
+        grid.add(username, 1, 0);
+        grid.add(new Label("Password:"), 0, 1);
+        grid.add(password, 1, 1);
+
+        // Enable/Disable login button depending on whether a username was entered.
+        Node loginButton = loginDialog.getDialogPane().lookupButton(loginButtonType);
+        loginButton.setDisable(true);
+
+        // Do some validation (using the Java 8 lambda syntax).
+        username.textProperty().addListener((observable, oldValue, newValue) -> {
+            loginButton.setDisable(newValue.trim().isEmpty());
+        });
+
+        loginDialog.getDialogPane().setContent(grid);
+
+        // Request focus on the username field by default.
+        Platform.runLater(username::requestFocus);
+
+        // Convert the result to a username-password-pair when the login button is
+        // clicked.
+        loginDialog.setResultConverter(dialogButton -> {
+            if (dialogButton == loginButtonType) {
+                return new Pair<>(username.getText(), password.getText());
+            }
+            return null;
+        });
+
+        Optional<Pair<String, String>> result = loginDialog.showAndWait();
+
+        if (!result.isPresent()) {
+            return;
+        }
+        // No window is open while the password is checked; keep JavaFX running until the result arrives
+        Platform.setImplicitExit(false);
+        dataContext.getSessions().loginAsync(result.get().getKey(), result.get().getValue())
+                .whenComplete((loggedIn, error) -> Platform.runLater(() -> {
+                    Platform.setImplicitExit(true);
+                    if (error != null) {
+                        showAlert("Server Busy", "Too many logins are being checked. Please try again.");
+                    } else if (loggedIn != null && loggedIn.getRole() == Session.Role.ADMIN) {
+                        session = loggedIn;
+                        onLogin.run();
+                    } else {
+                        showAlert("Invalid Credentials", "Please enter correct admin username and password.");
+                    }
+                }));
+    }
+
+    /**
+     * Creates a new instance of GridPane with default padding and gap settings.
+     *
+     * @return A new GridPane instance.
+     */
+    private GridPane createGridPane() {
+        GridPane gridPane = new GridPane();
+        gridPane.setPadding(new Insets(10, 10, 10, 10));
+        gridPane.setVgap(5);
+        gridPane.setHgap(5);
+        return gridPane;
+    }
+
+    /**
+     * Adds labels to the specified GridPane.
+     *
+     * @param gridPane The GridPane to which labels are added.
+     */
+    private void addLabels(GridPane gridPane) {
+        Label courseCodeLabel = new Label("Course Code:");
+        GridPane.setConstraints(courseCodeLabel, 0, 0);
+
+        Label lecturerNameLabel = new Label("Lecturer Name:");
+        GridPane.setConstraints(lecturerNameLabel, 0, 1);
+
+        Label newCourseLabel = new Label("Add New Course:");
+        GridPane.setConstraints(newCourseLabel, 0, 3, 2, 1);
+
+        gridPane.getChildren().addAll(courseCodeLabel, lecturerNameLabel, newCourseLabel);
+    }
+
+    /**
+     * Adds ComboBoxes for course code and lecturer name to the specified GridPane.
+     *
+     * @param gridPane The GridPane to which ComboBoxes are added.
+     */
+    private void addComboBoxes(GridPane gridPane) {
+        courseCodeComboBox = new ComboBox<>(FXCollections.observableArrayList(getCourseCodes()));
+        GridPane.setConstraints(courseCodeComboBox, 1, 0);
+
+        lecturerNameComboBox = new ComboBox<>(FXCollections.observableArrayList(getLecturerNames()));
+        GridPane.setConstraints(lecturerNameComboBox, 1, 1);
+
+        gridPane.getChildren().addAll(courseCodeComboBox, lecturerNameComboBox);
+    }
+
+    /**
+     * Adds buttons for assigning a lecturer and adding a new course to the
+     * specified GridPane.
+     *
+     * @param gridPane The GridPane to which buttons are added.
+     */
+    private void addNewCourseFields(GridPane gridPane) {
+        Label newCourseCodeLabel = new Label("Course Code:");
+        GridPane.setConstraints(newCourseCodeLabel, 0, 4);
+
+        newCourseCodeField = new TextField();
+        GridPane.setConstraints(newCourseCodeField, 1, 4);
+
+        Label newCourseCreditLabel = new Label("Course Credit:");
+        GridPane.setConstraints(newCourseCreditLabel, 0, 5);
+
+        newCourseCreditField = new TextField();
+        GridPane.setConstraints(newCourseCreditField, 1, 5);
+
+        Label newCoursePrerequisiteLabel = new Label("Prerequisite:");
+        GridPane.setConstraints(newCoursePrerequisiteLabel, 0, 6);
+
+        newCoursePrerequisiteField = new TextField();
+        GridPane.setConstraints(newCoursePrerequisiteField, 1, 6);
+
+        gridPane.getChildren().addAll(newCourseCodeLabel, newCourseCodeField, newCourseCreditLabel,
+                newCourseCreditField, newCoursePrerequisiteLabel, newCoursePrerequisiteField);
+    }
+
+    private void addButton(GridPane gridPane) {
+        Button assignButton = new Button("Assign Lecturer");
+        GridPane.setConstraints(assignButton, 0, 2, 2, 1);
+
+        assignButton.setOnAction(e -> {
+            if (assignLecturer()) {
+                showAlert("Lecturer Assigned", "Lecturer assigned successfully!");
+            }
+        });
+
+        Button addCourseButton = new Button("Add Course");
+        GridPane.setConstraints(addCourseButton, 0, 7, 2, 1);
+
+        addCourseButton.setOnAction(e -> {
+            if (addNewCourse()) {
+                showAlert("Course Added", "New course added successfully!");
+            }
+        });
+
+        Button importButton = new Button("Import Catalog...");
+        GridPane.setConstraints(importButton, 0, 8, 2, 1);
+
+        importButton.setOnAction(e -> importCatalog());
+
+        Button autoAssignButton = new Button("Auto-Assign Lecturers...");
+        GridPane.setConstraints(autoAssignButton, 0, 9, 2, 1);
+
+        autoAssignButton.setOnAction(e -> showAutoAssignDialog());
+
+        gridPane.getChildren().addAll(assignButton, addCourseButton, importButton, autoAssignButton);
+    }
+
+    /**
+     * Displays an information alert dialog.
+     *
+     * @param title   The title of the alert.
+     * @param content The content text of the alert.
+     */
+    private void showAlert(String title, String content) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
+    /**
+     * Commits changes to courses.csv. Only the changes are sent, so changes that other instances
+     * sharing the file made in the meantime are kept. The caller applies and publishes the changes
+     * only if they were saved.
+     *
+     * @param changes The changes to commit, in order.
+     * @return true if the changes were saved; false if the file could not be written, which the admin is told.
+     */
+    private boolean saveCourses(List<DataChangeEvent> changes) {
+        try {
+            SharedCourseFile.commit(DataFiles.COURSES_FILE, changes);
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert("Save Failed", "The courses could not be saved: " + e.getMessage());
+            return false;
+        }
+        for (DataChangeEvent change : changes) {
+            AuditLog.getInstance().record(session != null ? session.getUsername() : "admin", change);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves a list of course codes from the loaded course data.
+     *
+     * @return A list of course codes.
+     */
+    private List<String> getCourseCodes() {
+        List<String> courseCodes = new ArrayList<>();
+        for (Course course : coursesData.courses()) {
+            courseCodes.add(course.getCode());
+        }
+        return courseCodes;
+    }
+
+    /**
+     * Retrieves a list of lecturer names from the loaded user data.
+     *
+     * @return A list of lecturer names.
+     */
+    private List<String> getLecturerNames() {
+        List<String> lecturerNames = new ArrayList<>();
+        for (Account account : databaseData) {
+            if (account.getType() == Account.Type.LECTURER) {
+                lecturerNames.add(account.getUsername());
+            }
+        }
+        return lecturerNames;
+    }
+
+    /**
+     * Assigns a lecturer to a selected course and updates the data accordingly.
+     *
+     * @return true if the lecturer was assigned; false if nothing was selected or the save failed.
+     */
+    private boolean assignLecturer() {
+        String selectedCourseCode = courseCodeComboBox.getValue();
+        String selectedLecturerName = lecturerNameComboBox.getValue();
+
+        if (selectedCourseCode == null || selectedLecturerName == null) {
+            return false;
+        }
+
+        // Save the assignment to the CSV file
+        DataChangeEvent event = DataChangeEvent.lecturerAssigned(this, selectedCourseCode, selectedLecturerName);
+        if (!saveCourses(Collections.singletonList(event))) {
+            return false;
+        }
+
+        // Update the coursesData with the assigned lecturer
+        // Credits are unchanged, so the course keeps its place and nothing is re-sorted
+        coursesData.apply(event);
+        DataChangeBus.getInstance().publish(event);
+        return true;
+    }
+
+    /**
+     * Adds a new course with the entered details and updates the data accordingly.
+     *
+     * @return true if the course was added; false if the input was incomplete or invalid.
+     */
+    private boolean addNewCourse() {
+        String newCourseCode = newCourseCodeField.getText().toUpperCase();
+        String newCourseCredit = newCourseCreditField.getText();
+        String newCoursePrerequisite = newCoursePrerequisiteField.getText();
+
+        if (newCourseCode.isEmpty() || newCourseCredit.isEmpty()) {
+            return false;
+        }
+
+        Course newCourse;
+        try {
+            newCourse = Course.create(Course.parseCredits(newCourseCredit), newCourseCode, newCoursePrerequisite);
+        } catch (IllegalArgumentException e) {
+            showAlert("Invalid Course", "Course credit must be a whole number.");
+            return false;
+        }
+
+        if (coursesData.contains(newCourse.getCode())) {
+            showAlert("Invalid Course", "Course " + newCourse.getCode() + " already exists.");
+            return false;
+        }
+
+        // Save the new course to the CSV file
+        DataChangeEvent event = DataChangeEvent.courseAdded(this, newCourse);
+        if (!saveCourses(Collections.singletonList(event))) {
+            return false;
+        }
+
+        // Insert the new course at its sorted position
+        coursesData.add(newCourse);
+
+        // Update the course code combo box with just the new entry
+        insertCourseCode(newCourse.getCode());
+        DataChangeBus.getInstance().publish(event);
+        return true;
+    }
+
+    /**
+     * Lets the admin pick a catalog file, validates it in a single pass and adds all valid courses
+     * with one save. Rejected rows are listed in the report.
+     */
+    private void importCatalog() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Course Catalog");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = fileChooser.showOpenDialog(courseCodeComboBox.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        ImportResult<Course> result;
+        try {
+            result = CatalogImporter.validate(file.toPath(), coursesData);
+        } catch (IOException e) {
+            showAlert("Import Failed", "Could not read " + file.getName() + ": " + e.getMessage());
+            return;
+        }
+
+        if (!result.getAccepted().isEmpty()) {
+            List<DataChangeEvent> events = new ArrayList<>();
+            for (Course course : result.getAccepted()) {
+                events.add(DataChangeEvent.courseAdded(this, course));
+            }
+            if (!saveCourses(events)) {
+                return;
+            }
+            for (Course course : result.getAccepted()) {
+                coursesData.add(course);
+            }
+
+            // One replacement of the combo box items instead of thousands of single inserts
+            courseCodeComboBox.getItems().setAll(getCourseCodes());
+            for (DataChangeEvent event : events) {
+                DataChangeBus.getInstance().publish(event);
+            }
+        }
+
+        showAlert("Import Complete", result.summary(20));
+    }
+
+    /**
+     * Shows a preview of a balanced lecturer assignment for all courses without a lecturer and applies
+     * it if the admin confirms. The load metric and an optional per-lecturer limit can be changed
+     * before applying; preferences are read from lecturer_preferences.csv when it exists.
+     */
+    private void showAutoAssignDialog() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Auto-Assign Lecturers");
+        dialog.setHeaderText("Review the proposed assignments before applying them.");
+
+        ChoiceBox<LecturerAssignmentPlanner.LoadMetric> metricChoiceBox = new ChoiceBox<>(
+                FXCollections.observableArrayList(LecturerAssignmentPlanner.LoadMetric.values()));
+        metricChoiceBox.setValue(LecturerAssignmentPlanner.LoadMetric.CREDITS);
+        TextField maxLoadField = new TextField();
+        maxLoadField.setPromptText("No limit");
+        TextArea previewArea = new TextArea();
+        previewArea.setEditable(false);
+        previewArea.setPrefRowCount(15);
+
+        GridPane grid = createGridPane();
+        grid.add(new Label("Balance by:"), 0, 0);
+        grid.add(metricChoiceBox, 1, 0);
+        grid.add(new Label("Max load per lecturer:"), 0, 1);
+        grid.add(maxLoadField, 1, 1);
+        grid.add(previewArea, 0, 2, 2, 1);
+        dialog.getDialogPane().setContent(grid);
+
+        ButtonType applyButtonType = new ButtonType("Apply", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(applyButtonType, ButtonType.CANCEL);
+
+        LecturerAssignmentPlanner.Plan[] plan = new LecturerAssignmentPlanner.Plan[1];
+        Runnable refresh = () -> {
+            plan[0] = planAssignments(metricChoiceBox.getValue(), maxLoadField.getText().trim());
+            previewArea.setText(plan[0] == null ? "Max load must be a whole number." : plan[0].describe());
+            dialog.getDialogPane().lookupButton(applyButtonType)
+                    .setDisable(plan[0] == null || plan[0].getAssignments().isEmpty());
+        };
+        metricChoiceBox.valueProperty().addListener((observable, oldValue, newValue) -> refresh.run());
+        maxLoadField.textProperty().addListener((observable, oldValue, newValue) -> refresh.run());
+        refresh.run();
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == applyButtonType && plan[0] != null) {
+            List<DataChangeEvent> events = new ArrayList<>();
+            for (Map.Entry<String, String> assignment : plan[0].getAssignments().entrySet()) {
+                events.add(DataChangeEvent.lecturerAssigned(this, assignment.getKey(), assignment.getValue()));
+            }
+            if (!saveCourses(events)) {
+                return;
+            }
+            for (DataChangeEvent event : events) {
+                coursesData.apply(event);
+                DataChangeBus.getInstance().publish(event);
+            }
+            showAlert("Lecturers Assigned", events.size() + " courses assigned.");
+        }
+    }
+
+    /**
+     * Runs the assignment planner over the current catalog and lecturers.
+     *
+     * @param metric      How course load is measured.
+     * @param maxLoadText The per-lecturer limit, or an empty string for no limit.
+     * @return The plan, or null if the limit is not a number.
+     */
+    private LecturerAssignmentPlanner.Plan planAssignments(LecturerAssignmentPlanner.LoadMetric metric,
+            String maxLoadText) {
+        LecturerAssignmentPlanner planner = new LecturerAssignmentPlanner(metric);
+        if (!maxLoadText.isEmpty()) {
+            try {
+                planner.setDefaultMaxLoad(Integer.parseInt(maxLoadText));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        loadLecturerPreferences(planner);
+        return planner.plan(coursesData.courses(), getLecturerNames());
+    }
+
+    /**
+     * Reads optional lecturer preferences, one line per lecturer in the form
+     * "lecturer,CS111;CS222".
+     *
+     * @param planner The planner receiving the preferences.
+     */
+    private void loadLecturerPreferences(LecturerAssignmentPlanner planner) {
+        File preferencesFile = new File(LECTURER_PREFERENCES_FILE);
+        if (!preferencesFile.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(preferencesFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length >= 2) {
+                    planner.addPreferences(parts[0].trim(), Arrays.asList(parts[1].trim().split(";")));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Shows a change published by another window in the combo boxes. Only the affected entry is
+     * touched; nothing is reloaded from disk.
+     *
+     * @param event The published change.
+     */
+    private void onDataChanged(DataChangeEvent event) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> onDataChanged(event));
+            return;
+        }
+        if (event.getSource() == this) {
+            return;
+        }
+
+        // The shared data context has already applied the change
+        if (event.getType() == DataChangeEvent.Type.USER_CREATED) {
+            Account account = event.getAccount();
+            if (account.getType() == Account.Type.LECTURER
+                    && !lecturerNameComboBox.getItems().contains(account.getUsername())) {
+                lecturerNameComboBox.getItems().add(account.getUsername());
+            }
+        } else if (event.getType() == DataChangeEvent.Type.COURSE_ADDED) {
+            insertCourseCode(event.getCourseCode());
+        } else if (event.getType() == DataChangeEvent.Type.RELOADED) {
+            courseCodeComboBox.setItems(FXCollections.observableArrayList(getCourseCodes()));
+            lecturerNameComboBox.setItems(FXCollections.observableArrayList(getLecturerNames()));
+        }
+    }
+
+    /**
+     * Inserts a course code into the course combo box at the same position it has in the catalog,
+     * using a binary search over the codes already shown. Codes already shown are not added again.
+     *
+     * @param courseCode The code of a course already added to the catalog.
+     */
+    private void insertCourseCode(String courseCode) {
+        List<String> items = courseCodeComboBox.getItems();
+        int index = Collections.binarySearch(items, courseCode, coursesData::compareCodes);
+        if (index < 0) {
+            items.add(-index - 1, courseCode);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+import javafx.application.Platform;
+
+/**
+ * FxDataThread confines the shared application data to the JavaFX application thread, so the windows can read
+ * and change it from their event handlers.
+ */
+public final class FxDataThread implements DataThread {
+
+    /**
+     * The JavaFX application thread.
+     */
+    public static final FxDataThread INSTANCE = new FxDataThread();
+
+    private FxDataThread() {
+    }
+
+    @Override
+    public boolean isCurrent() {
+        return Platform.isFxApplicationThread();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Platform.runLater(task);
+    }
+}
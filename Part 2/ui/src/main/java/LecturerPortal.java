@@ -1,28 +1,42 @@
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The `LecturerPortal` class is a JavaFX application representing a login portal for lecturers.
  * Lecturers can log in, and upon successful login, they gain access to a portal to execute commands.
- * The application reads lecturer credentials from a CSV file and allows lecturers to view students
+ * The application checks lecturer credentials against the shared user accounts and allows lecturers to view students
  * associated with their courses.
  */
 public class LecturerPortal extends Application {
 
-    // Map to store lecturer credentials (username -> password)
-    private Map<String, String> lecturerCredentials;
-    // Path to the CSV file containing course information
-    private String coursesFilePath = "courses.csv";
+    // Shared accounts and courses, kept current with changes made by other open windows
+    private AppDataContext dataContext;
+    // Lecturer session handed over by MainApp, if any
+    private Session session;
+
+    /**
+     * Creates the portal; the data files are loaded when it starts, as when it is launched on its own.
+     */
+    public LecturerPortal() {
+    }
+
+    /**
+     * Creates the portal on top of the data MainApp has already loaded. A session with the right role
+     * skips the portal's own login.
+     * @param dataContext The shared application data.
+     * @param session The session of the user already logged in, or null to ask for credentials.
+     */
+    public LecturerPortal(AppDataContext dataContext, Session session) {
+        this.dataContext = dataContext;
+        this.session = session;
+    }
 
     /**
      * The entry point of the JavaFX application.
@@ -33,13 +47,14 @@ public class LecturerPortal extends Application {
     }
 
     /**
-     * Initializes the JavaFX application by reading lecturer credentials from the database CSV file.
+     * Initializes the JavaFX application, loading the data files first if it was started on its own.
      * @param primaryStage The primary stage for the application window.
      */
     @Override
     public void start(Stage primaryStage) {
-        // Read lecturer credentials from the CSV file
-        readLecturerCredentials();
+        if (dataContext == null) {
+            dataContext = AppDataContext.load(FxDataThread.INSTANCE);
+        }
 
         primaryStage.setTitle("Lecturer Portal Login");
 
@@ -59,15 +74,25 @@ public class LecturerPortal extends Application {
             String username = usernameField.getText();
             String password = passwordField.getText();
 
-            if (validateLogin(username, password)) {
-                showLecturerPortal(username);
-            } else {
-                showAlert("Invalid Credentials", "Please check your username and password.");
-            }
+            validateLogin(username, password).whenComplete((valid, error) -> Platform.runLater(() -> {
+                if (error != null) {
+                    showAlert("Server Busy", "Too many logins are being checked. Please try again.");
+                } else if (valid) {
+                    showLecturerPortal(username);
+                } else {
+                    showAlert("Invalid Credentials", "Please check your username and password.");
+                }
+            }));
         });
 
         Scene scene = new Scene(vbox, 300, 200);
         primaryStage.setScene(scene);
+
+        if (dataContext.getSessions().hasRole(session, Session.Role.LECTURER)) {
+            // Already logged in as a lecturer
+            showLecturerPortal(session.getUsername());
+            return;
+        }
         primaryStage.show();
     }
 
@@ -117,17 +142,12 @@ public class LecturerPortal extends Application {
         // StringBuilder to construct the result
         StringBuilder result = new StringBuilder();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(coursesFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 5 && parts[4].equalsIgnoreCase(lecturerName)) {
-                    String studentName = parts[3];
+        for (Course course : dataContext.getCourses().courses()) {
+            if (course.getLecturer().equalsIgnoreCase(lecturerName)) {
+                for (String studentName : course.getStudents()) {
                     result.append(studentName).append(";");
                 }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
 
         // Check if any students were found
@@ -142,35 +162,19 @@ public class LecturerPortal extends Application {
     }
 
     /**
-     * Validates the login credentials of the lecturer.
+     * Validates the login credentials of the lecturer. The password is checked on the hashing pool.
      * @param username The entered username for validation.
      * @param password The entered password for validation.
-     * @return True if the credentials are valid, false otherwise.
-     */
-    private boolean validateLogin(String username, String password) {
-        return lecturerCredentials.containsKey(username) && lecturerCredentials.get(username).equals(password);
-    }
-
-    /**
-     * Reads lecturer credentials from the database CSV file and populates the lecturerCredentials map.
+     * @return A future completed with true if the credentials are valid, false otherwise.
      */
-    private void readLecturerCredentials() {
-        lecturerCredentials = new HashMap<>();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader("database.csv"))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 5 && parts[0].equalsIgnoreCase("Lecturer")) {
-                    String username = parts[1];
-                    String lecturerName = parts[2];
-                    String password = parts[4];
-                    lecturerCredentials.put(username, password);
-                }
+    private CompletableFuture<Boolean> validateLogin(String username, String password) {
+        return dataContext.getSessions().loginAsync(username, password).thenApply(loggedIn -> {
+            if (loggedIn == null || loggedIn.getRole() != Session.Role.LECTURER) {
+                return false;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+            session = loggedIn;
+            return true;
+        });
     }
 
     /**
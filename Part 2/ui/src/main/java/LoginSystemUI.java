@@ -1,6 +1,7 @@
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -8,11 +9,9 @@ import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * This class represents a JavaFX application implementing a simple login system with user authentication
@@ -32,6 +31,26 @@ public class LoginSystemUI extends Application {
     private Label countdownLabel;
     // Timeline for countdown
     private Timeline countdownTimeline;
+    // Shared user accounts checked on login
+    private AppDataContext dataContext;
+    // Session opened by the last successful login
+    private Session session;
+    // Called once the user has logged in
+    private Consumer<Session> onLogin = loggedIn -> { };
+
+    /**
+     * Creates the login window; the data files are loaded when it starts, as when it is launched on its own.
+     */
+    public LoginSystemUI() {
+    }
+
+    /**
+     * Creates the login window on top of the data MainApp has already loaded.
+     * @param dataContext The shared application data.
+     */
+    public LoginSystemUI(AppDataContext dataContext) {
+        this.dataContext = dataContext;
+    }
 
     /**
      * The main method to launch the JavaFX application.
@@ -48,6 +67,9 @@ public class LoginSystemUI extends Application {
     @Override
     public void start(Stage primaryStage) {
         primaryStage.setTitle("Login System");
+        if (dataContext == null) {
+            dataContext = AppDataContext.load(FxDataThread.INSTANCE);
+        }
 
         // Create the main GridPane layout
         GridPane loginGridPane = createGridPane();
@@ -118,50 +140,30 @@ public class LoginSystemUI extends Application {
                 return; // Skip the login attempt
             }
 
-            // Authenticate the user and get the user type
-            UserType userType = authenticateAndGetUserType(enteredUsername, enteredPassword);
-
-            if (userType != null) {
-                showAlert("Login Successful", "Welcome, " + enteredUsername + "! You are a " + userType + ".");
-                userLoggedIn = true; // Set the userLoggedIn flag to true on successful login
-                closeWindow(); // Close the login window after successful login
-            } else {
-                failedAttempts++;
-                if (failedAttempts >= 3) {
-                    lockUser(enteredUsername);
-                }
-                showAlert("Login Failed", "Invalid username or password. Please try again.");
-            }
+            // Authenticate the user and open a session; the password is checked on the hashing pool
+            loginButton.setDisable(true);
+            dataContext.getSessions().loginAsync(enteredUsername, enteredPassword).whenComplete((loggedIn, error) ->
+                    Platform.runLater(() -> {
+                        loginButton.setDisable(false);
+                        if (error != null) {
+                            showAlert("Login Failed", "Too many logins are being checked. Please try again.");
+                        } else if (loggedIn != null) {
+                            showAlert("Login Successful", "Welcome, " + enteredUsername + "! You are a " + loggedIn.getRole() + ".");
+                            userLoggedIn = true; // Set the userLoggedIn flag to true on successful login
+                            session = loggedIn;
+                            closeWindow(); // Close the login window after successful login
+                            onLogin.accept(loggedIn);
+                        } else {
+                            failedAttempts++;
+                            if (failedAttempts >= 3) {
+                                lockUser(enteredUsername);
+                            }
+                            showAlert("Login Failed", "Invalid username or password. Please try again.");
+                        }
+                    }));
         });
     }
 
-    /**
-     * Authenticates the user by reading from a CSV file and returns the user type.
-     * @param enteredUsername The entered username for authentication.
-     * @param enteredPassword The entered password for authentication.
-     * @return The UserType of the authenticated user, or null if authentication fails.
-     */
-    private UserType authenticateAndGetUserType(String enteredUsername, String enteredPassword) {
-        String csvFile = "database.csv";
-        String line;
-        String cvsSplitBy = ",";
-
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-            while ((line = br.readLine()) != null) {
-                String[] user = line.split(cvsSplitBy);
-
-                // Check if username and password match
-                if (user.length >= 4 && user[1].equals(enteredUsername) && user[4].equals(enteredPassword)) {
-                    return UserType.valueOf(user[0].toUpperCase());
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return null;
-    }
-
     /**
      * Locks the user account by adding the username to the set of locked usernames and starting a countdown.
      * @param username The username to be locked.
@@ -222,10 +224,17 @@ public class LoginSystemUI extends Application {
     }
 
     /**
-     * Enum representing different user types.
+     * @return The session opened by the last successful login, or null if the user has not logged in.
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Sets what happens once the user has logged in, for callers that open a module afterwards.
+     * @param onLogin Receives the new session.
      */
-    enum UserType {
-        STUDENT,
-        LECTURER
+    public void setOnLogin(Consumer<Session> onLogin) {
+        this.onLogin = onLogin;
     }
 }
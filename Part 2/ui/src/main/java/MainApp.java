@@ -0,0 +1,154 @@
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+public class MainApp extends Application {
+
+    // Publishes external edits of the data files to the open windows
+    private DataFileWatcher dataFileWatcher;
+    // Data shared by every module, loaded in the background while the menu is shown
+    private CompletableFuture<AppDataContext> dataContext;
+    // Session of the user logged in through the menu, shared by the modules it opens
+    private Session session;
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage primaryStage) {
+        primaryStage.setTitle("Main App");
+
+        try {
+            // Clean up after a crash before anything reads the data files
+            DataFiles.recover(DataFiles.COURSES_FILE, line -> DataFiles.parseCourseLine(line) != null);
+            DataFiles.recover(DataFiles.DATABASE_FILE, line -> DataFiles.parseAccountLine(line) != null);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        dataContext = AppDataContext.preload(ForkJoinPool.commonPool(), FxDataThread.INSTANCE);
+        try {
+            dataFileWatcher = DataFileWatcher.start(Paths.get("."),
+                    schedule -> dataContext.thenAccept(context -> context.setSchedule(schedule)));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        GridPane panel = new GridPane();
+        panel.setPadding(new Insets(10, 10, 10, 10));
+        panel.setVgap(5);
+        panel.setHgap(5);
+
+        Button adminControlButton = new Button("1. Admin Control");
+        adminControlButton.setOnAction(e -> launchAdminControl(primaryStage));
+
+        Button adminPortalButton = new Button("2. Admin Portal");
+        adminPortalButton.setOnAction(e -> launchAdminPortal(primaryStage));
+
+        Button courseManagementButton = new Button("3. Course Management System");
+        courseManagementButton.setOnAction(e -> launchCourseManagementSystem(primaryStage));
+
+        Button loginSystemButton = new Button("4. Login System");
+        loginSystemButton.setOnAction(e -> launchLoginSystem(primaryStage));
+
+        Button studentRegistrationButton = new Button("5. Student Registration System");
+        studentRegistrationButton.setOnAction(e -> launchStudentRegistrationSystem(primaryStage));
+
+        Button lecturerPortalButton = new Button("6. Lecturer Portal");
+        lecturerPortalButton.setOnAction(e -> launchLecturerPortal(primaryStage));
+        
+        Button exitButton = new Button("7. Exit");
+        exitButton.setOnAction(e -> {
+            stop();
+            Platform.exit();
+            System.exit(0);
+        });
+
+        panel.add(new Label("Choose an option:"), 0, 0);
+        panel.add(adminControlButton, 0, 1);
+        panel.add(adminPortalButton, 0, 2);
+        panel.add(courseManagementButton, 0, 3);
+        panel.add(loginSystemButton, 0, 4);
+        panel.add(studentRegistrationButton, 0, 5);
+        panel.add(lecturerPortalButton, 0, 6);
+        panel.add(exitButton, 0, 7);
+
+        Scene scene = new Scene(panel, 400, 250);
+        primaryStage.setScene(scene);
+        primaryStage.show();
+    }
+
+    @Override
+    public void stop() {
+        if (dataFileWatcher != null) {
+            dataFileWatcher.close();
+            dataFileWatcher = null;
+        }
+        if (dataContext != null) {
+            dataContext.thenAccept(AppDataContext::close);
+        }
+    }
+
+    private void launchAdminControl(Stage primaryStage) {
+        openWithSession(Session.Role.ADMIN,
+                session -> new AdminControlGUI(dataContext.join(), session).start(new Stage()));
+    }
+
+    
+    private void launchAdminPortal(Stage primaryStage) {
+        openWithSession(Session.Role.ADMIN,
+                session -> new AdminPortalUI(dataContext.join(), session).start(new Stage()));
+    }
+
+    private void launchCourseManagementSystem(Stage primaryStage) {
+        openWithSession(Session.Role.ADMIN,
+                session -> new CourseManagementSystemUI(dataContext.join(), session).start(new Stage()));
+    }
+
+    private void launchLoginSystem(Stage primaryStage) {
+        // Logging in here lets every module opened afterwards skip its own login
+        showLoginDialog(session -> { });
+    }
+
+    private void launchStudentRegistrationSystem(Stage primaryStage) {
+        openWithSession(Session.Role.STUDENT,
+                session -> new StudentRegistrationSystemUI(dataContext.join(), session).start(new Stage()));
+    }
+
+    private void launchLecturerPortal(Stage primaryStage) {
+        openWithSession(Session.Role.LECTURER,
+                session -> new LecturerPortal(dataContext.join(), session).start(new Stage()));
+    }
+
+    // Opens a module with the current session if it has the role the module needs. Otherwise the user logs in
+    // once through the login window; if that session has the wrong role the module asks for credentials itself.
+    private void openWithSession(Session.Role role, Consumer<Session> openModule) {
+        SessionService sessions = dataContext.join().getSessions();
+        if (sessions.hasRole(session, role)) {
+            openModule.accept(session);
+            return;
+        }
+        showLoginDialog(loggedIn -> openModule.accept(loggedIn.getRole() == role ? loggedIn : null));
+    }
+
+    // Shows the login window and remembers the session once the user has actually logged in
+    private void showLoginDialog(Consumer<Session> onLogin) {
+        LoginSystemUI loginApp = new LoginSystemUI(dataContext.join());
+        loginApp.setOnLogin(loggedIn -> {
+            session = loggedIn;
+            onLogin.accept(loggedIn);
+        });
+        loginApp.start(new Stage());
+    }
+}
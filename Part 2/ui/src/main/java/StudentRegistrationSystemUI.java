@@ -6,6 +6,7 @@
  */
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -14,20 +15,48 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class StudentRegistrationSystemUI extends Application {
 
     private String currentStudentName;
-    private List<String[]> coursesData;
-    private List<String[]> studentData;
+    // Registration rules applied to the shared catalog, here or on the registration server
+    private StudentRegistration registration;
+    // Set when the registration.server property points the window at a registration server
+    private RegistrationClient client;
     private List<String> cartCourses = new ArrayList<>();
+    // Shared data, kept current with changes made by other open windows
+    private AppDataContext dataContext;
+    // Student session handed over by MainApp, if any
+    private Session session;
+
+    /**
+     * Creates the window; the data files are loaded when it starts, as when it is
+     * launched on its own.
+     */
+    public StudentRegistrationSystemUI() {
+    }
+
+    /**
+     * Creates the window on top of the data MainApp has already loaded. A session with the right role
+     * skips the window's own login.
+     *
+     * @param dataContext The shared application data.
+     * @param session The session of the user already logged in, or null to ask for credentials.
+     */
+    public StudentRegistrationSystemUI(AppDataContext dataContext, Session session) {
+        this.dataContext = dataContext;
+        this.session = session;
+    }
 
     /**
      * The entry point of the JavaFX application.
@@ -38,8 +67,16 @@ public class StudentRegistrationSystemUI extends Application {
     public void start(Stage primaryStage) {
         primaryStage.setTitle("Student Registration System");
 
-        coursesData = loadCsv("courses.csv");
-        studentData = loadCsv("database.csv");
+        String server = System.getProperty(RegistrationClient.SERVER_PROPERTY, "").trim();
+        if (dataContext == null && !server.isEmpty()) {
+            client = new RegistrationClient(server);
+            registration = client;
+        } else {
+            if (dataContext == null) {
+                dataContext = AppDataContext.load(FxDataThread.INSTANCE);
+            }
+            registration = dataContext.getRegistration();
+        }
 
         GridPane gridPane = createGridPane();
         addLoginFields(gridPane);
@@ -47,6 +84,13 @@ public class StudentRegistrationSystemUI extends Application {
         Scene loginScene = new Scene(gridPane, 300, 150);
         primaryStage.setScene(loginScene);
 
+        if (dataContext != null && dataContext.getSessions().hasRole(session, Session.Role.STUDENT)) {
+            // Already logged in as a student
+            currentStudentName = session.getUsername();
+            showStudentMenu();
+            return;
+        }
+
         primaryStage.show();
     }
 
@@ -92,48 +136,31 @@ public class StudentRegistrationSystemUI extends Application {
             String enteredUsername = usernameField.getText();
             String enteredPassword = passwordField.getText();
 
-            // Attempting to authenticate the user
-            currentStudentName = authenticateAndGetStudentName(enteredUsername, enteredPassword);
-
-            if (currentStudentName != null) {
-                showAlert("Login Successful", "Welcome, " + currentStudentName + "!");
-                showStudentMenu();
-            } else {
-                showAlert("Login Failed", "Invalid username or password. Please try again.");
-            }
+            // Attempting to authenticate the user; the password is checked on the hashing pool
+            CompletableFuture<Session> login = client != null ? client.loginAsync(enteredUsername, enteredPassword)
+                    : dataContext.getSessions().loginAsync(enteredUsername, enteredPassword);
+            login.whenComplete((loggedIn, error) ->
+                    Platform.runLater(() -> {
+                        if (error != null) {
+                            showAlert("Login Failed", error.getCause() instanceof IOException
+                                    ? "Could not reach the registration server. Please try again."
+                                    : "Too many logins are being checked. Please try again.");
+                            return;
+                        }
+                        currentStudentName = loggedIn != null && loggedIn.getRole() == Session.Role.STUDENT
+                                ? loggedIn.getUsername() : null;
+
+                        if (currentStudentName != null) {
+                            session = loggedIn;
+                            showAlert("Login Successful", "Welcome, " + currentStudentName + "!");
+                            showStudentMenu();
+                        } else {
+                            showAlert("Login Failed", "Invalid username or password. Please try again.");
+                        }
+                    }));
         });
     }
 
-    /**
-     * Authenticates the user by checking the provided username and password against
-     * stored data.
-     *
-     * @param enteredUsername The username entered by the user.
-     * @param enteredPassword The password entered by the user.
-     * @return The name of the authenticated student if successful, otherwise null.
-     */
-    private String authenticateAndGetStudentName(String enteredUsername, String enteredPassword) {
-        String csvFile = "database.csv";
-        String line;
-        String cvsSplitBy = ",";
-
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-            while ((line = br.readLine()) != null) {
-                String[] user = line.split(cvsSplitBy);
-
-                // Check if username and password match
-                if ("Student".equals(user[0]) && user.length >= 4
-                        && user[1].equals(enteredUsername) && user[4].equals(enteredPassword)) {
-                    return user[1];
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return null;
-    }
-
     /**
      * Displays the student menu by creating a new stage and scene.
      */
@@ -180,9 +207,12 @@ public class StudentRegistrationSystemUI extends Application {
         // Event handlers for the buttons
         registerButton.setOnAction(e -> showRegistrationDialog());
         dropButton.setOnAction(e -> showDropDialog());
-        viewPastButton.setOnAction(e -> showSubjectsDialog("Past", getPastSubjects()));
-        viewCurrentButton.setOnAction(e -> showSubjectsDialog("Current", getCurrentSubjects()));
-        viewFutureButton.setOnAction(e -> showSubjectsDialog("Future", getFutureSubjects()));
+        viewPastButton.setOnAction(e -> callRegistration(this::getPastSubjects,
+                subjects -> showSubjectsDialog("Past", subjects)));
+        viewCurrentButton.setOnAction(e -> callRegistration(this::getCurrentSubjects,
+                subjects -> showSubjectsDialog("Current", subjects)));
+        viewFutureButton.setOnAction(e -> callRegistration(this::getFutureSubjects,
+                subjects -> showSubjectsDialog("Future", subjects)));
         viewCartButton.setOnAction(e -> viewCart());
     }
 
@@ -191,7 +221,22 @@ public class StudentRegistrationSystemUI extends Application {
      * courses and add them to the cart.
      */
     private void showRegistrationDialog() {
-        List<String> availableCourses = getAvailableCourses();
+        // Registration only opens in the student's window of the schedule
+        callRegistration(() -> registration.checkWindow(currentStudentName), closed -> {
+            if (closed != null) {
+                showAlert("Registration Closed", closed);
+                return;
+            }
+            callRegistration(this::getAvailableCourses, this::showCourseSelection);
+        });
+    }
+
+    /**
+     * Displays the courses the student may register for and adds the selected ones to the cart.
+     *
+     * @param availableCourses The courses the student is not registered for.
+     */
+    private void showCourseSelection(List<String> availableCourses) {
         if (availableCourses.isEmpty()) {
             showAlert("Registration Error", "No available courses for registration.");
             return;
@@ -229,7 +274,10 @@ public class StudentRegistrationSystemUI extends Application {
         dialog.setResultConverter(dialogButton -> {
             if (dialogButton == addToCartButtonType) {
                 // Get the selected items and add them to the cart
-                cartCourses.addAll(courseListView.getSelectionModel().getSelectedItems());
+                for (String selectedCourse : courseListView.getSelectionModel().getSelectedItems()) {
+                    cartCourses.add(selectedCourse);
+                    TrafficRecorder.getInstance().cartAdd(currentStudentName, getCodeFromCourse(selectedCourse));
+                }
             }
             return null;
         });
@@ -261,12 +309,12 @@ public class StudentRegistrationSystemUI extends Application {
             int totalCreditsInCart = calculateTotalCreditsInCart();
 
             // Validate cart credits
-            if (totalCreditsInCart < 3) {
+            if (totalCreditsInCart < RegistrationService.MIN_CREDITS) {
                 showAlert("Invalid Cart", "You must have a minimum of 3 credits in your cart.");
                 return;
             }
 
-            if (totalCreditsInCart > 12) {
+            if (totalCreditsInCart > RegistrationService.MAX_CREDITS) {
                 showAlert("Invalid Cart", "You cannot have more than 12 credits in your cart.");
                 return;
             }
@@ -293,138 +341,86 @@ public class StudentRegistrationSystemUI extends Application {
         return totalCredits;
     }
 
-    /**
-     * Checks if the student is already registered for a given course.
-     *
-     * @param courseCode The code of the course to check registration status.
-     * @return True if the student is already registered for the course; false
-     *         otherwise.
-     */
-    private boolean isAlreadyRegistered(String courseCode) {
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            if (course[1].equals(courseCode) && course[3] != null && course[3].contains(currentStudentName)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Saves the courses in the cart to the student's registration and updates the
      * courses data.
      */
     private void saveCartToCourses() {
+        List<String> courseCodes = new ArrayList<>();
         for (String selectedCourse : cartCourses) {
-            registerForCourse(selectedCourse);
+            courseCodes.add(getCodeFromCourse(selectedCourse));
         }
 
+        if (client != null) {
+            checkoutOnServer(courseCodes);
+            return;
+        }
+
+        // Check the credit limit, existing registration and prerequisites of each course, then save and publish
+        showCheckoutResults(registration.checkout(this, currentStudentName, courseCodes));
+
         // Clear the cart after registering courses
         cartCourses.clear();
     }
 
     /**
-     * Registers the student for a selected course, updating the course registration
-     * data.
+     * Checks out on the registration server off the application thread, since at busy times the server
+     * holds checkouts in its waiting room. The student is shown their place in line while they wait.
      *
-     * @param selectedCourse The course selected for registration.
+     * @param courseCodes The codes of the courses in the cart.
      */
-    private void registerForCourse(String selectedCourse) {
-        String courseCode = getCodeFromCourse(selectedCourse);
-
-        int creditsToAdd = getCreditsFromCourse(courseCode);
-
-        // Check if the total credits after registration exceed the limit
-        if (getCreditsRegistered() + creditsToAdd > 12) {
-            showAlert("Registration Failed", "You cannot register for more than 12 credits.");
-            return;
-        }
-
-        // Check if the student is already registered for this course
-        if (isAlreadyRegistered(courseCode)) {
-            showAlert("Registration Failed", "You are already registered for course: " + courseCode);
-            return;
-        }
-
-        // Check if the student meets the prerequisites
-        if (!meetsPrerequisites(courseCode)) {
-            showAlert("Registration Failed", "You do not meet the prerequisites for course: " + courseCode);
-            return;
-        }
-
-        // Update the student registration for the course
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            if (course[1].equals(courseCode)) {
-                if (course[3] == null || course[3].equals("-")) {
-                    course[3] = currentStudentName;
-                } else {
-                    course[3] += ";" + currentStudentName;
-                }
-                break;
-            }
-        }
-
-        // Save the updated courses
-        saveCsv("courses.csv", coursesData);
-
-        showAlert("Registration Successful", "Successfully registered for course: " + courseCode);
-    }
-
-    private boolean meetsPrerequisites(String courseCode) {
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            if (course[1].equals(courseCode)) {
-                String prerequisites = course[2];
-                if (prerequisites.equals("Nil")) {
-                    return true; // No prerequisites
-                }
-
-                String[] prerequisiteCourses = prerequisites.split(";");
-                for (String prerequisite : prerequisiteCourses) {
-                    if (!isAlreadyRegistered(prerequisite.trim())) {
-                        return false; // Student does not meet a prerequisite
+    private void checkoutOnServer(List<String> courseCodes) {
+        Label waitingLabel = new Label("Registering...");
+        VBox waitingBox = new VBox(10, waitingLabel);
+        waitingBox.setPadding(new Insets(20));
+        Stage waitingStage = new Stage();
+        waitingStage.setTitle("Registration Waiting Room");
+        waitingStage.setScene(new Scene(waitingBox, 360, 80));
+        waitingStage.show();
+
+        client.setWaitingListener((position, etaMillis) -> Platform.runLater(() -> waitingLabel.setText(
+                "You are number " + position + " in line.\nExpected wait: about "
+                        + Math.max(1, (etaMillis + 999) / 1000) + " seconds.")));
+        CompletableFuture.supplyAsync(() -> registration.checkout(this, currentStudentName, courseCodes))
+                .whenComplete((results, error) -> Platform.runLater(() -> {
+                    waitingStage.close();
+                    if (error != null) {
+                        // Keep the cart so the student can try again
+                        showAlert("Registration Failed", error.getCause() instanceof RejectedExecutionException
+                                ? error.getCause().getMessage()
+                                : "Could not reach the registration server. Please try again.");
+                        return;
                     }
-                }
-
-                return true; // Student meets all prerequisites
-            }
-        }
-        return false; // Course not found
+                    showCheckoutResults(results);
+                    cartCourses.clear();
+                }));
     }
 
     /**
-     * Retrieves the number of credits associated with a given course code.
+     * Shows the outcome of each course in a checkout.
      *
-     * @param courseCode The code of the course.
-     * @return The number of credits for the course, or 0 if the course is not found
-     *         or there's an error parsing the credits.
+     * @param results The refusal of each course, null for each course that was registered.
      */
-    private int getCreditsFromCourse(String courseCode) {
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            if (course[1].equals(courseCode)) {
-                try {
-                    return Integer.parseInt(course[0].split(" ")[0]);
-                } catch (NumberFormatException e) {
-                    e.printStackTrace();
-                }
+    private void showCheckoutResults(Map<String, String> results) {
+        for (Map.Entry<String, String> result : results.entrySet()) {
+            if (result.getValue() != null) {
+                showAlert("Registration Failed", result.getValue());
+            } else {
+                showAlert("Registration Successful", "Successfully registered for course: " + result.getKey());
             }
         }
-        return 0; // Return 0 if the course is not found or there's an error parsing the credits
     }
 
     /**
-     * Calculates the total credits registered by the current student.
+     * Retrieves the number of credits associated with a given course code. On the registration server the
+     * credits of the available courses come with the list, so this makes no further request.
      *
-     * @return The total credits registered by the current student.
+     * @param courseCode The code of the course.
+     * @return The number of credits for the course, or 0 if the course is not found
+     *         or there's an error parsing the credits.
      */
-    private int getCreditsRegistered() {
-        int totalCredits = 0;
-
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            if (course[3] != null && course[3].contains(currentStudentName) && !course[3].equals("-")) {
-                totalCredits += getCreditsFromCourse(course[1]);
-            }
-        }
-
-        return totalCredits;
+    private int getCreditsFromCourse(String courseCode) {
+        return registration.getCredits(courseCode); // Returns 0 if the course is not found
     }
 
     /**
@@ -434,13 +430,7 @@ public class StudentRegistrationSystemUI extends Application {
      *         Title".
      */
     private List<String> getAvailableCourses() {
-        List<String> availableCourses = new ArrayList<>();
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            if (course[3] == null || course[3].equals("-") || !course[3].contains(currentStudentName)) {
-                availableCourses.add(course[1] + ", " + course[4]);
-            }
-        }
-        return availableCourses;
+        return registration.getAvailableCourses(currentStudentName);
     }
 
     // Method: showDropDialog
@@ -451,19 +441,20 @@ public class StudentRegistrationSystemUI extends Application {
     // Parameters: None
     // Return value: None
     private void showDropDialog() {
-        List<String> registeredCourses = getRegisteredCourses();
-        if (registeredCourses.isEmpty()) {
-            showAlert("Drop Error", "You are not registered for any courses.");
-            return;
-        }
+        callRegistration(this::getRegisteredCourses, registeredCourses -> {
+            if (registeredCourses.isEmpty()) {
+                showAlert("Drop Error", "You are not registered for any courses.");
+                return;
+            }
 
-        ChoiceDialog<String> dialog = new ChoiceDialog<>(registeredCourses.get(0), registeredCourses);
-        dialog.setTitle("Drop Course");
-        dialog.setHeaderText("Select a course to drop:");
-        dialog.setContentText("Course:");
+            ChoiceDialog<String> dialog = new ChoiceDialog<>(registeredCourses.get(0), registeredCourses);
+            dialog.setTitle("Drop Course");
+            dialog.setHeaderText("Select a course to drop:");
+            dialog.setContentText("Course:");
 
-        Optional<String> result = dialog.showAndWait();
-        result.ifPresent(this::dropCourse);
+            Optional<String> result = dialog.showAndWait();
+            result.ifPresent(this::dropCourse);
+        });
     }
 
     // Method: dropCourse
@@ -475,27 +466,38 @@ public class StudentRegistrationSystemUI extends Application {
     private void dropCourse(String selectedCourse) {
         String courseCode = getCodeFromCourse(selectedCourse);
 
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            if (course[1].equals(courseCode)) {
-                String[] students = course[3].split(";");
-                StringBuilder updatedStudents = new StringBuilder();
-
-                for (String student : students) {
-                    if (!student.equals(currentStudentName)) {
-                        if (updatedStudents.length() > 0) {
-                            updatedStudents.append(";");
-                        }
-                        updatedStudents.append(student);
-                    }
-                }
-
-                course[3] = updatedStudents.toString();
+        callRegistration(() -> registration.drop(this, currentStudentName, courseCode), failure -> {
+            if (failure != null) {
+                showAlert("Drop Failed", failure);
+                return;
             }
-        }
 
-        saveCsv("courses.csv", coursesData);
+            showAlert("Drop Successful", "Successfully dropped course: " + courseCode);
+        });
+    }
 
-        showAlert("Drop Successful", "Successfully dropped course: " + courseCode);
+    /**
+     * Makes a call to the registration rules and hands its result on the application thread. A call to the
+     * registration server is a network round trip, so it is made on a background thread and a failure is
+     * shown to the student; local calls run straight away, since the shared data lives on this thread.
+     *
+     * @param call The call to make.
+     * @param then Given the result on the application thread.
+     */
+    private <T> void callRegistration(Supplier<T> call, Consumer<T> then) {
+        if (client == null) {
+            then.accept(call.get());
+            return;
+        }
+        CompletableFuture.supplyAsync(call).whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                showAlert("Registration Server Error", error.getCause() instanceof UncheckedIOException
+                        ? "Could not reach the registration server. Please try again."
+                        : error.getCause().getMessage());
+                return;
+            }
+            then.accept(result);
+        }));
     }
 
     // Method: getRegisteredCourses
@@ -504,13 +506,7 @@ public class StudentRegistrationSystemUI extends Application {
     // Return value: List<String> - A list of registered courses in the format
     // "Course Code, Course Name".
     private List<String> getRegisteredCourses() {
-        List<String> registeredCourses = new ArrayList<>();
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            if (course[3] != null && course[3].contains(currentStudentName) && !course[3].equals("-")) {
-                registeredCourses.add(course[1] + ", " + course[4]);
-            }
-        }
-        return registeredCourses;
+        return registration.getRegisteredCourses(currentStudentName);
     }
 
     // Method: getPastSubjects
@@ -520,16 +516,7 @@ public class StudentRegistrationSystemUI extends Application {
     // Return value: List<String> - A list of past subjects in the format "Course
     // Code, Course Name".
     private List<String> getPastSubjects() {
-        List<String> pastSubjects = new ArrayList<>();
-
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            // Check if the course was dropped by the current student
-            if (course[3] != null && course[3].contains(currentStudentName) && !course[3].equals("-")) {
-                pastSubjects.add(course[1] + ", " + course[4]);
-            }
-        }
-
-        return pastSubjects;
+        return registration.getRegisteredCourses(currentStudentName);
     }
 
     // Method: getCurrentSubjects
@@ -539,16 +526,7 @@ public class StudentRegistrationSystemUI extends Application {
     // Return value: List<String> - A list of current subjects in the format "Course
     // Code, Course Name".
     private List<String> getCurrentSubjects() {
-        List<String> currentSubjects = new ArrayList<>();
-
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            // Check if the course is taken by the current student
-            if (course[3] != null && course[3].contains(currentStudentName) && !course[3].equals("-")) {
-                currentSubjects.add(course[1] + ", " + course[4]);
-            }
-        }
-
-        return currentSubjects;
+        return registration.getRegisteredCourses(currentStudentName);
     }
 
     // Method: getFutureSubjects
@@ -558,16 +536,7 @@ public class StudentRegistrationSystemUI extends Application {
     // Return value: List<String> - A list of future subjects in the format "Course
     // Code, Course Name".
     private List<String> getFutureSubjects() {
-        List<String> futureSubjects = new ArrayList<>();
-
-        for (String[] course : coursesData.subList(1, coursesData.size())) {
-            // Check if the course is not yet taken by the current student
-            if (course[3] == null || !course[3].contains(currentStudentName) || course[3].equals("-")) {
-                futureSubjects.add(course[1] + ", " + course[4]);
-            }
-        }
-
-        return futureSubjects;
+        return registration.getAvailableCourses(currentStudentName);
     }
 
     // Method: showSubjectsDialog
@@ -600,42 +569,6 @@ public class StudentRegistrationSystemUI extends Application {
         alert.showAndWait();
     }
 
-    // Method: loadCsv
-    // Description: Loads data from a CSV file into a List of String arrays.
-    // Parameters:
-    // - filename: The name of the CSV file to load.
-    // Return value: List<String[]> - The loaded data.
-    private List<String[]> loadCsv(String filename) {
-        List<String[]> data = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] row = line.split(",");
-                data.add(row);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return data;
-    }
-
-    // Method: saveCsv
-    // Description: Saves data to a CSV file from a List of String arrays.
-    // Parameters:
-    // - filename: The name of the CSV file to save to.
-    // - data: The data to be saved.
-    // Return value: None
-    private void saveCsv(String filename, List<String[]> data) {
-        try (FileWriter writer = new FileWriter(filename)) {
-            for (String[] row : data) {
-                writer.write(String.join(",", row));
-                writer.write("\n");
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
     // Method: getCodeFromCourse
     // Description: Extracts the course code from a string representing a course.
     // Parameters: